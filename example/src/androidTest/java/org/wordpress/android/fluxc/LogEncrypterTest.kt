@@ -4,6 +4,7 @@ import android.util.Base64
 import android.util.Base64.DEFAULT
 import com.goterl.lazycode.lazysodium.interfaces.SecretStream
 import com.goterl.lazycode.lazysodium.utils.KeyPair
+import okio.Buffer
 import org.json.JSONObject
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNotNull
@@ -89,6 +90,24 @@ class LogEncrypterTest {
         assertEquals(uuid, testUuid)
     }
 
+    @Test
+    fun testThatStreamedLogsMatchTheStringFormat() {
+        val testLogString = "first\r\nsecond\rthird\n\nfourth\n"
+        val encryptedLog = Buffer().also {
+            LogEncrypter(EncryptedLoggingKey(keypair.publicKey)).encrypt(Buffer().writeUtf8(testLogString), "uuid", it)
+        }.readUtf8()
+
+        val json = JSONObject(encryptedLog)
+        assertEquals(
+                "There should be one message per line and the closing tag",
+                testLogString.lines().size + 1,
+                json.getJSONArray("messages").length()
+        )
+        // The keys are random, but the messages have the same lengths as with the String format
+        assertEquals(encryptContent(testLogString, "uuid").length, encryptedLog.length)
+        assertEquals(testLogString.lines().joinToString(separator = "\n"), decryptContent(encryptedLog))
+    }
+
     // Helpers
 
     private fun encryptContent(content: String, uuid: String = UUID.randomUUID().toString()): String {
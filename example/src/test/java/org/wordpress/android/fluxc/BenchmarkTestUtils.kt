@@ -0,0 +1,46 @@
+@file:JvmName("BenchmarkTestUtils")
+
+package org.wordpress.android.fluxc
+
+import org.junit.Assume.assumeTrue
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import java.lang.management.ManagementFactory
+
+private const val RUN_BENCHMARKS_PROPERTY = "runBenchmarks"
+
+/*
+ * Helpers for the benchmarks of the unit tests.
+ *
+ * Wall-clock times depend on the machine running the tests and on what else it's running, so they are only logged.
+ * Benchmarks assert on what doesn't change from a run to another, like the allocated bytes or the rows read.
+ */
+
+/**
+ * Skips the calling test unless the benchmarks were asked for with `./gradlew testDebug -PrunBenchmarks`, so that
+ * the large data sets they use don't slow down every test run.
+ */
+fun assumeBenchmarksEnabled() {
+    assumeTrue("Benchmarks only run with -PrunBenchmarks", java.lang.Boolean.getBoolean(RUN_BENCHMARKS_PROPERTY))
+}
+
+fun measureNanos(block: () -> Unit): Long {
+    val startNanos = System.nanoTime()
+    block()
+    return System.nanoTime() - startNanos
+}
+
+/**
+ * Returns the bytes allocated by the current thread while running [block].
+ */
+fun measureAllocatedBytes(block: () -> Unit): Long {
+    val threadMXBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+    val threadId = Thread.currentThread().id
+    val start = threadMXBean.getThreadAllocatedBytes(threadId)
+    block()
+    return threadMXBean.getThreadAllocatedBytes(threadId) - start
+}
+
+fun logBenchmark(message: String) {
+    AppLog.i(T.TESTS, message)
+}
@@ -44,6 +44,7 @@ public class SingleStoreWellSqlConfigForTests extends WellSqlConfig {
     public void onCreate(SQLiteDatabase db, WellTableManager helper) {
         for (Class<? extends Identifiable> clazz : mStoreClassList) {
             helper.createTable(clazz);
+            createIndexes(db, getTable(clazz).getTableName());
         }
     }
 
@@ -57,6 +58,8 @@ public class SingleStoreWellSqlConfigForTests extends WellSqlConfig {
             TableClass table = getTable(clazz);
             db.execSQL("DROP TABLE " + table.getTableName());
             db.execSQL(table.createStatement());
+            createIndexes(db, table.getTableName());
         }
+        notifyResetListeners();
     }
 }
@@ -0,0 +1,129 @@
+package org.wordpress.android.fluxc.encryptedlog
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doThrow
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.mock
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import okio.BufferedSink
+import okio.BufferedSource
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.model.encryptedlogging.LogEncrypter
+import org.wordpress.android.fluxc.network.rest.wpcom.auth.AppSecrets
+import org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog.EncryptedLogRestClient
+import org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog.EncryptedLogUploadRequestBody
+import org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog.UploadEncryptedLogResult.LogUploadFailed
+import org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog.UploadEncryptedLogResult.LogUploaded
+import org.wordpress.android.fluxc.store.EncryptedLogStore.UploadEncryptedLogError
+import org.wordpress.android.fluxc.test
+import java.io.File
+import kotlin.test.assertEquals
+
+private const val LOG_UUID = "5a2f0e96-6c6e-4c7c-8d8b-4b1b7b2e1a71"
+private const val APP_SECRET = "secret"
+
+@RunWith(RobolectricTestRunner::class)
+class EncryptedLogRestClientTest {
+    private val server = MockWebServer()
+    private lateinit var logFile: File
+    private lateinit var restClient: EncryptedLogRestClient
+    // Stands in for the native encryption, which isn't available in unit tests
+    private val logEncrypter = mock<LogEncrypter> {
+        on { encrypt(any<BufferedSource>(), eq(LOG_UUID), any()) } doAnswer {
+            val source = it.getArgument<BufferedSource>(0)
+            val sink = it.getArgument<BufferedSink>(2)
+            sink.writeUtf8("encrypted:")
+            sink.writeAll(source)
+            sink.flush()
+        }
+    }
+
+    @Before
+    fun setUp() {
+        server.start()
+        logFile = File.createTempFile("log", ".txt").apply { writeText("first line\nsecond line") }
+        // Send the WP.com requests to the stub server
+        val okHttpClient = OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .addInterceptor { chain ->
+                    val url = chain.request().url().newBuilder()
+                            .scheme("http")
+                            .host(server.hostName)
+                            .port(server.port)
+                            .build()
+                    chain.proceed(chain.request().newBuilder().url(url).build())
+                }
+                .build()
+        restClient = EncryptedLogRestClient(okHttpClient, AppSecrets("id", APP_SECRET))
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        logFile.delete()
+    }
+
+    @Test
+    fun testLogIsEncryptedWhileItIsUploaded() = test {
+        server.enqueue(MockResponse())
+
+        val result = restClient.uploadLog(LOG_UUID, EncryptedLogUploadRequestBody(logFile, LOG_UUID, logEncrypter))
+
+        assertEquals(LogUploaded, result)
+        val request = server.takeRequest()
+        assertEquals("encrypted:first line\nsecond line", request.body.readUtf8())
+        assertEquals(APP_SECRET, request.getHeader("Authorization"))
+        assertEquals(LOG_UUID, request.getHeader("log-uuid"))
+        assertEquals("application/json", request.getHeader("Content-Type"))
+    }
+
+    @Test
+    fun testErrorResponsesAreMapped() = test {
+        server.enqueue(MockResponse().setResponseCode(429)
+                .setBody("{\"error\":\"too_many_requests\",\"message\":\"Please slow down.\"}"))
+        server.enqueue(MockResponse().setResponseCode(400)
+                .setBody("{\"error\":\"invalid-request\",\"message\":\"Invalid UUID\"}"))
+        server.enqueue(MockResponse().setResponseCode(500).setBody("{\"error\":\"oops\",\"message\":\"Oops\"}"))
+        server.enqueue(MockResponse().setResponseCode(502).setBody("<html>Bad gateway</html>"))
+
+        assertEquals(UploadEncryptedLogError.TooManyRequests, uploadError())
+        assertEquals(UploadEncryptedLogError.InvalidRequest, uploadError())
+        (uploadError() as UploadEncryptedLogError.Unknown).let {
+            assertEquals(500, it.statusCode)
+            assertEquals("Oops", it.message)
+        }
+        assertEquals(502, (uploadError() as UploadEncryptedLogError.Unknown).statusCode)
+    }
+
+    @Test
+    fun testConnectionFailureIsMapped() = test {
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START))
+
+        assertEquals(UploadEncryptedLogError.NoConnection, uploadError())
+    }
+
+    @Test
+    fun testMissingEncryptionLibraryFailsTheUpload() = test {
+        server.enqueue(MockResponse())
+        val failingEncrypter = mock<LogEncrypter> {
+            on { encrypt(any<BufferedSource>(), any(), any()) } doThrow UnsatisfiedLinkError()
+        }
+
+        val result = restClient.uploadLog(LOG_UUID, EncryptedLogUploadRequestBody(logFile, LOG_UUID, failingEncrypter))
+
+        assertEquals(UploadEncryptedLogError.UnsatisfiedLinkException, (result as LogUploadFailed).error)
+    }
+
+    private suspend fun uploadError(): UploadEncryptedLogError {
+        val result = restClient.uploadLog(LOG_UUID, EncryptedLogUploadRequestBody(logFile, LOG_UUID, logEncrypter))
+        return (result as LogUploadFailed).error
+    }
+}
@@ -0,0 +1,82 @@
+package org.wordpress.android.fluxc.list
+
+import org.junit.Test
+import org.wordpress.android.fluxc.model.list.ListItemRangeChange
+import org.wordpress.android.fluxc.model.list.ListItemRangeChange.Inserted
+import org.wordpress.android.fluxc.model.list.ListItemRangeChange.Removed
+import java.util.Random
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class ListItemRangeChangeTest {
+    @Test
+    fun identicalListsHaveNoChanges() {
+        assertTrue(ListItemRangeChange.calculate(longArrayOf(), longArrayOf()).isEmpty())
+        assertTrue(ListItemRangeChange.calculate(longArrayOf(1, 2, 3), longArrayOf(1, 2, 3)).isEmpty())
+    }
+
+    @Test
+    fun appendedPageIsOneInsertedRange() {
+        assertChanges(longArrayOf(1, 2, 3), longArrayOf(1, 2, 3, 4, 5), Inserted(3, 2))
+    }
+
+    @Test
+    fun itemsAddedAtTheTopAreOneInsertedRange() {
+        assertChanges(longArrayOf(3, 4), longArrayOf(1, 2, 3, 4), Inserted(0, 2))
+    }
+
+    @Test
+    fun removedItemsAreRemovedFromTheLastToTheFirst() {
+        assertChanges(longArrayOf(1, 2, 3, 4, 5, 6), longArrayOf(1, 4, 6), Removed(4, 1), Removed(1, 2))
+    }
+
+    @Test
+    fun emptiedAndFilledListsAreOneRange() {
+        assertChanges(longArrayOf(1, 2, 3), longArrayOf(), Removed(0, 3))
+        assertChanges(longArrayOf(), longArrayOf(1, 2, 3), Inserted(0, 3))
+    }
+
+    @Test
+    fun movedItemIsRemovedAndInsertedAgain() {
+        assertChanges(longArrayOf(1, 2, 3, 4), longArrayOf(4, 1, 2, 3), Removed(3, 1), Inserted(0, 1))
+    }
+
+    @Test
+    fun randomChangesTurnTheOldListIntoTheNewOne() {
+        val random = Random(42)
+        repeat(500) {
+            val oldIds = (1L..random.nextInt(50)).filter { random.nextInt(4) != 0 }.shuffled(random)
+            val newIds = (oldIds.filter { random.nextInt(5) != 0 } + (100L..100L + random.nextInt(10)))
+                    .shuffled(random)
+
+            val changes = ListItemRangeChange.calculate(oldIds.toLongArray(), newIds.toLongArray())
+
+            assertEquals(newIds, apply(oldIds, newIds, changes))
+            // Every item that isn't in the new list is removed
+            val removedCount = changes.filterIsInstance<Removed>().sumBy { it.count }
+            assertTrue(removedCount >= oldIds.size - oldIds.intersect(newIds).size)
+        }
+    }
+
+    private fun assertChanges(oldIds: LongArray, newIds: LongArray, vararg expected: ListItemRangeChange) {
+        val changes = ListItemRangeChange.calculate(oldIds, newIds)
+
+        assertEquals(expected.toList(), changes)
+        assertEquals(newIds.toList(), apply(oldIds.toList(), newIds.toList(), changes))
+    }
+
+    /**
+     * Applies the [changes] to [oldIds] the way an adapter would, taking the inserted items from [newIds].
+     */
+    private fun apply(oldIds: List<Long>, newIds: List<Long>, changes: List<ListItemRangeChange>): List<Long> {
+        val ids = oldIds.toMutableList()
+        changes.forEach { change ->
+            when (change) {
+                is Removed -> ids.subList(change.position, change.position + change.count).clear()
+                is Inserted -> ids.addAll(change.position,
+                        newIds.subList(change.position, change.position + change.count))
+            }
+        }
+        return ids
+    }
+}
@@ -6,6 +6,11 @@ import org.junit.Test
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
 import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureAllocatedBytes
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.list.ListDescriptor
 import org.wordpress.android.fluxc.model.list.ListItemModel
@@ -20,6 +25,8 @@ import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
 import kotlin.test.assertTrue
 
+private const val BENCHMARK_ITEMS = 20000
+
 @RunWith(RobolectricTestRunner::class)
 class ListItemSqlUtilsTest {
     private lateinit var listSqlUtils: ListSqlUtils
@@ -52,6 +59,37 @@ class ListItemSqlUtilsTest {
         assertEquals(count.toLong(), listItemSqlUtils.getListItemsCount(testList.id))
     }
 
+    @Test
+    fun testGetListItemIds() {
+        val testList = generateInsertAndAssertListItems(PostListDescriptorForRestSite(testSite()))
+        val otherList = generateInsertAndAssertListItems(PostListDescriptorForXmlRpcSite(testSite()), count = 3)
+
+        assertEquals(listItemSqlUtils.getListItems(testList.id).map { it.remoteItemId },
+                listItemSqlUtils.getListItemIds(testList.id).toList())
+        assertEquals(listOf(1L, 2L, 3L), listItemSqlUtils.getListItemIds(otherList.id).toList())
+        assertEquals(0, listItemSqlUtils.getListItemIds(otherList.id + testList.id).size)
+    }
+
+    @Test
+    fun testListItemIdsBenchmark() {
+        assumeBenchmarksEnabled()
+        val testList = generateInsertAndAssertListItems(PostListDescriptorForRestSite(testSite()), BENCHMARK_ITEMS)
+        // Warm up both queries before measuring them
+        listItemSqlUtils.getListItems(testList.id)
+        listItemSqlUtils.getListItemIds(testList.id)
+
+        val itemsNanos = measureNanos { listItemSqlUtils.getListItems(testList.id).map { RemoteId(it.remoteItemId) } }
+        val itemsBytes = measureAllocatedBytes {
+            listItemSqlUtils.getListItems(testList.id).map { RemoteId(it.remoteItemId) }
+        }
+        val idsNanos = measureNanos { listItemSqlUtils.getListItemIds(testList.id) }
+        val idsBytes = measureAllocatedBytes { listItemSqlUtils.getListItemIds(testList.id) }
+
+        logBenchmark("Loading $BENCHMARK_ITEMS list items: models ${itemsNanos / 1000000} ms and $itemsBytes " +
+                "bytes, ids ${idsNanos / 1000000} ms and $idsBytes bytes")
+        assertTrue(idsBytes < itemsBytes / 2)
+    }
+
     @Test
     fun testListIdForeignKeyCascadeDelete() {
         val listDescriptor = PostListDescriptorForRestSite(testSite())
@@ -0,0 +1,135 @@
+package org.wordpress.android.fluxc.list
+
+import androidx.arch.core.executor.ArchTaskExecutor
+import androidx.arch.core.executor.TaskExecutor
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.TEST_SCOPE
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
+import org.wordpress.android.fluxc.model.list.ListItemRangeChange.Inserted
+import org.wordpress.android.fluxc.model.list.ListItemRangeChange.Removed
+import org.wordpress.android.fluxc.model.list.ListModel
+import org.wordpress.android.fluxc.model.list.PagedListWrapper
+import org.wordpress.android.fluxc.persistence.ListItemSqlUtils
+import org.wordpress.android.fluxc.persistence.ListSqlUtils
+import org.wordpress.android.fluxc.store.ListStore
+import kotlin.test.assertEquals
+
+@RunWith(RobolectricTestRunner::class)
+class ListStoreItemRangeChangesTest {
+    private val mainThreadTasks = mutableListOf<Runnable>()
+    private val listSqlUtils = mock<ListSqlUtils>()
+    private val listItemSqlUtils = mock<ListItemSqlUtils>()
+    private val listDescriptor = TestListDescriptor()
+    private val dataSource = object : TestListItemDataSource {
+        override fun getItemsAndFetchIfNecessary(
+            listDescriptor: TestListDescriptor,
+            itemIdentifiers: List<TestListIdentifier>
+        ): List<TestPagedListResultType> = itemIdentifiers.map { it.toString() }
+
+        override fun getItemIdentifiers(
+            listDescriptor: TestListDescriptor,
+            remoteItemIds: List<RemoteId>,
+            isListFullyFetched: Boolean
+        ): List<TestListIdentifier> = remoteItemIds.map { it.value }
+
+        override fun fetchList(listDescriptor: TestListDescriptor, offset: Long) {}
+    }
+    private lateinit var listStore: ListStore
+
+    @Before
+    fun setUp() {
+        // Background work runs right away, and the main thread only runs when the test lets it
+        ArchTaskExecutor.getInstance().setDelegate(object : TaskExecutor() {
+            override fun executeOnDiskIO(runnable: Runnable) = runnable.run()
+
+            override fun postToMainThread(runnable: Runnable) {
+                mainThreadTasks.add(runnable)
+            }
+
+            override fun isMainThread() = true
+        })
+        whenever(listSqlUtils.getList(listDescriptor)).thenReturn(ListModel(1))
+        listStore = ListStore(listSqlUtils, listItemSqlUtils, TEST_SCOPE.coroutineContext, mock(), mock())
+    }
+
+    @After
+    fun tearDown() {
+        ArchTaskExecutor.getInstance().setDelegate(null)
+    }
+
+    @Test
+    fun testRangesOfBackToBackReloadsAreDeliveredWithTheLastPagedList() {
+        whenever(listItemSqlUtils.getListItemIds(1)).thenReturn(longArrayOf(1, 2, 3))
+        val wrapper = listStore.getList(listDescriptor, dataSource, mock(), emitItemRangeChanges = true)
+        val updates = observeUpdates(wrapper)
+        runMainThreadTasks()
+
+        // The list is reloaded twice before the main thread gets to run
+        whenever(listItemSqlUtils.getListItemIds(1)).thenReturn(longArrayOf(1, 2, 3, 4))
+        wrapper.invalidateData()
+        whenever(listItemSqlUtils.getListItemIds(1)).thenReturn(longArrayOf(0, 1, 3, 4))
+        wrapper.invalidateData()
+        runMainThreadTasks()
+
+        // The ranges of both reloads are delivered, in order, with the PagedList they lead to
+        assertEquals(listOf(
+                Pair(listOf("1", "2", "3"), null),
+                Pair(listOf("0", "1", "3", "4"), listOf(Inserted(3, 1), Removed(1, 1), Inserted(0, 1)))
+        ), updates)
+    }
+
+    @Test
+    fun testNewObserversOnlyReceiveLaterUpdates() {
+        whenever(listItemSqlUtils.getListItemIds(1)).thenReturn(longArrayOf(1, 2, 3))
+        val wrapper = listStore.getList(listDescriptor, dataSource, mock(), emitItemRangeChanges = true)
+        observeUpdates(wrapper)
+        whenever(listItemSqlUtils.getListItemIds(1)).thenReturn(longArrayOf(1, 3))
+        wrapper.invalidateData()
+        runMainThreadTasks()
+
+        // The last update describes a list this observer has never seen
+        val updates = observeUpdates(wrapper)
+        runMainThreadTasks()
+        assertEquals(emptyList(), updates)
+
+        whenever(listItemSqlUtils.getListItemIds(1)).thenReturn(longArrayOf(1, 3, 5))
+        wrapper.invalidateData()
+        runMainThreadTasks()
+        assertEquals(listOf(Pair(listOf("1", "3", "5"), listOf(Inserted(2, 1)))), updates)
+    }
+
+    @Test
+    fun testRangesAreNotCalculatedUnlessRequested() {
+        whenever(listItemSqlUtils.getListItemIds(1)).thenReturn(longArrayOf(1, 2, 3))
+        val wrapper = listStore.getList(listDescriptor, dataSource, mock())
+        val updates = observeUpdates(wrapper)
+        runMainThreadTasks()
+
+        whenever(listItemSqlUtils.getListItemIds(1)).thenReturn(longArrayOf(1, 3))
+        wrapper.invalidateData()
+        runMainThreadTasks()
+
+        assertEquals(listOf(
+                Pair(listOf("1", "2", "3"), null),
+                Pair(listOf("1", "3"), null)
+        ), updates)
+    }
+
+    private fun observeUpdates(wrapper: PagedListWrapper<String>): List<Pair<List<String>, Any?>> {
+        val updates = mutableListOf<Pair<List<String>, Any?>>()
+        wrapper.pagedListUpdates.observeForever { updates.add(Pair(it.pagedList.snapshot(), it.itemRangeChanges)) }
+        return updates
+    }
+
+    private fun runMainThreadTasks() {
+        while (mainThreadTasks.isNotEmpty()) {
+            mainThreadTasks.removeAt(0).run()
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.wordpress.android.fluxc.network
+
+import android.util.Base64
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+@RunWith(RobolectricTestRunner::class)
+class HTTPAuthManagerTest {
+    private val httpAuthManager = HTTPAuthManager()
+    private lateinit var config: SingleStoreWellSqlConfigForTests
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        config = SingleStoreWellSqlConfigForTests(appContext, HTTPAuthModel::class.java)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testNoMatchingCredentials() {
+        assertNull(httpAuthManager.getHTTPAuthModel("https://example.com/xmlrpc.php"))
+
+        httpAuthManager.addHTTPAuthCredentials("user", "pass", "https://example.com/xmlrpc.php", null)
+
+        assertNull(httpAuthManager.getHTTPAuthModel("https://example.org/xmlrpc.php"))
+        assertNull(httpAuthManager.getHTTPAuthHeader("http://example.com/xmlrpc.php"))
+    }
+
+    @Test
+    fun testMatchesRootUrlAndStrippedXmlrpcUrl() {
+        httpAuthManager.addHTTPAuthCredentials("user", "pass", "https://example.com/blog/xmlrpc.php", "realm")
+
+        assertEquals("user", httpAuthManager.getHTTPAuthModel("https://example.com/blog/xmlrpc.php")?.username)
+        assertEquals("user", httpAuthManager.getHTTPAuthModel("https://example.com/blog/wp-content/a.jpg")?.username)
+        assertNull(httpAuthManager.getHTTPAuthModel("https://example.com/other/a.jpg"))
+        val expectedHeader = "Basic " + Base64.encodeToString("user:pass".toByteArray(), Base64.NO_WRAP)
+        assertEquals(expectedHeader, httpAuthManager.getHTTPAuthHeader("https://example.com/blog/a.jpg"))
+    }
+
+    @Test
+    fun testFirstStoredCredentialsWinForOverlappingUrls() {
+        httpAuthManager.addHTTPAuthCredentials("blog", "pass", "https://example.com/blog/xmlrpc.php", null)
+        httpAuthManager.addHTTPAuthCredentials("root", "pass", "https://example.com/xmlrpc.php", null)
+
+        assertEquals("blog", httpAuthManager.getHTTPAuthModel("https://example.com/blog/a.jpg")?.username)
+        assertEquals("root", httpAuthManager.getHTTPAuthModel("https://example.com/a.jpg")?.username)
+    }
+
+    @Test
+    fun testLookupsUseTheLoadedCredentials() {
+        httpAuthManager.addHTTPAuthCredentials("user", "pass", "https://example.com/xmlrpc.php", null)
+        assertEquals("user", httpAuthManager.getHTTPAuthModel("https://example.com/a.jpg")?.username)
+
+        // Changing the table behind the manager's back isn't seen until the index is invalidated
+        WellSql.delete(HTTPAuthModel::class.java).execute()
+        assertEquals("user", httpAuthManager.getHTTPAuthModel("https://example.com/a.jpg")?.username)
+
+        httpAuthManager.invalidateIndex()
+        assertNull(httpAuthManager.getHTTPAuthModel("https://example.com/a.jpg"))
+    }
+
+    @Test
+    fun testResettingTheDatabaseDropsTheLoadedCredentials() {
+        httpAuthManager.addHTTPAuthCredentials("user", "pass", "https://example.com/xmlrpc.php", null)
+        assertEquals("user", httpAuthManager.getHTTPAuthModel("https://example.com/a.jpg")?.username)
+
+        // The database is reset, the way it is on sign out
+        config.reset()
+
+        assertNull(httpAuthManager.getHTTPAuthHeader("https://example.com/a.jpg"))
+    }
+
+    @Test
+    fun testChangesInvalidateTheLoadedCredentials() {
+        httpAuthManager.addHTTPAuthCredentials("user", "pass", "https://example.com/xmlrpc.php", null)
+        assertEquals("user", httpAuthManager.getHTTPAuthModel("https://example.com/a.jpg")?.username)
+
+        httpAuthManager.addHTTPAuthCredentials("other", "pass", "https://example.com/xmlrpc.php", null)
+        assertEquals("other", httpAuthManager.getHTTPAuthModel("https://example.com/a.jpg")?.username)
+
+        httpAuthManager.deleteHTTPAuthCredentials("https://example.com/xmlrpc.php")
+        assertNull(httpAuthManager.getHTTPAuthModel("https://example.com/a.jpg"))
+
+        httpAuthManager.addHTTPAuthCredentials("user", "pass", "https://example.org/xmlrpc.php", null)
+        httpAuthManager.deleteAllHTTPAuthCredentials()
+        assertNull(httpAuthManager.getHTTPAuthModel("https://example.org/a.jpg"))
+    }
+}
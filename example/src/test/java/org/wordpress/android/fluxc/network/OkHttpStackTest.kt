@@ -0,0 +1,81 @@
+package org.wordpress.android.fluxc.network
+
+import com.android.volley.DefaultRetryPolicy
+import com.android.volley.Request.Method
+import com.android.volley.toolbox.StringRequest
+import com.nhaarman.mockitokotlin2.mock
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import kotlin.test.assertEquals
+import kotlin.test.assertNotSame
+import kotlin.test.assertSame
+
+private const val REQUEST_COUNT = 100
+
+@RunWith(RobolectricTestRunner::class)
+class OkHttpStackTest {
+    private val server = MockWebServer()
+    private lateinit var okHttpStack: OkHttpStack
+
+    @Before
+    fun setUp() {
+        server.start()
+        okHttpStack = OkHttpStack(OkHttpClient.Builder())
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun testSequentialRequestsReuseASingleConnection() {
+        for (i in 0 until REQUEST_COUNT) {
+            server.enqueue(MockResponse().setBody("response $i"))
+        }
+
+        for (i in 0 until REQUEST_COUNT) {
+            // Alternate between the default and upload timeout profiles
+            val timeout = if (i % 2 == 0) {
+                BaseRequest.DEFAULT_REQUEST_TIMEOUT
+            } else {
+                BaseRequest.UPLOAD_REQUEST_READ_TIMEOUT
+            }
+            val request = StringRequest(Method.GET, server.url("/request/$i").toString(), mock(), mock())
+            request.retryPolicy = DefaultRetryPolicy(timeout, 0, DefaultRetryPolicy.DEFAULT_BACKOFF_MULT)
+
+            val response = okHttpStack.performRequest(request, emptyMap())
+            val body = response.entity.content.use { String(it.readBytes()) }
+            assertEquals("response $i", body)
+        }
+
+        // The sequence number is the index of the request on its connection, so each 0 is a new TCP connection
+        var openedConnections = 0
+        for (i in 0 until REQUEST_COUNT) {
+            if (server.takeRequest().sequenceNumber == 0) {
+                openedConnections++
+            }
+        }
+        assertEquals(REQUEST_COUNT, server.requestCount)
+        assertEquals(1, openedConnections)
+    }
+
+    @Test
+    fun testClientsAreCachedByTimeoutProfile() {
+        val defaultClient = okHttpStack.getClient(BaseRequest.DEFAULT_REQUEST_TIMEOUT)
+        val uploadClient = okHttpStack.getClient(BaseRequest.UPLOAD_REQUEST_READ_TIMEOUT)
+
+        assertSame(defaultClient, okHttpStack.getClient(BaseRequest.DEFAULT_REQUEST_TIMEOUT))
+        assertSame(uploadClient, okHttpStack.getClient(BaseRequest.UPLOAD_REQUEST_READ_TIMEOUT))
+        assertNotSame(defaultClient, uploadClient)
+        assertEquals(BaseRequest.UPLOAD_REQUEST_READ_TIMEOUT, uploadClient.readTimeoutMillis())
+        assertSame(defaultClient.connectionPool(), uploadClient.connectionPool())
+        assertSame(defaultClient.dispatcher(), uploadClient.dispatcher())
+    }
+}
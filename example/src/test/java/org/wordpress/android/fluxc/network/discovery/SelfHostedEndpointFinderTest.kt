@@ -0,0 +1,134 @@
+package org.wordpress.android.fluxc.network.discovery
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.timeout
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.annotations.action.Action
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryError
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryException
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryResultPayload
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit.SECONDS
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+private const val SITE_URL = "example.com"
+private const val HTTPS_XMLRPC_URL = "https://example.com/xmlrpc.php"
+private const val HTTP_XMLRPC_URL = "http://example.com/xmlrpc.php"
+private const val SLOW_PROBE_MS = 400L
+
+@RunWith(RobolectricTestRunner::class)
+class SelfHostedEndpointFinderTest {
+    private val dispatcher = mock<Dispatcher>()
+    private val xmlrpcClient = mock<DiscoveryXMLRPCClient>()
+    private val executor = Executors.newCachedThreadPool()
+    private val endpointFinder = SelfHostedEndpointFinder(dispatcher, xmlrpcClient, mock(), executor)
+    private val validMethods = arrayOf<Any>("wp.getProfile", "wp.getUsersBlogs", "wp.getPage",
+            "wp.getCommentStatusList", "wp.newComment", "wp.editComment", "wp.deleteComment", "wp.getComments",
+            "wp.getComment", "wp.getOptions", "wp.uploadFile", "wp.newCategory", "wp.getTags", "wp.getCategories",
+            "wp.editPage", "wp.deletePage", "wp.newPage", "wp.getPages")
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun testHigherPriorityUrlWinsEvenWhenItAnswersLast() {
+        whenever(xmlrpcClient.listMethods(any())).thenAnswer {
+            when (it.getArgument<String>(0)) {
+                HTTPS_XMLRPC_URL -> {
+                    Thread.sleep(SLOW_PROBE_MS)
+                    validMethods
+                }
+                HTTP_XMLRPC_URL -> validMethods
+                else -> null
+            }
+        }
+
+        val result = findEndpoint()
+
+        assertEquals(HTTPS_XMLRPC_URL, result.xmlRpcEndpoint)
+    }
+
+    @Test
+    fun testLowerPriorityProbesAreCancelledOnceAUrlIsVerified() {
+        val startedProbes = CountDownLatch(4)
+        val cancelledProbes = CountDownLatch(4)
+        whenever(xmlrpcClient.listMethods(any())).thenAnswer {
+            if (it.getArgument<String>(0) == HTTPS_XMLRPC_URL) {
+                // Answer once the other probes are waiting for their response
+                startedProbes.await(5, SECONDS)
+                validMethods
+            } else {
+                startedProbes.countDown()
+                try {
+                    Thread.sleep(SECONDS.toMillis(30))
+                } catch (e: InterruptedException) {
+                    cancelledProbes.countDown()
+                }
+                null
+            }
+        }
+
+        val result = findEndpoint()
+
+        assertEquals(HTTPS_XMLRPC_URL, result.xmlRpcEndpoint)
+        assertTrue(cancelledProbes.await(5, SECONDS))
+    }
+
+    @Test
+    fun testProbesRunInParallel() {
+        val startedProbes = CountDownLatch(4)
+        val probesOverlapped = AtomicBoolean(true)
+        whenever(xmlrpcClient.listMethods(any())).thenAnswer {
+            // Each probe waits for the others to start, which only happens if they don't run one after the other
+            startedProbes.countDown()
+            if (!startedProbes.await(5, SECONDS)) {
+                probesOverlapped.set(false)
+            }
+            if (it.getArgument<String>(0) == HTTP_XMLRPC_URL.removeSuffix("/xmlrpc.php")) validMethods else null
+        }
+
+        val result = findEndpoint()
+
+        assertEquals("http://example.com", result.xmlRpcEndpoint)
+        assertTrue(probesOverlapped.get())
+    }
+
+    @Test
+    fun testErrorFromHigherPriorityUrlStopsTheDiscovery() {
+        whenever(xmlrpcClient.listMethods(any())).thenAnswer {
+            when (it.getArgument<String>(0)) {
+                HTTPS_XMLRPC_URL -> {
+                    Thread.sleep(SLOW_PROBE_MS)
+                    throw DiscoveryException(DiscoveryError.HTTP_AUTH_REQUIRED, HTTPS_XMLRPC_URL)
+                }
+                HTTP_XMLRPC_URL -> validMethods
+                else -> null
+            }
+        }
+
+        val result = findEndpoint()
+
+        assertEquals(DiscoveryError.HTTP_AUTH_REQUIRED, result.error)
+        assertEquals(HTTPS_XMLRPC_URL, result.failedEndpoint)
+    }
+
+    private fun findEndpoint(): DiscoveryResultPayload {
+        endpointFinder.findEndpoint(SITE_URL)
+        val captor = argumentCaptor<Action<*>>()
+        verify(dispatcher, timeout(SECONDS.toMillis(5))).dispatch(captor.capture())
+        return captor.firstValue.payload as DiscoveryResultPayload
+    }
+}
@@ -0,0 +1,51 @@
+package org.wordpress.android.fluxc.network.rest
+
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+
+class GsonRegistryTest {
+    class TestObjectOrFalse : JsonObjectOrFalse() {
+        @JvmField var name: String? = null
+        @JvmField var count: Int = 0
+    }
+
+    class TestObjectOrEmptyArray : JsonObjectOrEmptyArray() {
+        @JvmField var name: String? = null
+    }
+
+    class TestResponse {
+        var objectOrFalse: TestObjectOrFalse? = null
+        var objectOrEmptyArray: TestObjectOrEmptyArray? = null
+    }
+
+    @Test
+    fun testDefaultRegistryIsShared() {
+        assertSame(GsonRegistry.getDefault(), GsonRegistry.getDefault())
+        assertSame(GsonRegistry.getDefault().gson, GsonRegistry.getDefault().gson)
+    }
+
+    @Test
+    fun testRegisteredAdaptersParseObjects() {
+        val gson = GsonRegistry.getDefault().gson
+        val json = "{\"objectOrFalse\":{\"name\":\"test\",\"count\":3},\"objectOrEmptyArray\":{\"name\":\"other\"}}"
+
+        val response = gson.fromJson(json, TestResponse::class.java)
+
+        assertEquals("test", response.objectOrFalse?.name)
+        assertEquals(3, response.objectOrFalse?.count)
+        assertEquals("other", response.objectOrEmptyArray?.name)
+    }
+
+    @Test
+    fun testRegisteredAdaptersParseFalseAndEmptyArray() {
+        GsonRegistry.getDefault().prewarm(TestResponse::class.java)
+        val gson = GsonRegistry.getDefault().gson
+
+        val response = gson.fromJson("{\"objectOrFalse\":false,\"objectOrEmptyArray\":[]}", TestResponse::class.java)
+
+        assertNull(response.objectOrFalse)
+        assertNull(response.objectOrEmptyArray)
+    }
+}
@@ -0,0 +1,91 @@
+package org.wordpress.android.fluxc.network.rest
+
+import com.android.volley.NetworkResponse
+import com.android.volley.Response.Listener
+import com.android.volley.toolbox.HttpHeaderParser
+import com.google.gson.JsonArray
+import com.google.gson.JsonParser
+import com.nhaarman.mockitokotlin2.mock
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.UnitTestUtils
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureAllocatedBytes
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertTrue
+
+private const val MIN_PAYLOAD_SIZE = 4 * 1024 * 1024
+
+/**
+ * Compares the memory allocated when parsing a multi-megabyte response with the streaming [GsonRequest] parser, and
+ * when copying the response into a String before parsing it.
+ */
+@RunWith(RobolectricTestRunner::class)
+class GsonRequestStreamingTest {
+    private lateinit var payload: ByteArray
+    private lateinit var networkResponse: NetworkResponse
+
+    @Before
+    fun setUp() {
+        // Build a large products categories page out of the recorded fixture
+        val json = UnitTestUtils.getStringFromResourceFile(javaClass, "wc/product-categories.json")
+        val categories = JsonParser().parse(json).asJsonArray
+        val page = JsonArray()
+        while (page.toString().length < MIN_PAYLOAD_SIZE) {
+            repeat(1000) { page.addAll(categories) }
+        }
+        payload = page.toString().toByteArray(Charsets.UTF_8)
+        networkResponse = NetworkResponse(200, payload, mapOf("Content-Type" to "application/json; charset=UTF-8"),
+                false)
+    }
+
+    @Test
+    fun testStreamingParseMatchesStringParse() {
+        val request = buildRequest()
+
+        val response = request.parseNetworkResponse(networkResponse)
+
+        assertTrue(response.isSuccess)
+        assertEquals(parseFromString(), response.result)
+    }
+
+    @Test
+    fun testStreamingParseReportsMalformedJson() {
+        val request = buildRequest()
+        val malformedResponse = NetworkResponse(payload.copyOf(payload.size / 2))
+
+        val response = request.parseNetworkResponse(malformedResponse)
+
+        assertNotNull(response.error)
+    }
+
+    @Test
+    fun testStreamingParseAllocatesLessThanStringParse() {
+        val request = buildRequest()
+        // Warm up the adapters and code paths before measuring
+        request.parseNetworkResponse(networkResponse)
+        parseFromString()
+
+        val stringAllocatedBytes = measureAllocatedBytes { parseFromString() }
+        val streamingAllocatedBytes = measureAllocatedBytes { request.parseNetworkResponse(networkResponse) }
+
+        logBenchmark("Parsing ${payload.size} bytes: String copy allocated $stringAllocatedBytes bytes, " +
+                "streaming allocated $streamingAllocatedBytes bytes")
+        // The String copy alone takes at least as many bytes as the payload (twice as many with UTF-16 strings)
+        assertTrue(stringAllocatedBytes - streamingAllocatedBytes >= payload.size / 2)
+    }
+
+    private fun buildRequest(): WPComGsonRequest<JsonArray> {
+        return WPComGsonRequest.buildGetRequest("https://public-api.wordpress.com/rest/v1.1/test/", null,
+                JsonArray::class.java, mock<Listener<JsonArray>>(), mock())
+    }
+
+    private fun parseFromString(): JsonArray {
+        val json = String(payload, charset(HttpHeaderParser.parseCharset(networkResponse.headers)))
+        return GsonRegistry.getDefault().gson.fromJson(json, JsonArray::class.java)
+    }
+}
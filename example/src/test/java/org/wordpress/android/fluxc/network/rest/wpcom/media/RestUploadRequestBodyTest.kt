@@ -0,0 +1,55 @@
+package org.wordpress.android.fluxc.network.rest.wpcom.media
+
+import okio.Buffer
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.network.BaseUploadRequestBody.ProgressListener
+import java.io.File
+import java.util.Random
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+private const val MEDIA_SIZE = 4 * 1024 * 1024 + 1234
+
+@RunWith(RobolectricTestRunner::class)
+class RestUploadRequestBodyTest {
+    private lateinit var mediaFile: File
+    private lateinit var media: MediaModel
+    private val progressValues = mutableListOf<Float>()
+    private val progressListener = ProgressListener { _, progress -> progressValues.add(progress) }
+
+    @Before
+    fun setUp() {
+        mediaFile = File.createTempFile("upload", ".jpg")
+        val bytes = ByteArray(MEDIA_SIZE)
+        Random(42).nextBytes(bytes)
+        mediaFile.writeBytes(bytes)
+        media = MediaModel().apply {
+            filePath = mediaFile.path
+            fileName = mediaFile.name
+            mimeType = "image/jpeg"
+        }
+    }
+
+    @After
+    fun tearDown() {
+        mediaFile.delete()
+    }
+
+    @Test
+    fun testProgressReachesTheEndOfTheBody() {
+        val requestBody = RestUploadRequestBody(media, mapOf("title" to "Title"), progressListener)
+
+        val buffer = Buffer()
+        requestBody.writeTo(buffer)
+
+        assertEquals(requestBody.contentLength(), buffer.size())
+        // The writes are throttled, but the last one is always reported
+        assertEquals(1f, progressValues.last())
+        assertTrue(progressValues.zipWithNext().all { (previous, next) -> previous <= next })
+    }
+}
@@ -0,0 +1,180 @@
+package org.wordpress.android.fluxc.network.xmlrpc.media
+
+import android.util.Base64
+import okhttp3.MediaType
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.RequestBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okio.BufferedSink
+import org.apache.commons.lang3.StringEscapeUtils
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureAllocatedBytes
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.network.BaseUploadRequestBody.ProgressListener
+import java.io.File
+import java.io.FileInputStream
+import java.util.Locale
+import java.util.Random
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+private const val MEDIA_SIZE = 8 * 1024 * 1024 + 1234
+
+@RunWith(RobolectricTestRunner::class)
+class XmlrpcUploadRequestBodyTest {
+    private val server = MockWebServer()
+    private val client = OkHttpClient()
+    private val site = SiteModel().apply {
+        selfHostedSiteId = 1
+        username = "üser"
+        password = "pass<word>"
+    }
+    private lateinit var mediaFile: File
+    private lateinit var media: MediaModel
+    private var lastProgress = 0f
+    private val progressListener = ProgressListener { _, progress -> lastProgress = progress }
+
+    @Before
+    fun setUp() {
+        server.start()
+        mediaFile = File.createTempFile("upload", ".mp4")
+        val bytes = ByteArray(MEDIA_SIZE)
+        Random(42).nextBytes(bytes)
+        mediaFile.writeBytes(bytes)
+        media = MediaModel().apply {
+            filePath = mediaFile.path
+            fileName = mediaFile.name
+            mimeType = "video/mp4"
+            postId = 10
+        }
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        mediaFile.delete()
+    }
+
+    @Test
+    fun testEncodeBlockMatchesAndroidBase64() {
+        val random = Random(7)
+        val output = ByteArray(5000)
+        for (length in (0..200) + listOf(3597, 3598, 3599, 3600)) {
+            val input = ByteArray(length)
+            random.nextBytes(input)
+
+            val encodedLength = XmlrpcUploadRequestBody.encodeBlock(input, length, output)
+
+            val expected = Base64.encode(input, 0, length, Base64.DEFAULT)
+            assertEquals(String(expected, Charsets.US_ASCII), String(output, 0, encodedLength, Charsets.US_ASCII))
+            assertEquals(expected.size.toLong(), XmlrpcUploadRequestBody.getBase64EncodedSize(length.toLong()))
+        }
+    }
+
+    @Test
+    fun testUploadedBodyMatchesLegacyEncoding() {
+        server.enqueue(MockResponse())
+        server.enqueue(MockResponse())
+        val requestBody = XmlrpcUploadRequestBody(media, progressListener, site)
+
+        upload(requestBody)
+        upload(LegacyXmlrpcUploadRequestBody(media, site))
+
+        val streamed = server.takeRequest().body.readByteArray()
+        val legacy = server.takeRequest().body.readByteArray()
+        assertTrue(streamed.contentEquals(legacy))
+        assertEquals(streamed.size.toLong(), requestBody.contentLength())
+        assertTrue(lastProgress > 0f && lastProgress <= 1f)
+    }
+
+    @Test
+    fun testStreamingUploadAllocatesLessThanLegacyUpload() {
+        repeat(4) { server.enqueue(MockResponse()) }
+        // Warm up both code paths before measuring
+        upload(XmlrpcUploadRequestBody(media, progressListener, site))
+        upload(LegacyXmlrpcUploadRequestBody(media, site))
+
+        val legacy = measure { upload(LegacyXmlrpcUploadRequestBody(media, site)) }
+        val streaming = measure { upload(XmlrpcUploadRequestBody(media, progressListener, site)) }
+
+        logBenchmark("Uploading $MEDIA_SIZE bytes: legacy $legacy, streaming $streaming")
+        // The legacy body creates a String per block, and encodes the whole file twice
+        assertTrue(legacy.allocatedBytes - streaming.allocatedBytes >= MEDIA_SIZE)
+    }
+
+    private fun upload(requestBody: RequestBody) {
+        val request = Request.Builder().url(server.url("/xmlrpc.php")).post(requestBody).build()
+        client.newCall(request).execute().close()
+    }
+
+    private fun measure(block: () -> Unit): Measurement {
+        var elapsedNanos = 0L
+        val allocatedBytes = measureAllocatedBytes { elapsedNanos = measureNanos(block) }
+        return Measurement(allocatedBytes, elapsedNanos / 1000000)
+    }
+
+    private data class Measurement(val allocatedBytes: Long, val elapsedMillis: Long)
+
+    /**
+     * The previous implementation, which encoded the whole file to compute the content length, and then created a
+     * String for each encoded block.
+     */
+    private class LegacyXmlrpcUploadRequestBody(private val media: MediaModel, site: SiteModel) : RequestBody() {
+        private val prependString = String.format(Locale.ENGLISH, PREPEND_XML_FORMAT, site.selfHostedSiteId,
+                StringEscapeUtils.escapeXml(site.username), StringEscapeUtils.escapeXml(site.password),
+                StringEscapeUtils.escapeXml(media.fileName), StringEscapeUtils.escapeXml(media.mimeType), media.postId)
+
+        override fun contentType() = MediaType.parse("text/xml; charset=utf-8")
+
+        override fun contentLength(): Long {
+            var totalSize = 0L
+            FileInputStream(media.filePath).use { fis ->
+                val buffer = ByteArray(3600)
+                var length = fis.read(buffer)
+                while (length > 0) {
+                    totalSize += Base64.encodeToString(buffer, 0, length, Base64.DEFAULT).length
+                    length = fis.read(buffer)
+                }
+            }
+            return totalSize + prependString.toByteArray().size + APPEND_XML.length
+        }
+
+        override fun writeTo(sink: BufferedSink) {
+            sink.writeUtf8(prependString)
+            FileInputStream(media.filePath).use { fis ->
+                val buffer = ByteArray(3600)
+                var length = fis.read(buffer)
+                while (length > 0) {
+                    sink.writeUtf8(Base64.encodeToString(buffer, 0, length, Base64.DEFAULT))
+                    length = fis.read(buffer)
+                }
+            }
+            sink.writeUtf8(APPEND_XML)
+        }
+
+        companion object {
+            private const val PREPEND_XML_FORMAT =
+                    "<?xml version=\"1.0\"?><methodCall><methodName>wp.uploadFile</methodName><params>" +
+                    "<param><value><int>%d</int></value></param>" +
+                    "<param><value><string>%s</string></value></param>" +
+                    "<param><value><string>%s</string></value></param>" +
+                    "<param><value><struct>" +
+                    "<member><name>name</name><value><string>%s</string></value></member>" +
+                    "<member><name>type</name><value><string>%s</string></value></member>" +
+                    "<member><name>overwrite</name><value><boolean>1</boolean></value></member>" +
+                    "<member><name>post_id</name><value><int>%d</int></value></member>" +
+                    "<member><name>bits</name><value><base64>"
+            private const val APPEND_XML =
+                    "</base64></value></member></struct></value></param></params></methodCall>"
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.wordpress.android.fluxc.notifications
+
+import com.google.gson.Gson
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.UnitTestUtils
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.generated.NotificationActionBuilder
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureAllocatedBytes
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.notification.NotificationModel
+import org.wordpress.android.fluxc.network.rest.wpcom.notifications.NotificationApiResponse
+import org.wordpress.android.fluxc.network.rest.wpcom.notifications.NotificationRestClient
+import org.wordpress.android.fluxc.persistence.NotificationSqlUtils
+import org.wordpress.android.fluxc.persistence.NotificationSqlUtils.NotificationModelBuilder
+import org.wordpress.android.fluxc.store.NotificationStore
+import org.wordpress.android.fluxc.store.NotificationStore.FetchNotificationHashesResponsePayload
+import org.wordpress.android.fluxc.tools.FormattableContentMapper
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+private const val CACHED_NOTES = 5000
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner::class)
+class NotificationHashSyncTest {
+    private val notificationSqlUtils = NotificationSqlUtils(FormattableContentMapper(Gson()))
+    private val restClient = mock<NotificationRestClient>()
+    private lateinit var templates: List<NotificationModel>
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        val config = SingleStoreWellSqlConfigForTests(appContext, listOf(NotificationModelBuilder::class.java))
+        WellSql.init(config)
+        config.reset()
+
+        val jsonString = UnitTestUtils
+                .getStringFromResourceFile(this.javaClass, "notifications/notifications-api-response.json")
+        val apiResponse = NotificationTestUtils.parseNotificationsApiResponseFromJsonString(jsonString)
+        templates = apiResponse.notes?.map {
+            NotificationApiResponse.notificationResponseToNotificationModel(it)
+        } ?: emptyList()
+    }
+
+    @Test
+    fun testNotificationHashesMatchCachedNotifications() {
+        insertNotes(CACHED_NOTES)
+
+        val noteHashes = notificationSqlUtils.getNotificationHashes()
+
+        val expected = notificationSqlUtils.getNotifications().associate { it.remoteNoteId to it.noteHash }
+        assertEquals(expected.size, noteHashes.size)
+        expected.forEach { (remoteNoteId, noteHash) -> assertEquals(noteHash, noteHashes.get(remoteNoteId, -1)) }
+        assertTrue(noteHashes.indexOfKey(CACHED_NOTES + 1L) < 0)
+        assertEquals(-1L, noteHashes.get(CACHED_NOTES + 1L, -1))
+    }
+
+    @Test
+    fun testDeleteNotificationsByRemoteIds() {
+        insertNotes(CACHED_NOTES)
+
+        // More IDs than fit in a single IN clause, plus one that isn't cached
+        val remoteNoteIds = (1L..CACHED_NOTES step 2).toList() + (CACHED_NOTES + 1L)
+        val deleted = notificationSqlUtils.deleteNotificationsByRemoteIds(remoteNoteIds)
+
+        assertEquals(CACHED_NOTES / 2, deleted)
+        val noteHashes = notificationSqlUtils.getNotificationHashes()
+        assertEquals(CACHED_NOTES / 2, noteHashes.size)
+        assertFalse(noteHashes.containsKey(1))
+        assertTrue(noteHashes.containsKey(2))
+        assertEquals(0, notificationSqlUtils.deleteNotificationsByRemoteIds(emptyList()))
+    }
+
+    @Test
+    fun testHashesSynchronizationFetchesOnlyChangedNotes() {
+        insertNotes(CACHED_NOTES)
+        val store = NotificationStore(mock<Dispatcher>(), RuntimeEnvironment.application, restClient,
+                notificationSqlUtils)
+
+        // Note 1 is gone, note 2 changed, note 5001 is new, the other notes are unchanged
+        val hashesMap = (2L..CACHED_NOTES + 1L).associate { it to noteHash(it) } + (2L to -2L)
+        store.onAction(NotificationActionBuilder
+                .newFetchedNotificationHashesAction(FetchNotificationHashesResponsePayload(hashesMap)))
+
+        val captor = argumentCaptor<List<Long>>()
+        verify(restClient).fetchNotifications(captor.capture())
+        assertEquals(listOf(2L, CACHED_NOTES + 1L), captor.firstValue.sorted())
+        assertEquals(CACHED_NOTES - 1L, notificationSqlUtils.getNotificationsCount())
+        assertEquals(null, notificationSqlUtils.getNotificationByRemoteId(1))
+    }
+
+    @Test
+    fun testHashesSynchronizationBenchmark() {
+        assumeBenchmarksEnabled()
+        insertNotes(CACHED_NOTES)
+        // Every other note is gone from the server, so half of the cache has to be deleted
+        val hashesMap = (2L..CACHED_NOTES step 2).associate { it to noteHash(it) }
+
+        var staleNotes = 0
+        val fullModelsNanos = measureNanos {
+            val cached = notificationSqlUtils.getNotifications().associateBy { it.remoteNoteId }
+            staleNotes = cached.keys.count { !hashesMap.containsKey(it) }
+        }
+        val fullModelsBytes = measureAllocatedBytes {
+            notificationSqlUtils.getNotifications().associateBy { it.remoteNoteId }
+        }
+        val singleDeletesNanos = measureNanos {
+            (1L..CACHED_NOTES step 2).forEach { notificationSqlUtils.deleteNotificationByRemoteId(it) }
+        }
+
+        insertNotes(CACHED_NOTES)
+        var hashes = notificationSqlUtils.getNotificationHashes()
+        val projectionNanos = measureNanos { hashes = notificationSqlUtils.getNotificationHashes() }
+        val projectionBytes = measureAllocatedBytes { notificationSqlUtils.getNotificationHashes() }
+        val staleRemoteNoteIds = (0 until hashes.size).map { hashes.keyAt(it) }.filter { !hashesMap.containsKey(it) }
+        var deleted = 0
+        val batchedDeleteNanos = measureNanos {
+            deleted = notificationSqlUtils.deleteNotificationsByRemoteIds(staleRemoteNoteIds)
+        }
+
+        logBenchmark("Hashes of $CACHED_NOTES cached notes: full models ${fullModelsNanos / 1000000} ms and " +
+                "$fullModelsBytes bytes, projection ${projectionNanos / 1000000} ms and $projectionBytes bytes")
+        logBenchmark("Deleting $deleted stale notes: one by one ${singleDeletesNanos / 1000000} ms, " +
+                "batched ${batchedDeleteNanos / 1000000} ms")
+
+        assertEquals(staleNotes, deleted)
+        assertEquals(CACHED_NOTES / 2L, notificationSqlUtils.getNotificationsCount())
+        // The projection doesn't parse the content of the notes
+        assertTrue(projectionBytes < fullModelsBytes / 2)
+    }
+
+    /**
+     * Caches [count] copies of the sample notifications, with remote note IDs from 1 to [count].
+     */
+    private fun insertNotes(count: Int) {
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            for (remoteNoteId in 1L..count) {
+                val template = templates[(remoteNoteId % templates.size).toInt()]
+                notificationSqlUtils.insertOrUpdateNotification(
+                        template.copy(noteId = -1, remoteNoteId = remoteNoteId, noteHash = noteHash(remoteNoteId)))
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    private fun noteHash(remoteNoteId: Long) = remoteNoteId * 31
+}
@@ -0,0 +1,156 @@
+package org.wordpress.android.fluxc.page
+
+import com.nhaarman.mockitokotlin2.mock
+import com.yarolegovich.wellsql.WellSql
+import kotlinx.coroutines.runBlocking
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureAllocatedBytes
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.page.PageModel
+import org.wordpress.android.fluxc.model.post.PostStatus
+import org.wordpress.android.fluxc.network.utils.CurrentDateUtils
+import org.wordpress.android.fluxc.persistence.PostSqlUtils
+import org.wordpress.android.fluxc.store.PageStore
+import org.wordpress.android.fluxc.store.PostStore
+import org.wordpress.android.fluxc.tools.initCoroutineEngine
+import java.util.Collections
+import java.util.IdentityHashMap
+import java.util.Locale
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+private const val BENCHMARK_PAGES = 5000
+private const val BENCHMARK_DEPTH = 10
+private const val CONTENT_LENGTH = 2000
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner::class)
+class PageStoreHierarchyTest {
+    private val site = SiteModel().apply { id = 1 }
+    private val postSqlUtils = PostSqlUtils()
+    private lateinit var pageStore: PageStore
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        val config = SingleStoreWellSqlConfigForTests(appContext, PostModel::class.java)
+        WellSql.init(config)
+        config.reset()
+
+        val postStore = PostStore(Dispatcher(), mock(), mock(), postSqlUtils)
+        pageStore = PageStore(postStore, postSqlUtils, mock(), mock<CurrentDateUtils>(), initCoroutineEngine())
+    }
+
+    @Test
+    fun testPagesShareTheirParents() = runBlocking {
+        insertPages(page(1, 0, "Root"), page(2, 1, "Child"), page(3, 2, "Grandchild"), page(4, 1, "Other child"))
+
+        val pages = pageStore.getPagesFromDb(site).associateBy { it.remoteId }
+
+        assertEquals(listOf(1L, 2L, 3L, 4L), pages.keys.toList())
+        assertNull(pages.getValue(1).parent)
+        assertSame(pages[1], pages.getValue(2).parent)
+        assertSame(pages[2], pages.getValue(3).parent)
+        assertSame(pages[1], pages.getValue(4).parent)
+    }
+
+    @Test
+    fun testPagesOfAParentCycleAreAllReturned() = runBlocking {
+        insertPages(page(1, 2, "First"), page(2, 1, "Second"), page(3, 3, "Own parent"))
+
+        val pages = pageStore.getPagesFromDb(site)
+
+        assertEquals(3, pages.size)
+        assertEquals(2, pages.count { it.parent == null })
+    }
+
+    @Test
+    fun testSearchReturnsTheMatchingPagesWithTheirAncestors() = runBlocking {
+        insertPages(page(1, 0, "About"), page(2, 1, "Our team"), page(3, 2, "TEAM members"),
+                page(4, 0, "Été à Paris"), page(5, 0, "100% organic"), page(6, 0, "Teapot").apply {
+            status = "unknown"
+        })
+
+        val teamPages = pageStore.search(site, "team")
+
+        assertEquals(listOf("Our team", "TEAM members"), teamPages.map { it.title })
+        assertEquals(listOf("About", "Our team"), teamPages.map { it.parent?.title })
+        assertSame(teamPages[0], teamPages[1].parent)
+        assertEquals(listOf("Été à Paris"), pageStore.search(site, "ÉTÉ").map { it.title })
+        assertEquals(listOf("100% organic"), pageStore.search(site, "0%").map { it.title })
+        assertTrue(pageStore.search(site, "teapot").isEmpty())
+        assertEquals(pageStore.getPagesFromDb(site), pageStore.search(site, ""))
+    }
+
+    @Test
+    fun testPageHierarchyBenchmark() = runBlocking {
+        assumeBenchmarksEnabled()
+        insertPages(*(1..BENCHMARK_PAGES).map { benchmarkPage(it) }.toTypedArray())
+        // Warm up both paths before measuring them
+        pageStore.getPagesFromDb(site)
+        pageStore.search(site, "Page $BENCHMARK_PAGES ")
+
+        var pages = listOf<PageModel>()
+        val pagesNanos = measureNanos { pages = runBlocking { pageStore.getPagesFromDb(site) } }
+        val pagesBytes = measureAllocatedBytes { runBlocking { pageStore.getPagesFromDb(site) } }
+        val query = "Page $BENCHMARK_PAGES "
+        var results = listOf<PageModel>()
+        val searchNanos = measureNanos { results = runBlocking { pageStore.search(site, query) } }
+        val searchBytes = measureAllocatedBytes { runBlocking { pageStore.search(site, query) } }
+        // How pages were searched before, filtering all of them on every keystroke
+        val filterNanos = measureNanos {
+            runBlocking { pageStore.getPagesFromDb(site) }
+                    .filter { it.title.toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT)) }
+        }
+
+        logBenchmark("$BENCHMARK_PAGES pages nested $BENCHMARK_DEPTH deep: loaded in ${pagesNanos / 1000000} " +
+                "ms and $pagesBytes bytes with ${countPageModels(pages)} page models, searched in " +
+                "${searchNanos / 1000000} ms and $searchBytes bytes, filtered in ${filterNanos / 1000000} ms")
+        assertEquals(BENCHMARK_PAGES, pages.size)
+        // Each page is created once, instead of once for itself and once per descendant
+        assertEquals(BENCHMARK_PAGES, countPageModels(pages))
+        assertEquals(BENCHMARK_DEPTH - 1, generateSequence(results.single()) { it.parent }.count() - 1)
+        assertTrue(searchBytes < pagesBytes / 10)
+    }
+
+    private fun countPageModels(pages: List<PageModel>): Int {
+        val pageModels = Collections.newSetFromMap(IdentityHashMap<PageModel, Boolean>())
+        pages.forEach { page -> generateSequence(page) { it.parent }.forEach { pageModels.add(it) } }
+        return pageModels.size
+    }
+
+    /**
+     * Chains of [BENCHMARK_DEPTH] pages, the last page of each chain is the child of the one before it.
+     */
+    private fun benchmarkPage(remoteId: Int): PostModel {
+        val parentId = if ((remoteId - 1) % BENCHMARK_DEPTH == 0) 0 else remoteId - 1
+        return page(remoteId, parentId, "Page $remoteId ").apply { content = "A".repeat(CONTENT_LENGTH) }
+    }
+
+    private fun insertPages(vararg pages: PostModel) {
+        postSqlUtils.insertOrUpdatePosts(pages.toList(), false)
+    }
+
+    private fun page(remoteId: Int, parentId: Int, title: String) = PostModel().apply {
+        localSiteId = site.id
+        setRemotePostId(remoteId.toLong())
+        setParentId(parentId.toLong())
+        setTitle(title)
+        setIsPage(true)
+        status = PostStatus.PUBLISHED.toString()
+        dateCreated = "2020-01-01T10:00:00+00:00"
+    }
+}
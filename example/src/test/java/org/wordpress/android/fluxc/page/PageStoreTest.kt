@@ -20,6 +20,7 @@ import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.CauseOfOnPostChanged
 import org.wordpress.android.fluxc.model.CauseOfOnPostChanged.FetchPages
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.LocalId
 import org.wordpress.android.fluxc.model.PostModel
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.page.PageModel
@@ -93,6 +94,10 @@ class PageStoreTest {
 
     @Test
     fun searchFindsAllResultsContainingText() {
+        whenever(postStore.getPageIdsMatchingTitle(site, query)).thenReturn(listOf(LocalId(pageWithQuery.id)))
+        whenever(postStore.getPostsByLocalOrRemotePostIds(listOf(LocalId(pageWithQuery.id)), site))
+                .thenReturn(listOf(pageWithQuery))
+
         val result = runBlocking { store.search(site, query) }
 
         assertThat(result).hasSize(1)
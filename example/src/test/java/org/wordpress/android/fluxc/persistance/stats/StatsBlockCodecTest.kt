@@ -0,0 +1,161 @@
+package org.wordpress.android.fluxc.persistance.stats
+
+import com.google.gson.Gson
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.VisitAndViewsRestClient.VisitsAndViewsResponse
+import org.wordpress.android.fluxc.persistence.StatsBlockCodec
+import org.wordpress.android.fluxc.persistence.StatsBlockReader
+import org.wordpress.android.fluxc.persistence.StatsBlockWriter
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.BlockType.VISITS_AND_VIEWS
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsBlockBuilder
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.DAY
+import org.wordpress.android.fluxc.persistence.VisitsAndViewsBlockCodec
+import org.wordpress.android.fluxc.persistence.decode
+import org.wordpress.android.fluxc.persistence.encode
+import org.wordpress.android.fluxc.store.stats.time.VISITS_AND_VIEWS_RESPONSE
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+private const val DATE = "2018-10-10"
+private const val DECODES = 200
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner::class)
+class StatsBlockCodecTest {
+    private val gson = Gson()
+    private val site = SiteModel().apply { id = 1 }
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        val config = SingleStoreWellSqlConfigForTests(appContext, StatsBlockBuilder::class.java)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testVisitsAndViewsRoundTrip() {
+        val responses = listOf(
+                VISITS_AND_VIEWS_RESPONSE,
+                VisitsAndViewsResponse(null, null, null, null),
+                VisitsAndViewsResponse(DATE, listOf(), listOf(), "day"),
+                // Weekly periods, negative values, leading zeros and missing values stay as they are
+                VisitsAndViewsResponse(DATE, listOf("period", "views", "likes"), listOf(
+                        listOf("2018W10W01", "-5", "007"),
+                        listOf("2018W10W08", "9223372036854775807", "1"),
+                        listOf("2018W10W15", "-9223372036854775808", "")
+                ), "week"),
+                // Rows of different sizes
+                VisitsAndViewsResponse(DATE, listOf("period", "views"), listOf(
+                        listOf("2018-10-09", "1"),
+                        null,
+                        listOf("2018-10-10")
+                ), "day"),
+                VisitsAndViewsResponse("été", listOf("période"), listOf(listOf("日本語")), "jour"),
+                dailyVisits(3 * 365)
+        )
+
+        responses.forEach {
+            assertEquals(it, VisitsAndViewsBlockCodec.decode(VisitsAndViewsBlockCodec.encode(it)))
+        }
+    }
+
+    @Test
+    fun testBlocksOfAnotherVersionAreMissing() {
+        val nextVersion = object : StatsBlockCodec<VisitsAndViewsResponse> by VisitsAndViewsBlockCodec {
+            override val version = VisitsAndViewsBlockCodec.version + 1
+        }
+
+        assertNull(VisitsAndViewsBlockCodec.decode(nextVersion.encode(VISITS_AND_VIEWS_RESPONSE)))
+    }
+
+    @Test
+    fun testCorruptedBlocksAreMissing() {
+        val block = VisitsAndViewsBlockCodec.encode(dailyVisits(10))
+
+        assertNull(VisitsAndViewsBlockCodec.decode(block.substring(0, block.length / 2)))
+        assertNull(VisitsAndViewsBlockCodec.decode("#not base64!"))
+    }
+
+    @Test
+    fun testVarintsRoundTrip() {
+        val values = listOf(0L, 1L, -1L, 63L, -64L, 64L, 300L, Long.MAX_VALUE, Long.MIN_VALUE)
+        val writer = StatsBlockWriter()
+        values.forEach { writer.writeVarLong(it) }
+
+        val reader = StatsBlockReader(writer.toByteArray())
+
+        assertEquals(values, values.map { reader.readVarLong() })
+    }
+
+    @Test
+    fun testStatsSqlUtilsStoresVisitsInTheBinaryFormat() {
+        val statsSqlUtils = StatsSqlUtils()
+
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, VISITS_AND_VIEWS_RESPONSE, true, DATE)
+
+        assertTrue(storedBlock().startsWith("#"))
+        assertEquals(VISITS_AND_VIEWS_RESPONSE,
+                statsSqlUtils.select(site, VISITS_AND_VIEWS, DAY, VisitsAndViewsResponse::class.java, DATE))
+    }
+
+    @Test
+    fun testLegacyJsonBlocksAreStillRead() {
+        WellSql.insert(StatsBlockBuilder(localSiteId = site.id, blockType = VISITS_AND_VIEWS.name,
+                statsType = DAY.name, date = DATE, postId = null, json = gson.toJson(VISITS_AND_VIEWS_RESPONSE)))
+                .execute()
+
+        assertEquals(VISITS_AND_VIEWS_RESPONSE,
+                StatsSqlUtils().select(site, VISITS_AND_VIEWS, DAY, VisitsAndViewsResponse::class.java, DATE))
+    }
+
+    @Test
+    fun testBinaryFormatBenchmark() {
+        assumeBenchmarksEnabled()
+        val response = dailyVisits(3 * 365)
+        val json = gson.toJson(response)
+        val binary = VisitsAndViewsBlockCodec.encode(response)
+
+        // Warm up both decoders before measuring them
+        repeat(DECODES / 10) {
+            gson.fromJson(json, VisitsAndViewsResponse::class.java)
+            VisitsAndViewsBlockCodec.decode(binary)
+        }
+        val jsonNanos = measureNanos {
+            repeat(DECODES) { gson.fromJson(json, VisitsAndViewsResponse::class.java) }
+        }
+        val binaryNanos = measureNanos {
+            repeat(DECODES) { VisitsAndViewsBlockCodec.decode(binary) }
+        }
+
+        logBenchmark("${response.data?.size} days of visits: JSON ${json.length} chars decoded in " +
+                "${jsonNanos / DECODES / 1000} us, binary ${binary.length} chars decoded in " +
+                "${binaryNanos / DECODES / 1000} us")
+        assertTrue(binary.length < json.length / 2)
+    }
+
+    private fun dailyVisits(days: Int): VisitsAndViewsResponse {
+        val fields = listOf("period", "views", "likes", "comments", "visitors")
+        val data = (0 until days).map { day ->
+            val period = "${2016 + day / 365}-${(day % 365 / 28 % 12 + 1).toString().padStart(2, '0')}-" +
+                    (day % 28 + 1).toString().padStart(2, '0')
+            listOf(period, "${100 + day * 7 % 50}", "${day % 13}", "${day % 5}", "${60 + day * 3 % 40}")
+        }
+        return VisitsAndViewsResponse(DATE, fields, data, "day")
+    }
+
+    private fun storedBlock() = WellSql.select(StatsBlockBuilder::class.java).asModel.first().json
+}
@@ -0,0 +1,171 @@
+package org.wordpress.android.fluxc.persistance.stats
+
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.VisitAndViewsRestClient.VisitsAndViewsResponse
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.BlockType.VISITS_AND_VIEWS
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsBlockBuilder
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.DAY
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.WEEK
+import org.wordpress.android.fluxc.store.stats.time.VISITS_AND_VIEWS_RESPONSE
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+private const val DATE = "2018-10-10"
+private const val DASHBOARD_READS = 1000
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner::class)
+class StatsSqlUtilsCacheTest {
+    private val statsSqlUtils = StatsSqlUtils()
+    private val site = SiteModel().apply { id = 1 }
+    private val otherSite = SiteModel().apply { id = 2 }
+
+    private lateinit var config: SingleStoreWellSqlConfigForTests
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        config = SingleStoreWellSqlConfigForTests(appContext, StatsBlockBuilder::class.java)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testRepeatedReadsAreServedFromTheCache() {
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, VISITS_AND_VIEWS_RESPONSE, true, DATE)
+
+        val first = select()
+        // Remove the row behind the cache's back, the following reads don't query the database
+        WellSql.delete(StatsBlockBuilder::class.java).execute()
+        val second = select()
+
+        assertEquals(VISITS_AND_VIEWS_RESPONSE, first)
+        assertSame(first, second)
+        val metrics = statsSqlUtils.getCacheMetrics()
+        assertEquals(1, metrics.missCount)
+        assertEquals(1, metrics.hitCount)
+        assertTrue(metrics.size > 0)
+    }
+
+    @Test
+    fun testResettingTheDatabaseEmptiesTheCache() {
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, VISITS_AND_VIEWS_RESPONSE, true, DATE)
+        select()
+
+        // The database is reset, the way it is on sign out
+        config.reset()
+
+        assertEquals(0, statsSqlUtils.getCacheMetrics().size)
+        assertNull(select())
+    }
+
+    @Test
+    fun testMissingBlocksAreCached() {
+        assertNull(select())
+        assertNull(select())
+
+        assertEquals(1, statsSqlUtils.getCacheMetrics().missCount)
+        assertEquals(1, statsSqlUtils.getCacheMetrics().hitCount)
+    }
+
+    @Test
+    fun testInsertInvalidatesTheMatchingBlocks() {
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, VISITS_AND_VIEWS_RESPONSE, true, DATE)
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, WEEK, VISITS_AND_VIEWS_RESPONSE, true, DATE)
+        select()
+        selectAnyDate()
+        val week = select(statsType = WEEK)
+
+        val updated = VISITS_AND_VIEWS_RESPONSE.copy(unit = "updated")
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, updated, true, DATE)
+
+        assertEquals(updated, select())
+        // The blocks read without a date include the inserted one too
+        assertEquals(updated, selectAnyDate())
+        assertSame(week, select(statsType = WEEK))
+    }
+
+    @Test
+    fun testDeleteSiteStatsInvalidatesTheSiteBlocks() {
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, VISITS_AND_VIEWS_RESPONSE, true, DATE)
+        statsSqlUtils.insert(otherSite, VISITS_AND_VIEWS, DAY, VISITS_AND_VIEWS_RESPONSE, true, DATE)
+        select()
+        val otherSiteBlock = select(otherSite)
+
+        statsSqlUtils.deleteSiteStats(site)
+
+        assertNull(select())
+        assertSame(otherSiteBlock, select(otherSite))
+
+        statsSqlUtils.deleteAllStats()
+
+        assertNull(select(otherSite))
+    }
+
+    @Test
+    fun testSelectAllIsCachedSeparately() {
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, VISITS_AND_VIEWS_RESPONSE, false, DATE)
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, VISITS_AND_VIEWS_RESPONSE, false, DATE)
+
+        assertEquals(VISITS_AND_VIEWS_RESPONSE, select())
+        assertEquals(2, statsSqlUtils.selectAll(site, VISITS_AND_VIEWS, DAY, VisitsAndViewsResponse::class.java,
+                DATE).size)
+    }
+
+    @Test
+    fun testDashboardReadsBenchmark() {
+        assumeBenchmarksEnabled()
+        // Three years of daily visits
+        val fields = listOf("period", "views", "likes", "comments", "visitors")
+        val data = (0 until 3 * 365).map { day -> listOf("day $day", "$day", "${day / 2}", "${day / 3}", "$day") }
+        val response = VisitsAndViewsResponse(DATE, fields, data, "day")
+        statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, response, true, DATE)
+
+        val uncachedNanos = measureNanos {
+            repeat(DASHBOARD_READS) {
+                // Every insert invalidates the block, so every read decodes it again
+                statsSqlUtils.insert(otherSite, VISITS_AND_VIEWS, DAY, response, true, DATE)
+                statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, response, true, DATE)
+                select()
+            }
+        }
+        val insertsNanos = measureNanos {
+            repeat(DASHBOARD_READS) {
+                statsSqlUtils.insert(otherSite, VISITS_AND_VIEWS, DAY, response, true, DATE)
+                statsSqlUtils.insert(site, VISITS_AND_VIEWS, DAY, response, true, DATE)
+            }
+        }
+        val metricsBefore = statsSqlUtils.getCacheMetrics()
+        val cachedNanos = measureNanos {
+            repeat(DASHBOARD_READS) {
+                assertEquals(response, select())
+            }
+        }
+        val metricsAfter = statsSqlUtils.getCacheMetrics()
+
+        logBenchmark("$DASHBOARD_READS reads of ${data.size} days of visits: decoded " +
+                "${(uncachedNanos - insertsNanos) / 1000000} ms, cached ${cachedNanos / 1000000} ms")
+        assertEquals(DASHBOARD_READS - 1, metricsAfter.hitCount - metricsBefore.hitCount)
+        assertEquals(1, metricsAfter.missCount - metricsBefore.missCount)
+    }
+
+    private fun select(selectedSite: SiteModel = site, statsType: StatsSqlUtils.StatsType = DAY) =
+            statsSqlUtils.select(selectedSite, VISITS_AND_VIEWS, statsType, VisitsAndViewsResponse::class.java, DATE)
+
+    private fun selectAnyDate() =
+            statsSqlUtils.select(site, VISITS_AND_VIEWS, DAY, VisitsAndViewsResponse::class.java)
+}
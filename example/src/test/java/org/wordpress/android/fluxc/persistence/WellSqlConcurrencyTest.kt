@@ -0,0 +1,138 @@
+package org.wordpress.android.fluxc.persistence
+
+import com.wellsql.generated.StatsBlockTable
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsBlockBuilder
+import org.wordpress.android.fluxc.persistence.WellSqlConfig.Synchronous
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+import kotlin.test.assertEquals
+import kotlin.test.assertNotEquals
+
+private const val READ_SITE_ID = 1
+private const val WRITE_SITE_ID = 2
+private const val READ_ROWS = 200
+private const val ROWS_PER_WRITE = 500
+private const val READERS = 3
+private const val READS_PER_READER = 300
+
+/**
+ * Runs UI-like reads while a store writes large transactions in the background, with and without write-ahead
+ * logging, and reports the read latencies.
+ */
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner::class)
+class WellSqlConcurrencyTest {
+    @Test
+    fun testJournalModeFollowsTheConfig() {
+        init(writeAheadLogging = false, readConnectionPool = false)
+        assertNotEquals("wal", journalMode())
+        assertEquals(Synchronous.FULL.ordinal, pragma("synchronous").toInt())
+
+        init(writeAheadLogging = true, readConnectionPool = false)
+        assertEquals("wal", journalMode())
+        assertEquals(Synchronous.NORMAL.ordinal, pragma("synchronous").toInt())
+
+        init(writeAheadLogging = true, readConnectionPool = true)
+        assertEquals("wal", journalMode())
+    }
+
+    @Test
+    fun testConcurrentReadsAndWritesBenchmark() {
+        assumeBenchmarksEnabled()
+        val rollbackLatencies = runReadersAndWriter(writeAheadLogging = false, readConnectionPool = false)
+        val walLatencies = runReadersAndWriter(writeAheadLogging = true, readConnectionPool = false)
+        val walPoolLatencies = runReadersAndWriter(writeAheadLogging = true, readConnectionPool = true)
+
+        logBenchmark("p99 latency of ${READERS * READS_PER_READER} reads during background writes: " +
+                "rollback journal ${percentile(rollbackLatencies, 99) / 1000} us, " +
+                "WAL ${percentile(walLatencies, 99) / 1000} us, " +
+                "WAL with read connections ${percentile(walPoolLatencies, 99) / 1000} us")
+        listOf(rollbackLatencies, walLatencies, walPoolLatencies).forEach {
+            assertEquals(READERS * READS_PER_READER, it.size)
+        }
+    }
+
+    /**
+     * @return The latency of every read, in nanoseconds
+     */
+    private fun runReadersAndWriter(writeAheadLogging: Boolean, readConnectionPool: Boolean): List<Long> {
+        init(writeAheadLogging, readConnectionPool)
+        WellSql.insert(blocks(READ_SITE_ID, READ_ROWS)).asSingleTransaction(true).execute()
+
+        val writing = AtomicBoolean(true)
+        val writer = thread {
+            while (writing.get()) {
+                WellSql.insert(blocks(WRITE_SITE_ID, ROWS_PER_WRITE)).asSingleTransaction(true).execute()
+                WellSql.delete(StatsBlockBuilder::class.java)
+                        .where().equals(StatsBlockTable.LOCAL_SITE_ID, WRITE_SITE_ID).endWhere()
+                        .execute()
+            }
+        }
+        val latencies = LongArray(READERS * READS_PER_READER)
+        val partialReads = AtomicInteger()
+        val readers = (0 until READERS).map { reader ->
+            thread {
+                repeat(READS_PER_READER) { read ->
+                    var blocks = listOf<StatsBlockBuilder>()
+                    latencies[reader * READS_PER_READER + read] = measureNanos {
+                        blocks = WellSql.select(StatsBlockBuilder::class.java)
+                                .where().equals(StatsBlockTable.LOCAL_SITE_ID, READ_SITE_ID).endWhere()
+                                .asModel
+                    }
+                    if (blocks.size != READ_ROWS) {
+                        partialReads.incrementAndGet()
+                    }
+                }
+            }
+        }
+        readers.forEach { it.join() }
+        writing.set(false)
+        writer.join()
+
+        assertEquals(0, partialReads.get())
+        return latencies.toList()
+    }
+
+    private fun init(writeAheadLogging: Boolean, readConnectionPool: Boolean) {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        val config = object : SingleStoreWellSqlConfigForTests(appContext, StatsBlockBuilder::class.java) {
+            override fun getDbName() = "test-fluxc-wal-$writeAheadLogging-$readConnectionPool"
+
+            override fun isWriteAheadLoggingEnabled() = writeAheadLogging
+
+            override fun isReadConnectionPoolEnabled() = readConnectionPool
+        }
+        WellSql.init(config)
+        config.reset()
+    }
+
+    private fun blocks(localSiteId: Int, count: Int) = (0 until count).map {
+        StatsBlockBuilder(localSiteId = localSiteId, blockType = "BLOCK_$it", statsType = "DAY", date = null,
+                postId = null, json = "{\"views\":$it}")
+    }
+
+    private fun journalMode() = pragma("journal_mode").toLowerCase()
+
+    private fun pragma(name: String): String {
+        return WellSql.giveMeWritableDb().rawQuery("PRAGMA $name", null).use { cursor ->
+            cursor.moveToFirst()
+            cursor.getString(0)
+        }
+    }
+
+    private fun percentile(latencies: List<Long>, percentile: Int): Long {
+        val sorted = latencies.sorted()
+        return sorted[(sorted.size - 1) * percentile / 100]
+    }
+}
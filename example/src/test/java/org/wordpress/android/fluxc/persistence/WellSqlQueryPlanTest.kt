@@ -0,0 +1,97 @@
+package org.wordpress.android.fluxc.persistence
+
+import android.database.sqlite.SQLiteDatabase
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.atLeastOnce
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.yarolegovich.wellsql.WellSql
+import com.yarolegovich.wellsql.WellTableManager
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+import kotlin.test.fail
+
+/**
+ * Checks that the frequent lookups on the largest tables are served by an index rather than a full table scan.
+ *
+ * The queries below mirror the ones built by the SqlUtils classes, add new hot queries here when adding indexes.
+ */
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner::class)
+class WellSqlQueryPlanTest {
+    private val hotQueries = listOf(
+            // PostSqlUtils
+            "SELECT * FROM PostModel WHERE (_id = ? OR (REMOTE_POST_ID = ? AND LOCAL_SITE_ID = ?))",
+            "SELECT _id, LOCAL_SITE_ID, REMOTE_POST_ID, IS_LOCALLY_CHANGED FROM PostModel " +
+                    "WHERE (LOCAL_SITE_ID = ? AND REMOTE_POST_ID IN (?, ?, ?))",
+            "SELECT * FROM PostModel WHERE (LOCAL_SITE_ID = ? AND IS_PAGE = ?) " +
+                    "ORDER BY IS_LOCAL_DRAFT DESC, DATE_CREATED DESC",
+            // MediaSqlUtils
+            "SELECT * FROM MediaModel WHERE (LOCAL_SITE_ID = ? AND MEDIA_ID = ?)",
+            "SELECT * FROM MediaModel WHERE (LOCAL_SITE_ID = ? AND MEDIA_ID IN (?, ?, ?))",
+            // ProductSqlUtils
+            "SELECT * FROM WCProductModel WHERE (REMOTE_PRODUCT_ID = ? AND LOCAL_SITE_ID = ?)",
+            "SELECT * FROM WCProductModel WHERE LOCAL_SITE_ID = ?",
+            // NotificationSqlUtils
+            "SELECT * FROM NotificationModel WHERE (_id = ? OR (REMOTE_SITE_ID = ? AND REMOTE_NOTE_ID = ?))",
+            "SELECT * FROM NotificationModel WHERE REMOTE_NOTE_ID = ?",
+            "DELETE FROM NotificationModel WHERE (REMOTE_NOTE_ID = ?)",
+            // StatsSqlUtils
+            "SELECT * FROM StatsBlock WHERE LOCAL_SITE_ID = ? AND BLOCK_TYPE = ? AND STATS_TYPE = ? AND DATE = ? " +
+                    "AND POST_ID = ?",
+            "DELETE FROM StatsBlock WHERE LOCAL_SITE_ID = ? AND BLOCK_TYPE = ? AND STATS_TYPE = ?",
+            "DELETE FROM StatsBlock WHERE LOCAL_SITE_ID = ?"
+    )
+
+    private lateinit var config: WellSqlConfig
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        config = WellSqlConfig(appContext, WellSqlConfig.ADDON_WOOCOMMERCE)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testHotQueriesDoNotScanTables() {
+        val db = WellSql.giveMeWritableDb()
+        for (query in hotQueries) {
+            val plan = db.rawQuery("EXPLAIN QUERY PLAN $query", null).use { cursor ->
+                val detailColumn = cursor.getColumnIndexOrThrow("detail")
+                generateSequence { if (cursor.moveToNext()) cursor.getString(detailColumn) else null }.toList()
+            }
+
+            assertTrue(plan.isNotEmpty())
+            // A SEARCH step uses an index, a SCAN step reads the whole table (or the whole index)
+            plan.firstOrNull { it.startsWith("SCAN") }?.let { fail("Full scan for query: $query\nPlan: $plan") }
+        }
+    }
+
+    @Test
+    fun testResetFromOnDowngradeCreatesTheIndexes() {
+        val db = WellSql.giveMeWritableDb()
+        val indexes = getIndexNames(db)
+        // The mocked WellTableManager keeps the tables, drop their indexes the way dropping the tables would
+        indexes.forEach { db.execSQL("DROP INDEX $it") }
+        val helper = mock<WellTableManager>()
+
+        config.reset(db, helper)
+
+        assertTrue(indexes.isNotEmpty())
+        assertEquals(indexes, getIndexNames(db))
+        verify(helper, atLeastOnce()).createTable(any())
+    }
+
+    private fun getIndexNames(db: SQLiteDatabase): Set<String> {
+        // Leaves out the automatic indexes of the primary keys and unique constraints, which have no SQL
+        return db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL", null)
+                .use { cursor -> generateSequence { if (cursor.moveToNext()) cursor.getString(0) else null }.toSet() }
+    }
+}
@@ -0,0 +1,140 @@
+package org.wordpress.android.fluxc.post
+
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.persistence.PostSqlUtils
+import org.wordpress.android.fluxc.persistence.WellSqlConfig
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+private const val SMALL_BATCH = 1000
+private const val LARGE_BATCH = 10000
+
+@RunWith(RobolectricTestRunner::class)
+class PostSqlUtilsBulkUpsertTest {
+    private val postSqlUtils = PostSqlUtils()
+    private val site = SiteModel().apply { id = PostTestUtils.DEFAULT_LOCAL_SITE_ID }
+    private lateinit var config: WellSqlConfig
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        config = SingleStoreWellSqlConfigForTests(appContext, PostModel::class.java)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testBulkUpsertMatchesSinglePostUpserts() {
+        insertExistingPosts()
+        val singleRowsAffected = fetchedPosts().sumBy { postSqlUtils.insertOrUpdatePost(it, false) }
+        val singleResult = snapshot()
+
+        config.reset()
+        insertExistingPosts()
+        val bulkRowsAffected = postSqlUtils.insertOrUpdatePosts(fetchedPosts(), false)
+
+        assertEquals(singleRowsAffected, bulkRowsAffected)
+        assertEquals(singleResult, snapshot())
+        // The local changes are kept, the other posts are updated or inserted
+        assertEquals(listOf(
+                Triple(0L, "Local draft", false),
+                Triple(1L, "Local changes", true),
+                Triple(2L, "Remote 2", false),
+                Triple(3L, "Remote 3 again", false)
+        ), snapshot())
+    }
+
+    @Test
+    fun testBulkUpsertOverwritesLocalChanges() {
+        insertExistingPosts()
+
+        postSqlUtils.insertOrUpdatePosts(fetchedPosts(), true)
+
+        assertTrue(snapshot().contains(Triple(1L, "Remote 1", false)))
+    }
+
+    @Test
+    fun testBulkUpsertRemovesDuplicatedPost() {
+        // A local post being uploaded, and the same post fetched before the upload result was saved
+        val uploadingPost = postSqlUtils.insertPostForResult(post(0, "Uploading"))
+        postSqlUtils.insertPostForResult(post(5, "Fetched"))
+
+        val uploadedPost = post(5, "Uploaded").apply { id = uploadingPost.id }
+        val rowsAffected = postSqlUtils.insertOrUpdatePosts(listOf(uploadedPost), false)
+
+        assertEquals(2, rowsAffected)
+        val posts = postSqlUtils.getPostsForSite(site, false)
+        assertEquals(1, posts.size)
+        assertEquals(uploadingPost.id, posts[0].id)
+        assertEquals("Uploaded", posts[0].title)
+    }
+
+    @Test
+    fun testBulkUpsertThroughput() {
+        assumeBenchmarksEnabled()
+        // The single post path commits a transaction per post, so it's only measured for the smaller batch
+        config.reset()
+        val singleInsertRate = rowsPerSecond(SMALL_BATCH) {
+            generatePosts(SMALL_BATCH, "Inserted").forEach { postSqlUtils.insertOrUpdatePost(it, false) }
+        }
+        val singleUpdateRate = rowsPerSecond(SMALL_BATCH) {
+            generatePosts(SMALL_BATCH, "Updated").forEach { postSqlUtils.insertOrUpdatePost(it, false) }
+        }
+        logBenchmark("Single post upserts of $SMALL_BATCH posts: $singleInsertRate inserted rows/s, " +
+                "$singleUpdateRate updated rows/s")
+
+        for (count in listOf(SMALL_BATCH, LARGE_BATCH)) {
+            config.reset()
+            val bulkInsertRate = rowsPerSecond(count) {
+                assertEquals(count, postSqlUtils.insertOrUpdatePosts(generatePosts(count, "Inserted"), false))
+            }
+            val bulkUpdateRate = rowsPerSecond(count) {
+                assertEquals(count, postSqlUtils.insertOrUpdatePosts(generatePosts(count, "Updated"), false))
+            }
+            logBenchmark("Bulk upserts of $count posts: $bulkInsertRate inserted rows/s, " +
+                    "$bulkUpdateRate updated rows/s")
+            assertEquals(count, postSqlUtils.getPostsForSite(site, false).size)
+        }
+    }
+
+    private fun insertExistingPosts() {
+        postSqlUtils.insertPostForResult(post(0, "Local draft").apply { setIsLocalDraft(true) })
+        postSqlUtils.insertPostForResult(post(1, "Local changes").apply { setIsLocallyChanged(true) })
+        postSqlUtils.insertPostForResult(post(2, "Remote 2 before"))
+    }
+
+    private fun fetchedPosts() = listOf(
+            post(1, "Remote 1"),
+            post(2, "Remote 2"),
+            post(3, "Remote 3"),
+            post(3, "Remote 3 again")
+    )
+
+    private fun generatePosts(count: Int, title: String) = (1..count).map { post(it.toLong(), "$title $it") }
+
+    private fun post(remotePostId: Long, title: String) = PostModel().apply {
+        setLocalSiteId(PostTestUtils.DEFAULT_LOCAL_SITE_ID)
+        setRemotePostId(remotePostId)
+        setTitle(title)
+        setContent("Bunch of content here")
+    }
+
+    private fun snapshot() = postSqlUtils.getPostsForSite(site, false)
+            .map { Triple(it.remotePostId, it.title, it.isLocallyChanged) }
+            .sortedBy { it.first }
+
+    private fun rowsPerSecond(rows: Int, block: () -> Unit): Long {
+        return rows * 1000000000L / maxOf(measureNanos(block), 1L)
+    }
+}
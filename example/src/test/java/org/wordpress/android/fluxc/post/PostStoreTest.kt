@@ -2,6 +2,7 @@ package org.wordpress.android.fluxc.post
 
 import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.argThat
+import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
@@ -15,15 +16,21 @@ import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.action.ListAction
 import org.wordpress.android.fluxc.action.PostAction
 import org.wordpress.android.fluxc.generated.PostActionBuilder
+import org.wordpress.android.fluxc.model.CauseOfOnPostChanged
 import org.wordpress.android.fluxc.model.PostModel
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.list.PostListDescriptor
 import org.wordpress.android.fluxc.model.post.PostStatus
 import org.wordpress.android.fluxc.model.post.PostStatus.PUBLISHED
+import org.wordpress.android.fluxc.network.rest.wpcom.post.PostRestClient
+import org.wordpress.android.fluxc.network.xmlrpc.post.PostXMLRPCClient
 import org.wordpress.android.fluxc.persistence.PostSqlUtils
 import org.wordpress.android.fluxc.store.ListStore.FetchedListItemsPayload
 import org.wordpress.android.fluxc.store.PostStore
 import org.wordpress.android.fluxc.store.PostStore.FetchPostListResponsePayload
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsByRemoteIdsPayload
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsByRemoteIdsResponsePayload
+import org.wordpress.android.fluxc.store.PostStore.OnPostChanged
 import org.wordpress.android.fluxc.store.PostStore.PostError
 import org.wordpress.android.fluxc.store.PostStore.PostErrorType.GENERIC_ERROR
 import org.wordpress.android.fluxc.store.PostStore.PostListItem
@@ -33,12 +40,14 @@ class PostStoreTest {
     @Mock lateinit var site: SiteModel
     @Mock lateinit var postSqlUtils: PostSqlUtils
     @Mock lateinit var dispatcher: Dispatcher
+    @Mock lateinit var postRestClient: PostRestClient
+    @Mock lateinit var postXMLRPCClient: PostXMLRPCClient
     private lateinit var store: PostStore
     @Mock lateinit var mockedListDescriptor: PostListDescriptor
 
     @Before
     fun setUp() {
-        store = PostStore(dispatcher, mock(), mock(), postSqlUtils)
+        store = PostStore(dispatcher, postRestClient, postXMLRPCClient, postSqlUtils)
         whenever(mockedListDescriptor.site).thenReturn(mock())
         // verify "register" so we can use verifyNoMoreInteractions in all the test methods
         verify(dispatcher).register(any())
@@ -109,7 +118,7 @@ class PostStoreTest {
     }
 
     @Test
-    fun `handleFetchedPostList emits FetchPostAction when post changed in remote`() {
+    fun `handleFetchedPostList emits FetchPostsByRemoteIdsAction when post changed in remote`() {
         // Arrange
         val postInLocalDb = createPostModel()
         whenever(postSqlUtils.getPostsByRemoteIds(any(), any())).thenReturn(listOf(postInLocalDb))
@@ -122,7 +131,7 @@ class PostStoreTest {
 
         // Assert
         verify(dispatcher).dispatch(argThat {
-            (this.type == PostAction.FETCH_POST)
+            (this.type == PostAction.FETCH_POSTS_BY_REMOTE_IDS)
         })
         verify(dispatcher).dispatch(argThat {
             (this.type == ListAction.FETCHED_LIST_ITEMS)
@@ -193,7 +202,7 @@ class PostStoreTest {
     }
 
     @Test
-    fun `handleFetchedPostList emits FetchPostAction when post status changed in remote`() {
+    fun `handleFetchedPostList emits FetchPostsByRemoteIdsAction when post status changed in remote`() {
         // Arrange
         val postInLocalDb = createPostModel()
         whenever(postSqlUtils.getPostsByRemoteIds(any(), any())).thenReturn(listOf(postInLocalDb))
@@ -206,7 +215,7 @@ class PostStoreTest {
 
         // Assert
         verify(dispatcher).dispatch(argThat {
-            (this.type == PostAction.FETCH_POST)
+            (this.type == PostAction.FETCH_POSTS_BY_REMOTE_IDS)
         })
         verify(dispatcher).dispatch(argThat {
             (this.type == ListAction.FETCHED_LIST_ITEMS)
@@ -215,7 +224,7 @@ class PostStoreTest {
     }
 
     @Test
-    fun `handleFetchedPostList emits FetchPostAction when autosave object changed in remote`() {
+    fun `handleFetchedPostList emits FetchPostsByRemoteIdsAction when autosave object changed in remote`() {
         // Arrange
         val postInLocalDb = createPostModel()
         whenever(postSqlUtils.getPostsByRemoteIds(any(), any())).thenReturn(listOf(postInLocalDb))
@@ -228,7 +237,7 @@ class PostStoreTest {
 
         // Assert
         verify(dispatcher).dispatch(argThat {
-            (this.type == PostAction.FETCH_POST)
+            (this.type == PostAction.FETCH_POSTS_BY_REMOTE_IDS)
         })
         verify(dispatcher).dispatch(argThat {
             (this.type == ListAction.FETCHED_LIST_ITEMS)
@@ -292,6 +301,96 @@ class PostStoreTest {
         verifyNoMoreInteractions(dispatcher)
     }
 
+    @Test
+    fun `handleFetchedPostList fetches all the changed posts with a single action`() {
+        // Arrange
+        val postsInLocalDb = listOf(
+                createPostModel(remotePostId = 1),
+                createPostModel(remotePostId = 2),
+                createPostModel(remotePostId = 3, isLocallyChanged = true),
+                createPostModel(remotePostId = 4)
+        )
+        whenever(postSqlUtils.getPostsByRemoteIds(any(), any())).thenReturn(postsInLocalDb)
+
+        val remotePostListItems = listOf(
+                createRemotePostListItem(postsInLocalDb[0], lastModified = "modified in remote"),
+                createRemotePostListItem(postsInLocalDb[1], status = PostStatus.TRASHED.toString()),
+                createRemotePostListItem(postsInLocalDb[2], lastModified = "modified in remote"),
+                createRemotePostListItem(postsInLocalDb[3])
+        )
+        val action = createFetchedPostListAction(postListItems = remotePostListItems)
+
+        // Act
+        store.onAction(action)
+
+        // Assert
+        verify(dispatcher).dispatch(argThat {
+            (this.type == PostAction.FETCH_POSTS_BY_REMOTE_IDS &&
+                    (this.payload as FetchPostsByRemoteIdsPayload).remotePostIds == listOf(1L, 2L))
+        })
+        verify(dispatcher).dispatch(argThat {
+            (this.type == PostAction.UPDATE_POST)
+        })
+        verify(dispatcher).dispatch(argThat {
+            (this.type == ListAction.FETCHED_LIST_ITEMS)
+        })
+        verifyNoMoreInteractions(dispatcher)
+    }
+
+    @Test
+    fun `fetchPostsByRemoteIds uses the client matching the site`() {
+        val remotePostIds = listOf(1L, 2L)
+        val restSite = SiteModel().apply { setIsWPCom(true) }
+        val xmlRpcSite = SiteModel()
+
+        store.onAction(PostActionBuilder.newFetchPostsByRemoteIdsAction(
+                FetchPostsByRemoteIdsPayload(restSite, remotePostIds, listOf(PUBLISHED))))
+        store.onAction(PostActionBuilder.newFetchPostsByRemoteIdsAction(
+                FetchPostsByRemoteIdsPayload(xmlRpcSite, remotePostIds, listOf(PUBLISHED))))
+
+        verify(postRestClient).fetchPostsByRemoteIds(restSite, remotePostIds, listOf(PUBLISHED))
+        verify(postXMLRPCClient).fetchPostsByRemoteIds(xmlRpcSite, remotePostIds)
+    }
+
+    @Test
+    fun `handleFetchedPostsByRemoteIds saves the batch and emits a single OnPostChanged`() {
+        // Arrange
+        val fetchedPosts = listOf(createPostModel(remotePostId = 1), createPostModel(remotePostId = 2))
+        whenever(postSqlUtils.insertOrUpdatePosts(fetchedPosts, false)).thenReturn(2)
+        val action = PostActionBuilder.newFetchedPostsByRemoteIdsAction(
+                FetchPostsByRemoteIdsResponsePayload(SiteModel(), listOf(1L, 2L), fetchedPosts))
+
+        // Act
+        store.onAction(action)
+
+        // Assert
+        verify(postSqlUtils).insertOrUpdatePosts(eq(fetchedPosts), eq(false))
+        verify(dispatcher).emitChange(argThat {
+            val event = this as OnPostChanged
+            event.causeOfChange is CauseOfOnPostChanged.FetchPostsByRemoteIds && event.rowsAffected == 2
+        })
+        verify(dispatcher).dispatch(argThat {
+            (this.type == ListAction.LIST_DATA_INVALIDATED)
+        })
+        verifyNoMoreInteractions(dispatcher)
+    }
+
+    @Test
+    fun `handleFetchedPostsByRemoteIds emits an error when the batch fails`() {
+        // Arrange
+        val action = PostActionBuilder.newFetchedPostsByRemoteIdsAction(
+                FetchPostsByRemoteIdsResponsePayload(SiteModel(), listOf(1L, 2L), PostError(GENERIC_ERROR)))
+
+        // Act
+        store.onAction(action)
+
+        // Assert
+        verify(dispatcher).emitChange(argThat {
+            (this as OnPostChanged).isError
+        })
+        verifyNoMoreInteractions(dispatcher)
+    }
+
     private fun createFetchedPostListAction(
         postListItems: List<PostListItem> = listOf(),
         listDescriptor: PostListDescriptor = mockedListDescriptor,
@@ -306,9 +405,13 @@ class PostStoreTest {
             )
     )
 
-    private fun createPostModel(isLocallyChanged: Boolean = false, postStatus: PostStatus = PUBLISHED): PostModel {
+    private fun createPostModel(
+        isLocallyChanged: Boolean = false,
+        postStatus: PostStatus = PUBLISHED,
+        remotePostId: Long = 1
+    ): PostModel {
         val post = PostModel()
-        post.setRemotePostId(1)
+        post.setRemotePostId(remotePostId)
         post.setStatus(postStatus.toString())
         post.setIsLocallyChanged(isLocallyChanged)
         post.setAutoSaveModified("1955-11-05T14:15:00Z")
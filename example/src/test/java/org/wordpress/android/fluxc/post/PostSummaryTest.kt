@@ -0,0 +1,174 @@
+package org.wordpress.android.fluxc.post
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.action.PostAction
+import org.wordpress.android.fluxc.annotations.action.Action
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureAllocatedBytes
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.LocalOrRemoteId
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.LocalId
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.list.PostListDescriptor
+import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForRestSite
+import org.wordpress.android.fluxc.model.list.datasource.PostSummaryListItemDataSource
+import org.wordpress.android.fluxc.model.post.PostStatus
+import org.wordpress.android.fluxc.model.post.PostSummary
+import org.wordpress.android.fluxc.persistence.PostSqlUtils
+import org.wordpress.android.fluxc.store.PostStore
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsByRemoteIdsPayload
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+private const val LIST_POSTS = 500
+private const val CONTENT_LENGTH = 20000
+
+@RunWith(RobolectricTestRunner::class)
+class PostSummaryTest {
+    private val postSqlUtils = PostSqlUtils()
+    private val site = SiteModel().apply { id = PostTestUtils.DEFAULT_LOCAL_SITE_ID }
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        val config = SingleStoreWellSqlConfigForTests(appContext, PostModel::class.java)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testSummariesMatchTheStoredPosts() {
+        val localDraft = postSqlUtils.insertPostForResult(post(0, "Local draft").apply { setIsLocalDraft(true) })
+        postSqlUtils.insertPostForResult(post(1, "Older post").apply { dateCreated = "2019-01-01T10:00:00+00:00" })
+        postSqlUtils.insertPostForResult(post(2, "Newer post").apply {
+            setIsLocallyChanged(true)
+            dateLocallyChanged = "2020-01-02T10:00:00+00:00"
+        })
+        postSqlUtils.insertPostForResult(post(3, "Page").apply {
+            setIsPage(true)
+            parentId = 1
+            parentTitle = "Parent"
+        })
+
+        val posts = postSqlUtils.getPostsForSite(site, false)
+        val summaries = postSqlUtils.getPostSummariesForSite(site, false)
+
+        assertEquals(posts.map { summaryOf(it) }, summaries)
+        assertEquals(listOf(localDraft.id), summaries.filter { it.isLocalDraft }.map { it.id })
+        assertEquals(PostStatus.PUBLISHED, summaries[1].postStatus)
+        assertEquals(postSqlUtils.getPostsForSite(site, true).map { summaryOf(it) },
+                postSqlUtils.getPostSummariesForSite(site, true))
+    }
+
+    @Test
+    fun testSummariesByLocalOrRemoteIds() {
+        val localDraft = postSqlUtils.insertPostForResult(post(0, "Local draft").apply { setIsLocalDraft(true) })
+        postSqlUtils.insertPostForResult(post(1, "Post 1"))
+        postSqlUtils.insertPostForResult(post(2, "Post 2"))
+        postSqlUtils.insertPostForResult(post(3, "Other site").apply { localSiteId = site.id + 1 })
+
+        val summaries = postSqlUtils.getPostSummariesByLocalOrRemotePostIds(
+                listOf(LocalId(localDraft.id), RemoteId(2), RemoteId(3)), site.id)
+
+        assertEquals(setOf("Local draft", "Post 2"), summaries.map { it.title }.toSet())
+        assertTrue(postSqlUtils.getPostSummariesByLocalOrRemotePostIds(listOf(), site.id).isEmpty())
+    }
+
+    @Test
+    fun testDataSourceCreatesItemsFromSummariesAndFetchesMissingPosts() {
+        val dispatcher = mock<Dispatcher>()
+        val postStore = mock<PostStore>()
+        val listDescriptor = PostListDescriptorForRestSite(site)
+        val localDraft = summaryOf(post(0, "Local draft").apply { id = 10 })
+        val remotePost = summaryOf(post(1, "Post 1").apply { id = 11 })
+        whenever(postStore.getPostSummariesByLocalOrRemotePostIds(any(), any()))
+                .thenReturn(listOf(localDraft, remotePost))
+        val dataSource = TestPostSummaryDataSource(dispatcher, postStore)
+
+        val items = dataSource.getItemsAndFetchIfNecessary(listDescriptor,
+                listOf(null, LocalId(10), RemoteId(1), RemoteId(2)))
+
+        assertEquals(listOf(null, localDraft, remotePost, null), items)
+        val captor = argumentCaptor<Action<FetchPostsByRemoteIdsPayload>>()
+        verify(dispatcher).dispatch(captor.capture())
+        assertEquals(PostAction.FETCH_POSTS_BY_REMOTE_IDS, captor.firstValue.type)
+        assertEquals(listOf(2L), captor.firstValue.payload.remotePostIds)
+    }
+
+    @Test
+    fun testPostListLoadBenchmark() {
+        assumeBenchmarksEnabled()
+        postSqlUtils.insertOrUpdatePosts((1L..LIST_POSTS).map { post(it, "Post $it") }, false)
+        val ids = (1L..LIST_POSTS).map { RemoteId(it) }
+        // Warm up both queries before measuring them
+        postSqlUtils.getPostsByLocalOrRemotePostIds(ids, site.id)
+        postSqlUtils.getPostSummariesByLocalOrRemotePostIds(ids, site.id)
+
+        val postsBytes = measureAllocatedBytes { postSqlUtils.getPostsByLocalOrRemotePostIds(ids, site.id) }
+        val postsNanos = measureNanos { postSqlUtils.getPostsByLocalOrRemotePostIds(ids, site.id) }
+        val summariesBytes = measureAllocatedBytes {
+            postSqlUtils.getPostSummariesByLocalOrRemotePostIds(ids, site.id)
+        }
+        val summariesNanos = measureNanos { postSqlUtils.getPostSummariesByLocalOrRemotePostIds(ids, site.id) }
+
+        logBenchmark("Loading $LIST_POSTS posts of $CONTENT_LENGTH chars: full posts ${postsNanos / 1000000} ms " +
+                "and $postsBytes bytes, summaries ${summariesNanos / 1000000} ms and $summariesBytes bytes")
+        assertTrue(summariesBytes < postsBytes / 5)
+    }
+
+    private class TestPostSummaryDataSource(
+        dispatcher: Dispatcher,
+        postStore: PostStore
+    ) : PostSummaryListItemDataSource<LocalOrRemoteId?, PostSummary?>(dispatcher, postStore) {
+        override fun getPostId(itemIdentifier: LocalOrRemoteId?) = itemIdentifier
+
+        override fun createItem(
+            listDescriptor: PostListDescriptor,
+            itemIdentifier: LocalOrRemoteId?,
+            postSummary: PostSummary?
+        ) = postSummary.also {
+            if (itemIdentifier == null) {
+                assertNull(postSummary)
+            }
+        }
+
+        override fun getItemIdentifiers(
+            listDescriptor: PostListDescriptor,
+            remoteItemIds: List<RemoteId>,
+            isListFullyFetched: Boolean
+        ): List<LocalOrRemoteId?> = remoteItemIds
+    }
+
+    private fun post(remotePostId: Long, title: String) = PostModel().apply {
+        localSiteId = site.id
+        setRemotePostId(remotePostId)
+        setTitle(title)
+        content = "A".repeat(CONTENT_LENGTH)
+        status = PostStatus.PUBLISHED.toString()
+        dateCreated = "2020-01-01T10:00:00+00:00"
+        featuredImageId = remotePostId * 10
+        authorDisplayName = "Author"
+        autoSaveContent = "B".repeat(CONTENT_LENGTH / 2)
+    }
+
+    private fun summaryOf(post: PostModel) = PostSummary(post.id, post.localSiteId, post.remotePostId, post.title,
+            post.status, post.password, post.authorDisplayName, post.dateCreated, post.lastModified,
+            post.dateLocallyChanged, post.featuredImageId, post.isPage, post.parentId, post.parentTitle,
+            post.isLocalDraft, post.isLocallyChanged)
+}
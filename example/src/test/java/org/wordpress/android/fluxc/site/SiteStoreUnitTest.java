@@ -11,9 +11,11 @@ import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
+import org.wordpress.android.fluxc.BenchmarkTestUtils;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.WellSqlTestUtils;
 import org.wordpress.android.fluxc.model.PostFormatModel;
+import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.SitesModel;
 import org.wordpress.android.fluxc.network.rest.wpcom.site.PrivateAtomicCookie;
@@ -29,6 +31,7 @@ import org.wordpress.android.fluxc.store.SiteStore.UpdateSitesResult;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -37,6 +40,9 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.wordpress.android.fluxc.site.SiteUtils.generateJetpackSiteOverRestOnly;
 import static org.wordpress.android.fluxc.site.SiteUtils.generateJetpackSiteOverXMLRPC;
 import static org.wordpress.android.fluxc.site.SiteUtils.generatePostFormats;
@@ -823,4 +829,119 @@ public class SiteStoreUnitTest {
             assertTrue(mSiteStore.getSiteBySiteId(site.getSiteId()) != null);
         }
     }
+
+    @Test
+    public void testSyncWPComRestSites() throws DuplicateSiteException {
+        WellSqlTestUtils.setupWordPressComAccount();
+
+        SiteModel keptSite = generateWPComSiteWithId(1);
+        keptSite.setMobileEditor("gutenberg");
+        SiteSqlUtils.insertOrUpdateSite(keptSite);
+        SiteSqlUtils.insertOrUpdateSite(generateWPComSiteWithId(2));
+        SiteModel siteWithLocalChanges = generateWPComSiteWithId(3);
+        SiteSqlUtils.insertOrUpdateSite(siteWithLocalChanges);
+        PostModel localDraft = new PostModel();
+        localDraft.setLocalSiteId(siteWithLocalChanges.getId());
+        localDraft.setIsLocalDraft(true);
+        mPostSqlUtils.insertPostForResult(localDraft);
+        SiteSqlUtils.insertOrUpdateSite(generateSelfHostedNonJPSite());
+
+        List<SiteModel> fetchedSites = new ArrayList<>();
+        SiteModel fetchedKeptSite = generateWPComSiteWithId(1);
+        fetchedKeptSite.setName("Renamed");
+        fetchedSites.add(fetchedKeptSite);
+        fetchedSites.add(generateWPComSiteWithId(4));
+        // Same XML-RPC url as the first site
+        SiteModel duplicateSite = generateWPComSiteWithId(5);
+        duplicateSite.setXmlRpcUrl(keptSite.getXmlRpcUrl());
+        fetchedSites.add(duplicateSite);
+
+        UpdateSitesResult res = SiteSqlUtils.syncWPComRestSites(mPostSqlUtils, fetchedSites);
+
+        assertEquals(2, res.rowsAffected);
+        assertTrue(res.duplicateSiteFound);
+        assertEquals(4, mSiteStore.getSitesCount());
+        SiteModel updatedSite = mSiteStore.getSiteBySiteId(1);
+        assertEquals(keptSite.getId(), updatedSite.getId());
+        assertEquals("Renamed", updatedSite.getName());
+        assertEquals("gutenberg", updatedSite.getMobileEditor());
+        assertNull(mSiteStore.getSiteBySiteId(2));
+        assertNotNull(mSiteStore.getSiteBySiteId(3));
+        assertNotNull(mSiteStore.getSiteBySiteId(4));
+        assertNull(mSiteStore.getSiteBySiteId(5));
+        assertEquals(1, mSiteStore.getSitesAccessedViaXMLRPCCount());
+    }
+
+    @Test
+    public void testSyncWPComRestSitesBenchmark() throws DuplicateSiteException {
+        WellSqlTestUtils.setupWordPressComAccount();
+        final int siteCount = 500;
+        List<SiteModel> sites = new ArrayList<>();
+        for (int i = 1; i <= siteCount; i++) {
+            sites.add(generateWPComSiteWithId(i));
+        }
+        SiteSqlUtils.insertOrUpdateSites(sites);
+
+        PostSqlUtils postSqlUtils = Mockito.spy(new PostSqlUtils());
+
+        long syncNanos = System.nanoTime();
+        UpdateSitesResult res = SiteSqlUtils.syncWPComRestSites(postSqlUtils, sites);
+        syncNanos = System.nanoTime() - syncNanos;
+
+        BenchmarkTestUtils.logBenchmark("Syncing " + siteCount + " fetched sites: " + syncNanos / 1000000 + " ms");
+        // The sites didn't change since they were inserted
+        assertEquals(0, res.rowsAffected);
+        assertEquals(siteCount, mSiteStore.getSitesCount());
+        // The local changes of all the sites are found with one query, instead of one query per site
+        verify(postSqlUtils).getLocalSiteIdsWithLocalChanges();
+        verify(postSqlUtils, never()).getSiteHasLocalChanges(any(SiteModel.class));
+    }
+
+    @Test
+    public void testUnchangedSitesAreNotWritten() throws DuplicateSiteException {
+        WellSqlTestUtils.setupWordPressComAccount();
+        List<SiteModel> sites = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            sites.add(generateWPComSiteWithId(i));
+        }
+        UpdateSitesResult inserted = SiteSqlUtils.insertOrUpdateSites(sites);
+        assertEquals(3, inserted.rowsAffected);
+        assertEquals(3, inserted.changedLocalSiteIds.size());
+
+        List<SiteModel> fetchedSites = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            fetchedSites.add(generateWPComSiteWithId(i));
+        }
+        UpdateSitesResult unchanged = SiteSqlUtils.syncWPComRestSites(mPostSqlUtils, fetchedSites);
+        assertEquals(0, unchanged.rowsAffected);
+        assertTrue(unchanged.changedLocalSiteIds.isEmpty());
+        assertEquals(0, SiteSqlUtils.insertOrUpdateSite(generateWPComSiteWithId(1)));
+
+        fetchedSites.get(1).setName("Renamed");
+        UpdateSitesResult renamed = SiteSqlUtils.syncWPComRestSites(mPostSqlUtils, fetchedSites);
+        int renamedSiteId = mSiteStore.getLocalIdForRemoteSiteId(2);
+        assertEquals(1, renamed.rowsAffected);
+        assertEquals(Collections.singletonList(renamedSiteId), renamed.changedLocalSiteIds);
+        assertEquals("Renamed", mSiteStore.getSiteByLocalId(renamedSiteId).getName());
+
+        SiteModel renamedAgain = generateWPComSiteWithId(1);
+        renamedAgain.setName("Renamed again");
+        assertEquals(1, SiteSqlUtils.insertOrUpdateSite(renamedAgain));
+        assertEquals("Renamed again", mSiteStore.getSiteBySiteId(1).getName());
+
+        // Absent sites are removed and reported as changed
+        fetchedSites.get(0).setName("Renamed again");
+        UpdateSitesResult removed = SiteSqlUtils.syncWPComRestSites(mPostSqlUtils, fetchedSites.subList(0, 1));
+        assertEquals(0, removed.rowsAffected);
+        assertEquals(2, removed.changedLocalSiteIds.size());
+        assertEquals(1, mSiteStore.getSitesCount());
+    }
+
+    private SiteModel generateWPComSiteWithId(long siteId) {
+        SiteModel site = generateWPComSite();
+        site.setSiteId(siteId);
+        site.setUrl("https://pony" + siteId + ".com");
+        site.setXmlRpcUrl("https://pony" + siteId + ".com/xmlrpc.php");
+        return site;
+    }
 }
@@ -0,0 +1,225 @@
+package org.wordpress.android.fluxc.store
+
+import org.assertj.core.api.Assertions.assertThat
+import org.greenrobot.eventbus.Subscribe
+import org.greenrobot.eventbus.ThreadMode
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.action.AccountAction
+import org.wordpress.android.fluxc.action.CommentAction
+import org.wordpress.android.fluxc.action.MediaAction
+import org.wordpress.android.fluxc.action.NotificationAction
+import org.wordpress.android.fluxc.action.PluginAction
+import org.wordpress.android.fluxc.action.PostAction
+import org.wordpress.android.fluxc.action.ReaderAction
+import org.wordpress.android.fluxc.action.SiteAction
+import org.wordpress.android.fluxc.action.TaxonomyAction
+import org.wordpress.android.fluxc.action.ThemeAction
+import org.wordpress.android.fluxc.annotations.action.Action
+import org.wordpress.android.fluxc.annotations.action.ActionBuilder
+import org.wordpress.android.fluxc.annotations.action.ActionRoutingTable
+import org.wordpress.android.fluxc.annotations.action.IAction
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureNanos
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.SynchronousQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeUnit.SECONDS
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+private const val DISPATCHED_ACTIONS = 2000
+
+/**
+ * Compares the default broadcast [Dispatcher] with the routed mode, where actions only reach the stores listed for
+ * their action type in an [ActionRoutingTable].
+ */
+@RunWith(RobolectricTestRunner::class)
+class DispatcherRoutingTest {
+    private val executor = ThreadPoolExecutor(0, Int.MAX_VALUE, 60L, SECONDS, SynchronousQueue<Runnable>())
+    @Volatile private var handledLatch = CountDownLatch(DISPATCHED_ACTIONS)
+    private val handledCount = AtomicInteger()
+    private val ignoredCount = AtomicInteger()
+    private val totalLatencyNanos = AtomicLong()
+
+    private val actions: List<IAction> = listOf(
+            PostAction.FETCH_POSTS,
+            MediaAction.FETCH_MEDIA_LIST,
+            SiteAction.FETCH_SITES,
+            AccountAction.FETCH_ACCOUNT,
+            CommentAction.FETCH_COMMENTS,
+            ThemeAction.FETCH_WP_COM_THEMES,
+            TaxonomyAction.FETCH_CATEGORIES,
+            PluginAction.FETCH_PLUGIN_DIRECTORY,
+            ReaderAction.READER_SEARCH_SITES,
+            NotificationAction.FETCH_NOTIFICATIONS
+    )
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun testRoutedModeOnlyReachesOwningStores() {
+        val dispatcher = Dispatcher(listOf(BenchmarkRoutingTable()), executor)
+        createStores(dispatcher)
+
+        val result = runBenchmark(dispatcher)
+
+        assertThat(handledCount.get()).isEqualTo(DISPATCHED_ACTIONS)
+        assertThat(ignoredCount.get()).isEqualTo(0)
+        assertThat(result.asyncTasks).isEqualTo(DISPATCHED_ACTIONS.toLong())
+    }
+
+    @Test
+    fun testRoutedModeReducesThreadPoolPressure() {
+        val broadcastExecutor = ThreadPoolExecutor(0, Int.MAX_VALUE, 60L, SECONDS, SynchronousQueue<Runnable>())
+        val broadcastResult = try {
+            val broadcastDispatcher = Dispatcher(emptyList(), broadcastExecutor)
+            createStores(broadcastDispatcher)
+            runBenchmark(broadcastDispatcher, broadcastExecutor)
+        } finally {
+            broadcastExecutor.shutdownNow()
+        }
+        resetCounters()
+
+        val routedDispatcher = Dispatcher(listOf(BenchmarkRoutingTable()), executor)
+        createStores(routedDispatcher)
+        val routedResult = runBenchmark(routedDispatcher)
+
+        logBenchmark("Broadcast dispatch: $broadcastResult")
+        logBenchmark("Routed dispatch: $routedResult")
+
+        // Every store gets an async hop per action when broadcasting, only the owning store when routing
+        assertThat(broadcastResult.asyncTasks).isEqualTo(DISPATCHED_ACTIONS.toLong() * actions.size)
+        assertThat(routedResult.asyncTasks).isEqualTo(DISPATCHED_ACTIONS.toLong())
+    }
+
+    @Test
+    fun testRoutedModeStillReachesUnroutedSubscribers() {
+        val dispatcher = Dispatcher(listOf(BenchmarkRoutingTable()), executor)
+        val subscriber = ActionSubscriber()
+        dispatcher.register(subscriber)
+
+        dispatcher.dispatch(ActionBuilder.generateNoPayloadAction(PostAction.FETCH_POSTS))
+
+        assertThat(subscriber.latch.await(5, SECONDS)).isTrue()
+    }
+
+    private fun createStores(dispatcher: Dispatcher) {
+        PostBenchmarkStore(dispatcher)
+        MediaBenchmarkStore(dispatcher)
+        SiteBenchmarkStore(dispatcher)
+        AccountBenchmarkStore(dispatcher)
+        CommentBenchmarkStore(dispatcher)
+        ThemeBenchmarkStore(dispatcher)
+        TaxonomyBenchmarkStore(dispatcher)
+        PluginBenchmarkStore(dispatcher)
+        ReaderBenchmarkStore(dispatcher)
+        NotificationBenchmarkStore(dispatcher)
+    }
+
+    private fun runBenchmark(dispatcher: Dispatcher, executor: ThreadPoolExecutor = this.executor): BenchmarkResult {
+        val elapsedNanos = measureNanos {
+            for (i in 0 until DISPATCHED_ACTIONS) {
+                dispatcher.dispatch(TimedAction(actions[i % actions.size], System.nanoTime()))
+            }
+            assertThat(handledLatch.await(30, SECONDS)).isTrue()
+        }
+
+        // Wait for the ignored deliveries to drain too, so that the task count is complete
+        while (executor.completedTaskCount < executor.taskCount) {
+            Thread.sleep(10)
+        }
+        return BenchmarkResult(
+                averageLatencyMicros = TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos.get() / DISPATCHED_ACTIONS),
+                totalMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                asyncTasks = executor.completedTaskCount,
+                largestPoolSize = executor.largestPoolSize
+        )
+    }
+
+    private fun resetCounters() {
+        handledCount.set(0)
+        ignoredCount.set(0)
+        totalLatencyNanos.set(0)
+        handledLatch = CountDownLatch(DISPATCHED_ACTIONS)
+    }
+
+    private data class BenchmarkResult(
+        val averageLatencyMicros: Long,
+        val totalMillis: Long,
+        val asyncTasks: Long,
+        val largestPoolSize: Int
+    )
+
+    private class TimedAction(type: IAction, val dispatchedAtNanos: Long) : Action<Void>(type, null)
+
+    inner class BenchmarkRoutingTable : ActionRoutingTable {
+        override fun getRoutes(): Map<Class<out IAction>, List<Class<*>>> = mapOf(
+                PostAction::class.java to listOf(PostBenchmarkStore::class.java),
+                MediaAction::class.java to listOf(MediaBenchmarkStore::class.java),
+                SiteAction::class.java to listOf(SiteBenchmarkStore::class.java),
+                AccountAction::class.java to listOf(AccountBenchmarkStore::class.java),
+                CommentAction::class.java to listOf(CommentBenchmarkStore::class.java),
+                ThemeAction::class.java to listOf(ThemeBenchmarkStore::class.java),
+                TaxonomyAction::class.java to listOf(TaxonomyBenchmarkStore::class.java),
+                PluginAction::class.java to listOf(PluginBenchmarkStore::class.java),
+                ReaderAction::class.java to listOf(ReaderBenchmarkStore::class.java),
+                NotificationAction::class.java to listOf(NotificationBenchmarkStore::class.java)
+        )
+    }
+
+    class ActionSubscriber {
+        val latch = CountDownLatch(1)
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        fun onAction(action: Action<*>) {
+            if (action.type == PostAction.FETCH_POSTS) {
+                latch.countDown()
+            }
+        }
+    }
+
+    abstract inner class BenchmarkStore(
+        dispatcher: Dispatcher,
+        private val handledType: Class<out IAction>
+    ) : Store(dispatcher) {
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        override fun onAction(action: Action<*>) {
+            if (!handledType.isInstance(action.type)) {
+                ignoredCount.incrementAndGet()
+                return
+            }
+            totalLatencyNanos.addAndGet(System.nanoTime() - (action as TimedAction).dispatchedAtNanos)
+            handledCount.incrementAndGet()
+            handledLatch.countDown()
+        }
+
+        override fun onRegister() {}
+    }
+
+    inner class PostBenchmarkStore(dispatcher: Dispatcher) : BenchmarkStore(dispatcher, PostAction::class.java)
+    inner class MediaBenchmarkStore(dispatcher: Dispatcher) :
+            BenchmarkStore(dispatcher, MediaAction::class.java)
+    inner class SiteBenchmarkStore(dispatcher: Dispatcher) : BenchmarkStore(dispatcher, SiteAction::class.java)
+    inner class AccountBenchmarkStore(dispatcher: Dispatcher) :
+            BenchmarkStore(dispatcher, AccountAction::class.java)
+    inner class CommentBenchmarkStore(dispatcher: Dispatcher) :
+            BenchmarkStore(dispatcher, CommentAction::class.java)
+    inner class ThemeBenchmarkStore(dispatcher: Dispatcher) :
+            BenchmarkStore(dispatcher, ThemeAction::class.java)
+    inner class TaxonomyBenchmarkStore(dispatcher: Dispatcher) :
+            BenchmarkStore(dispatcher, TaxonomyAction::class.java)
+    inner class PluginBenchmarkStore(dispatcher: Dispatcher) :
+            BenchmarkStore(dispatcher, PluginAction::class.java)
+    inner class ReaderBenchmarkStore(dispatcher: Dispatcher) :
+            BenchmarkStore(dispatcher, ReaderAction::class.java)
+    inner class NotificationBenchmarkStore(dispatcher: Dispatcher) :
+            BenchmarkStore(dispatcher, NotificationAction::class.java)
+}
@@ -0,0 +1,107 @@
+package org.wordpress.android.fluxc.utils
+
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureAllocatedBytes
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.network.xmlrpc.XMLSerializerUtils
+import java.io.ByteArrayInputStream
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+private const val POST_COUNT = 200
+private const val WARM_UP_ITERATIONS = 5
+private const val MEASURED_ITERATIONS = 20
+
+/**
+ * Compares parsing a large wp.getPosts response straight from the response bytes with the previous approach, which
+ * copied the response into a String and back into bytes before scrubbing and parsing it.
+ */
+@RunWith(RobolectricTestRunner::class)
+class XMLRPCResponseParsingBenchmarkTest {
+    private lateinit var payload: ByteArray
+
+    @Before
+    fun setUp() {
+        payload = (PHP_WARNING + buildGetPostsResponse(POST_COUNT)).toByteArray(Charsets.UTF_8)
+    }
+
+    @Test
+    fun testBytesParseMatchesStringRoundTripParse() {
+        val result = XMLSerializerUtils.deserialize(payload, Charsets.UTF_8)
+
+        assertEquals(POST_COUNT, (result as Array<*>).size)
+        assertTrue(result.contentDeepEquals(parseWithStringRoundTrip() as Array<*>))
+    }
+
+    @Test
+    fun testBytesParseAllocatesLessThanStringRoundTripParse() {
+        repeat(WARM_UP_ITERATIONS) {
+            XMLSerializerUtils.deserialize(payload, Charsets.UTF_8)
+            parseWithStringRoundTrip()
+        }
+
+        val roundTrip = measure { parseWithStringRoundTrip() }
+        val bytes = measure { XMLSerializerUtils.deserialize(payload, Charsets.UTF_8) }
+
+        logBenchmark("Parsing ${payload.size} bytes x $MEASURED_ITERATIONS: String round trip $roundTrip, " +
+                "from bytes $bytes")
+        // The round trip copies the payload at least twice (String chars and re-encoded bytes) on every iteration
+        assertTrue(roundTrip.allocatedBytes - bytes.allocatedBytes >= payload.size.toLong() * MEASURED_ITERATIONS)
+    }
+
+    private fun parseWithStringRoundTrip(): Any {
+        val data = String(payload, Charsets.UTF_8)
+        val inputStream = ByteArrayInputStream(data.toByteArray(Charsets.UTF_8))
+        return XMLSerializerUtils.deserialize(XMLSerializerUtils.scrubXmlResponse(inputStream))
+    }
+
+    private fun measure(block: () -> Unit): Measurement {
+        var elapsedNanos = 0L
+        val allocatedBytes = measureAllocatedBytes {
+            elapsedNanos = measureNanos { repeat(MEASURED_ITERATIONS) { block() } }
+        }
+        return Measurement(allocatedBytes, elapsedNanos / MEASURED_ITERATIONS / 1000)
+    }
+
+    private data class Measurement(val allocatedBytes: Long, val averageMicros: Long)
+
+    private fun buildGetPostsResponse(postCount: Int): String {
+        val builder = StringBuilder()
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+        builder.append("<methodResponse><params><param><value><array><data>")
+        for (i in 1..postCount) {
+            builder.append("<value><struct>")
+            appendMember(builder, "post_id", "<string>$i</string>")
+            appendMember(builder, "post_title", "<string>Post $i – café 😀</string>")
+            appendMember(builder, "post_date_gmt", "<dateTime.iso8601>20190305T10:15:00</dateTime.iso8601>")
+            appendMember(builder, "post_status", "<string>publish</string>")
+            appendMember(builder, "post_type", "<string>post</string>")
+            appendMember(builder, "post_parent", "<string>0</string>")
+            appendMember(builder, "comment_status", "<boolean>1</boolean>")
+            appendMember(builder, "sticky", "<boolean>0</boolean>")
+            appendMember(builder, "post_content", "<string>${POST_CONTENT.repeat(40)}</string>")
+            // Nested arrays are parsed into Object[], which wouldn't compare by content inside the post maps
+            appendMember(builder, "post_thumbnail", "<struct>" +
+                    "<member><name>attachment_id</name><value><string>${i + 1000}</string></value></member>" +
+                    "<member><name>link</name><value><string>https://example.com/$i.jpg</string></value></member>" +
+                    "</struct>")
+            builder.append("</struct></value>")
+        }
+        builder.append("</data></array></value></param></params></methodResponse>")
+        return builder.toString()
+    }
+
+    private fun appendMember(builder: StringBuilder, name: String, value: String) {
+        builder.append("<member><name>").append(name).append("</name><value>").append(value).append("</value></member>")
+    }
+
+    companion object {
+        private const val POST_CONTENT = "&lt;p&gt;Lorem ipsum dolor sit amet.&lt;/p&gt;"
+        private const val PHP_WARNING = "Warning: virtual() [function.virtual2]: Unable to include " +
+                "'/cgi-bin/script/l' - request execution failed in /home/mysite/public_html/index.php on line 2\n"
+    }
+}
@@ -10,6 +10,8 @@ import org.wordpress.android.fluxc.network.xmlrpc.XMLSerializerUtils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Map;
 
 @RunWith(RobolectricTestRunner.class)
 public class XMLSerializerUtilsTest {
@@ -39,6 +41,20 @@ public class XMLSerializerUtilsTest {
         Assert.assertEquals(xml, result);
     }
 
+    @Test
+    public void testXmlRpcResponseDeserializeBytesWithJunk() throws Exception {
+        final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodResponse><params><param><value>"
+                           + "<struct><member><name>title</name><value><string>caf\u00e9</string></value></member>"
+                           + "</struct></value></param></params></methodResponse>";
+        final String junk = "\uFEFFWarning: virtual() [function.virtual2]: Unable to include '/cgi-bin/script/l'\n";
+        final byte[] data = (junk + xml).getBytes("UTF-8");
+
+        Object result = XMLSerializerUtils.deserialize(data, Charset.forName("UTF-8"));
+
+        Assert.assertTrue(result instanceof Map);
+        Assert.assertEquals("caf\u00e9", ((Map) result).get("title"));
+    }
+
     private String scrub(String input, int xmlLength) {
         try {
             final InputStream is = new ByteArrayInputStream(input.getBytes("UTF-8"));
@@ -89,6 +89,31 @@ class WCProductLeaderboardsMapperTest {
         assertThat(result).isEmpty()
     }
 
+    @Test
+    fun `mapped products keep their parsed JSON columns`() = test {
+        expectedProducts.forEach { product ->
+            product.images = "[{\"id\":${product.remoteProductId},\"src\":\"https://example.com/image.jpg\"}]"
+            // Parses the images before the product is serialized
+            assertThat(product.getImageList()).hasSize(1)
+        }
+        configureProductStoreMock()
+
+        val result = mapperUnderTest.map(
+                productApiResponse!!,
+                stubSite,
+                productStore,
+                DAYS
+        )
+
+        assertThat(result).hasSize(3)
+        result.forEach { topPerformer ->
+            assertThat(topPerformer.productInfo).doesNotContain("parsedImages")
+            val product = topPerformer.product
+            assertThat(product.getImageList().map { it.id }).containsExactly(product.remoteProductId)
+            assertThat(product.getFirstImageUrl()).isEqualTo("https://example.com/image.jpg")
+        }
+    }
+
     private suspend fun configureProductStoreMock() {
         generateStubbedProductIdList
                 .let {
@@ -1,6 +1,8 @@
 package org.wordpress.android.fluxc.wc.order
 
+import com.nhaarman.mockitokotlin2.mock
 import com.yarolegovich.wellsql.WellSql
+import com.yarolegovich.wellsql.WellTableManager
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -11,6 +13,7 @@ import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
 import org.wordpress.android.fluxc.UnitTestUtils
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.WCOrderLineItemModel
 import org.wordpress.android.fluxc.model.WCOrderModel
 import org.wordpress.android.fluxc.model.WCOrderNoteModel
 import org.wordpress.android.fluxc.model.WCOrderShipmentProviderModel
@@ -29,13 +32,16 @@ import kotlin.test.assertNull
 @Config(manifest = Config.NONE)
 @RunWith(RobolectricTestRunner::class)
 class OrderSqlUtilsTest {
+    private lateinit var config: WellSqlConfig
+
     @Before
     fun setUp() {
         val appContext = RuntimeEnvironment.application.applicationContext
-        val config = SingleStoreWellSqlConfigForTests(
+        config = SingleStoreWellSqlConfigForTests(
                 appContext,
                 listOf(
                         WCOrderModel::class.java,
+                        WCOrderLineItemModel::class.java,
                         WCOrderNoteModel::class.java,
                         WCOrderStatusModel::class.java,
                         WCOrderShipmentTrackingModel::class.java,
@@ -115,6 +121,84 @@ class OrderSqlUtilsTest {
         assertEquals(0, deletedOrders.size)
     }
 
+    @Test
+    fun testOrderLineItemsAreSavedWithTheOrder() {
+        val order = OrderTestUtils.generateSampleOrder(1).apply {
+            lineItems = UnitTestUtils.getStringFromResourceFile(this.javaClass, "wc/lineitems.json")
+        }
+        OrderSqlUtils.insertOrUpdateOrder(order)
+
+        val lineItems = OrderSqlUtils.getOrderLineItemsForOrder(order.id)
+        assertEquals(2, lineItems.size)
+        with(lineItems.first { it.remoteLineItemId == 2L }) {
+            assertEquals(order.localSiteId, localSiteId)
+            assertEquals(65L, productId)
+            assertEquals(3L, variationId)
+            assertEquals("A second test", name)
+            assertEquals(2.0, quantity)
+            assertEquals("20.00", total)
+        }
+
+        // Updating the order replaces its line items
+        val updatedOrder = OrderTestUtils.generateSampleOrder(1).apply {
+            lineItems = "[{\"id\":3,\"name\":\"A third test\",\"product_id\":15,\"quantity\":4}]"
+        }
+        OrderSqlUtils.insertOrUpdateOrder(updatedOrder)
+
+        assertEquals(order.id, updatedOrder.id)
+        assertEquals(listOf(3L), OrderSqlUtils.getOrderLineItemsForOrder(order.id).map { it.remoteLineItemId })
+
+        OrderSqlUtils.deleteOrdersForSite(SiteModel().apply { id = order.localSiteId })
+        assertEquals(0, OrderSqlUtils.getOrderLineItemsForOrder(order.id).size)
+    }
+
+    @Test
+    fun testMigrationSavesTheLineItemsOfCachedOrders() {
+        val order = OrderTestUtils.generateSampleOrder(1).apply {
+            lineItems = UnitTestUtils.getStringFromResourceFile(this.javaClass, "wc/lineitems.json")
+        }
+        OrderSqlUtils.insertOrUpdateOrder(order)
+        OrderSqlUtils.insertOrUpdateOrder(OrderTestUtils.generateSampleOrder(2).apply { lineItems = "not json" })
+        val note = OrderTestUtils.generateSampleNote(1, order.localSiteId, order.id)
+        OrderSqlUtils.insertOrIgnoreOrderNote(note)
+        val savedLineItems = OrderSqlUtils.getOrderLineItemsForOrder(order.id).map { it.toValues() }
+
+        // The migration that added the line items table, run on the orders cached before it
+        config.onUpgrade(WellSql.giveMeWritableDb(), mock<WellTableManager>(), 119, 119)
+
+        val site = SiteModel().apply { id = order.localSiteId }
+        assertEquals(2, OrderSqlUtils.getOrdersForSite(site).size)
+        assertEquals(savedLineItems, OrderSqlUtils.getOrderLineItemsForOrder(order.id).map { it.toValues() })
+        assertEquals(listOf(order.remoteOrderId),
+                OrderSqlUtils.getOrdersForSiteByProductId(site, 65).map { it.remoteOrderId })
+        assertEquals(1, OrderSqlUtils.getOrderNotesForOrder(order.id).size)
+    }
+
+    private fun WCOrderLineItemModel.toValues() =
+            listOf(localSiteId, localOrderId, remoteLineItemId, productId, variationId, name, quantity, total)
+
+    @Test
+    fun testGetOrdersForSiteByProductId() {
+        fun insertOrder(remoteId: Long, dateCreated: String, productIds: List<Long>, siteId: Int = 6) {
+            OrderSqlUtils.insertOrUpdateOrder(OrderTestUtils.generateSampleOrder(remoteId, siteId = siteId).apply {
+                this.dateCreated = dateCreated
+                lineItems = productIds.joinToString(",", "[", "]") { "{\"product_id\":$it}" }
+            })
+        }
+        insertOrder(1, "2020-01-01T00:00:00Z", listOf(15L, 65L))
+        insertOrder(2, "2020-01-03T00:00:00Z", listOf(15L, 15L))
+        insertOrder(3, "2020-01-02T00:00:00Z", listOf(65L))
+        insertOrder(4, "2020-01-04T00:00:00Z", emptyList())
+        insertOrder(5, "2020-01-05T00:00:00Z", listOf(15L), siteId = 7)
+        val site = SiteModel().apply { id = 6 }
+
+        assertEquals(listOf(2L, 1L),
+                OrderSqlUtils.getOrdersForSiteByProductId(site, 15).map { it.remoteOrderId })
+        assertEquals(listOf(3L, 1L),
+                OrderSqlUtils.getOrdersForSiteByProductId(site, 65).map { it.remoteOrderId })
+        assertEquals(0, OrderSqlUtils.getOrdersForSiteByProductId(site, 99).size)
+    }
+
     @Test
     fun testInsertOrIgnoreOrderNotes() {
         val order = OrderTestUtils.generateSampleOrder(42)
@@ -4,6 +4,7 @@ import org.junit.Test
 import org.wordpress.android.fluxc.UnitTestUtils
 import kotlin.test.assertEquals
 import kotlin.test.assertNull
+import kotlin.test.assertSame
 import kotlin.test.assertTrue
 
 class WCOrderModelTest {
@@ -70,4 +71,23 @@ class WCOrderModelTest {
         model.lineItems = "[{\"total\": \"12.26\"},{\"total\": \"15.39\"}]"
         assertEquals(0.0, model.getOrderSubtotal())
     }
+
+    @Test
+    fun testLineItemsAndShippingLinesAreParsedOncePerChange() {
+        val model = OrderTestUtils.generateSampleOrder(61).apply {
+            lineItems = UnitTestUtils.getStringFromResourceFile(this.javaClass, "wc/lineitems.json")
+            shippingLines = "[{\"method_title\": \"Flat rate\"}]"
+        }
+
+        assertSame(model.getLineItemList(), model.getLineItemList())
+        assertSame(model.getShippingLineList(), model.getShippingLineList())
+        assertEquals(30.0, model.getOrderSubtotal())
+
+        model.lineItems = "[{\"subtotal\": \"12.26\"}]"
+        model.shippingLines = "[]"
+
+        assertEquals(1, model.getLineItemList().size)
+        assertEquals(12.26, model.getOrderSubtotal())
+        assertTrue(model.getShippingLineList().isEmpty())
+    }
 }
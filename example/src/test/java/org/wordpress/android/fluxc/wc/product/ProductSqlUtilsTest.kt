@@ -18,7 +18,12 @@ import org.wordpress.android.fluxc.model.WCProductTagModel
 import org.wordpress.android.fluxc.persistence.ProductSqlUtils
 import org.wordpress.android.fluxc.persistence.SiteSqlUtils
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
+import org.wordpress.android.fluxc.store.WCProductStore.ProductCategorySorting.NAME_ASC
+import org.wordpress.android.fluxc.store.WCProductStore.ProductCategorySorting.NAME_DESC
 import org.wordpress.android.fluxc.store.WCProductStore.ProductFilterOption
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.DATE_DESC
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.TITLE_ASC
+import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.TITLE_DESC
 import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertNull
@@ -409,6 +414,61 @@ class ProductSqlUtilsTest {
         assertEquals(42, differentSiteProducts.first().remoteProductId)
     }
 
+    @Test
+    fun testGetProductsSortedByNameIgnoringCase() {
+        val names = listOf("banana", "Apple", "cherry", "apricot", "Blueberry")
+        names.forEachIndexed { index, name ->
+            ProductSqlUtils.insertOrUpdateProduct(ProductTestUtils.generateSampleProduct(index + 1L, name = name))
+        }
+        val site = SiteModel().apply { id = 6 }
+
+        val ascending = ProductSqlUtils.getProductsForSite(site, TITLE_ASC).map { it.name }
+        assertEquals(listOf("Apple", "apricot", "banana", "Blueberry", "cherry"), ascending)
+
+        val descending = ProductSqlUtils.getProductsByFilterOptions(site, emptyMap(), TITLE_DESC).map { it.name }
+        assertEquals(ascending.reversed(), descending)
+    }
+
+    @Test
+    fun testGetProductsPages() {
+        (1L..10L).forEach {
+            ProductSqlUtils.insertOrUpdateProduct(ProductTestUtils.generateSampleProduct(it, name = "Product ${'$'}it",
+                    stockStatus = if (it % 2 == 0L) "instock" else "outofstock"))
+        }
+        val site = SiteModel().apply { id = 6 }
+        val inStock = mapOf(ProductFilterOption.STOCK_STATUS to "instock")
+
+        val allInStock = ProductSqlUtils.getProductsByFilterOptions(site, inStock, TITLE_ASC)
+        val firstPage = ProductSqlUtils.getProductsByFilterOptions(site, inStock, TITLE_ASC, limit = 3)
+        val secondPage = ProductSqlUtils.getProductsByFilterOptions(site, inStock, TITLE_ASC, limit = 3, offset = 3)
+
+        assertEquals(5, allInStock.size)
+        assertEquals(allInStock.take(3).map { it.remoteProductId }, firstPage.map { it.remoteProductId })
+        assertEquals(allInStock.drop(3).map { it.remoteProductId }, secondPage.map { it.remoteProductId })
+
+        // Products with the same name are still paged without overlapping
+        val pages = (0 until 10 step 4).flatMap { ProductSqlUtils.getProductsForSite(site, DATE_DESC, 4, it) }
+        assertEquals((1L..10L).toList(), pages.map { it.remoteProductId }.sorted())
+    }
+
+    @Test
+    fun testGetProductCategoriesSortedByNameIgnoringCase() {
+        listOf("shoes", "Hats", "bags", "Scarves").forEachIndexed { index, name ->
+            ProductSqlUtils.insertOrUpdateProductCategory(WCProductCategoryModel().apply {
+                localSiteId = site.id
+                remoteCategoryId = index + 1L
+                this.name = name
+            })
+        }
+
+        assertEquals(listOf("bags", "Hats", "Scarves", "shoes"),
+                ProductSqlUtils.getProductCategoriesForSite(site, NAME_ASC).map { it.name })
+        assertEquals(listOf("shoes", "Scarves"),
+                ProductSqlUtils.getProductCategoriesForSite(site, NAME_DESC, limit = 2).map { it.name })
+        assertEquals(listOf("Hats", "bags"),
+                ProductSqlUtils.getProductCategoriesForSite(site, NAME_DESC, limit = 2, offset = 2).map { it.name })
+    }
+
     @Test
     fun testInsertOrUpdateProductReview() {
         val review = getProductReviews(site.id)[0]
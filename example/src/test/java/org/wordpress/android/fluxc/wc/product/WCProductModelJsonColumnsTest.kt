@@ -0,0 +1,137 @@
+package org.wordpress.android.fluxc.wc.product
+
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.wordpress.android.fluxc.assumeBenchmarksEnabled
+import org.wordpress.android.fluxc.logBenchmark
+import org.wordpress.android.fluxc.measureAllocatedBytes
+import org.wordpress.android.fluxc.measureNanos
+import org.wordpress.android.fluxc.model.WCProductModel
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotSame
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+private const val LIST_PRODUCTS = 1000
+private const val BINDS_PER_PRODUCT = 10
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner::class)
+class WCProductModelJsonColumnsTest {
+    @Test
+    fun testJsonColumnsAreParsedOnce() {
+        val product = generateListProduct(1)
+
+        assertSame(product.getAttributeList(), product.getAttributeList())
+        assertSame(product.getDownloadableFiles(), product.getDownloadableFiles())
+        assertSame(product.getGroupedProductIdList(), product.getGroupedProductIdList())
+        // The mutable lists are copies of the parsed list
+        assertNotSame(product.getImageList(), product.getImageList())
+        assertSame(product.getImageList()[0], product.getImageList()[0])
+        assertSame(product.getCategoryList()[0], product.getCategoryList()[0])
+
+        assertEquals("https://example.com/1-0.jpg", product.getFirstImageUrl())
+        assertEquals(listOf("https://example.com/1-0.jpg", "https://example.com/1-1.jpg"), product.getImageUrls())
+        assertEquals("Category 1, Category 2", product.getCommaSeparatedCategoryNames())
+        assertEquals("Tag 1", product.getCommaSeparatedTagNames())
+        assertEquals(3, product.getNumVariations())
+        assertEquals("Small, Large", product.getAttributeList()[0].getCommaSeparatedOptions())
+        assertEquals(listOf("https://example.com/1.zip"), product.getDownloadableFiles())
+        assertEquals(listOf(11L, 12L), product.getGroupedProductIdList())
+    }
+
+    @Test
+    fun testJsonColumnsAreParsedAgainWhenChanged() {
+        val product = generateListProduct(1)
+        val attributes = product.getAttributeList()
+        product.getNumVariations()
+
+        product.attributes = "[]"
+        product.variations = "[1]"
+        product.images = "[{\"id\":5,\"src\":\"https://example.com/new.jpg\"}]"
+        product.tags = ""
+
+        assertNotSame(attributes, product.getAttributeList())
+        assertTrue(product.getAttributeList().isEmpty())
+        assertEquals(1, product.getNumVariations())
+        assertEquals("https://example.com/new.jpg", product.getFirstImageUrl())
+        assertTrue(product.getTagList().isEmpty())
+    }
+
+    @Test
+    fun testProductsComparisonsUseTheParsedColumns() {
+        val product = generateListProduct(1)
+        val sameProduct = generateListProduct(1)
+        val otherProduct = generateListProduct(2)
+
+        assertTrue(product.hasSameImages(sameProduct))
+        assertTrue(product.hasSameCategories(otherProduct))
+        assertTrue(product.hasSameTags(sameProduct))
+        assertFalse(product.hasSameImages(otherProduct))
+    }
+
+    @Test
+    fun testProductListBindBenchmark() {
+        assumeBenchmarksEnabled()
+        val products = (1L..LIST_PRODUCTS).map { generateListProduct(it) }
+        products.forEach { bind(it) }
+
+        // A fresh copy of the columns parses them on its first bind, like before they were kept
+        val firstBindNanos = measureNanos {
+            repeat(BINDS_PER_PRODUCT) { products.forEach { bind(copyColumns(it)) } }
+        }
+        val firstBindBytes = measureAllocatedBytes {
+            products.forEach { bind(copyColumns(it)) }
+        }
+        val rebindNanos = measureNanos {
+            repeat(BINDS_PER_PRODUCT) { products.forEach { bind(it) } }
+        }
+        val rebindBytes = measureAllocatedBytes {
+            products.forEach { bind(it) }
+        }
+
+        logBenchmark("Binding $LIST_PRODUCTS products $BINDS_PER_PRODUCT times: parsing the JSON columns " +
+                "${firstBindNanos / 1000000} ms and ${firstBindBytes * BINDS_PER_PRODUCT} bytes, parsed columns " +
+                "${rebindNanos / 1000000} ms and ${rebindBytes * BINDS_PER_PRODUCT} bytes")
+        assertTrue(rebindBytes < firstBindBytes / 2)
+    }
+
+    /**
+     * Reads what a product list row shows.
+     */
+    private fun bind(product: WCProductModel): Int {
+        return listOf(
+                product.getFirstImageUrl(),
+                product.getCommaSeparatedCategoryNames(),
+                product.getCommaSeparatedTagNames(),
+                product.getAttributeList().joinToString { it.name },
+                product.getNumVariations().toString()
+        ).sumBy { it?.length ?: 0 }
+    }
+
+    private fun copyColumns(product: WCProductModel) = WCProductModel().apply {
+        images = String(product.images.toCharArray())
+        categories = String(product.categories.toCharArray())
+        tags = String(product.tags.toCharArray())
+        attributes = String(product.attributes.toCharArray())
+        variations = String(product.variations.toCharArray())
+    }
+
+    private fun generateListProduct(remoteId: Long) = WCProductModel().apply {
+        remoteProductId = remoteId
+        name = "Product $remoteId"
+        images = "[{\"id\":${remoteId * 10},\"name\":\"Image\",\"src\":\"https://example.com/$remoteId-0.jpg\"," +
+                "\"alt\":\"\"},{\"id\":${remoteId * 10 + 1},\"name\":\"Image\"," +
+                "\"src\":\"https://example.com/$remoteId-1.jpg\",\"alt\":\"\"}]"
+        categories = "[{\"id\":1,\"name\":\"Category 1\",\"slug\":\"category-1\"}," +
+                "{\"id\":2,\"name\":\"Category 2\",\"slug\":\"category-2\"}]"
+        tags = "[{\"id\":1,\"name\":\"Tag 1\",\"slug\":\"tag-1\"}]"
+        attributes = "[{\"id\":1,\"name\":\"Size\",\"visible\":true,\"options\":[\"Small\",\"Large\"]}]"
+        variations = "[${remoteId * 100},${remoteId * 100 + 1},${remoteId * 100 + 2}]"
+        downloads = "[{\"id\":\"1\",\"name\":\"File\",\"file\":\"https://example.com/$remoteId.zip\"}]"
+        groupedProductIds = "[11,12]"
+    }
+}
@@ -3,4 +3,6 @@ package org.wordpress.android.fluxc.annotations;
 public abstract class AnnotationConfig {
     public static final String PACKAGE = "org.wordpress.android.fluxc.generated";
     public static final String PACKAGE_ENDPOINTS = PACKAGE + ".endpoint";
+    public static final String OPTION_ROUTING_TABLE_NAME = "fluxc.routingTableName";
+    public static final String DEFAULT_ROUTING_TABLE_NAME = "FluxCActionRoutingTable";
 }
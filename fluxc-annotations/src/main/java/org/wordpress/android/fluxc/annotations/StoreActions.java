@@ -0,0 +1,15 @@
+package org.wordpress.android.fluxc.annotations;
+
+import org.wordpress.android.fluxc.annotations.action.IAction;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the {@link ActionEnum}-annotated enums handled by a store. Used to generate an
+ * {@link org.wordpress.android.fluxc.annotations.action.ActionRoutingTable} for the module.
+ */
+@Target(value = ElementType.TYPE)
+public @interface StoreActions {
+    Class<? extends IAction>[] value();
+}
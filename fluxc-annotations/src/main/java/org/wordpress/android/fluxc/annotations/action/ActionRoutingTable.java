@@ -0,0 +1,12 @@
+package org.wordpress.android.fluxc.annotations.action;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each action enum type to the store classes that handle it. Implementations are generated for every module
+ * containing {@link org.wordpress.android.fluxc.annotations.StoreActions}-annotated stores.
+ */
+public interface ActionRoutingTable {
+    Map<Class<? extends IAction>, List<Class<?>>> getRoutes();
+}
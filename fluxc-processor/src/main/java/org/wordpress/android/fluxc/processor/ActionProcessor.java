@@ -2,19 +2,34 @@ package org.wordpress.android.fluxc.processor;
 
 import com.google.auto.service.AutoService;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 
 import org.wordpress.android.fluxc.annotations.ActionEnum;
 import org.wordpress.android.fluxc.annotations.AnnotationConfig;
+import org.wordpress.android.fluxc.annotations.StoreActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.ActionBuilder;
+import org.wordpress.android.fluxc.annotations.action.ActionRoutingTable;
+import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.annotations.action.NoPayload;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import javax.annotation.processing.AbstractProcessor;
@@ -28,28 +43,41 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic;
 
 import static java.util.Collections.singleton;
 import static javax.lang.model.SourceVersion.latestSupported;
 
 @SuppressWarnings("unused")
-@SupportedAnnotationTypes("org.wordpress.android.fluxc.annotations.ActionEnum")
+@SupportedAnnotationTypes({"org.wordpress.android.fluxc.annotations.ActionEnum",
+        "org.wordpress.android.fluxc.annotations.StoreActions"})
 @AutoService(Processor.class)
 public class ActionProcessor extends AbstractProcessor {
     private Filer mFiler;
     private Messager mMessager;
+    private String mRoutingTableName;
+    private boolean mRoutingTableGenerated;
 
     @Override
     public void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         mFiler = processingEnv.getFiler();
         mMessager = processingEnv.getMessager();
+        String routingTableName = processingEnv.getOptions().get(AnnotationConfig.OPTION_ROUTING_TABLE_NAME);
+        mRoutingTableName = routingTableName == null || routingTableName.isEmpty()
+                ? AnnotationConfig.DEFAULT_ROUTING_TABLE_NAME : routingTableName;
     }
 
     @Override
     public Set<String> getSupportedAnnotationTypes() {
-        return singleton(ActionEnum.class.getCanonicalName());
+        return new HashSet<>(Arrays.asList(ActionEnum.class.getCanonicalName(),
+                StoreActions.class.getCanonicalName()));
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return singleton(AnnotationConfig.OPTION_ROUTING_TABLE_NAME);
     }
 
     @Override
@@ -64,6 +92,21 @@ public class ActionProcessor extends AbstractProcessor {
             createActionBuilderClass(actionElement, annotatedActionEnum);
         }
 
+        List<AnnotatedStore> annotatedStores = new ArrayList<>();
+        for (Element storeElement : roundEnv.getElementsAnnotatedWith(StoreActions.class)) {
+            annotatedStores.add(new AnnotatedStore(storeElement));
+        }
+
+        if (!annotatedStores.isEmpty()) {
+            if (mRoutingTableGenerated) {
+                mMessager.printMessage(Diagnostic.Kind.ERROR, "Stores annotated with @StoreActions must be "
+                        + "processed in a single round, " + mRoutingTableName + " has already been generated");
+            } else {
+                createRoutingTableClass(annotatedStores);
+                mRoutingTableGenerated = true;
+            }
+        }
+
         return true;
     }
 
@@ -119,4 +162,73 @@ public class ActionProcessor extends AbstractProcessor {
 
         return AnnotationConfig.PACKAGE + "." + genClassName;
     }
+
+    private String createRoutingTableClass(List<AnnotatedStore> annotatedStores) {
+        // Group the stores by the action enum they handle, keeping the declaration order stable
+        Map<String, TypeMirror> actionTypes = new LinkedHashMap<>();
+        Map<String, List<Element>> storesByActionType = new HashMap<>();
+        for (AnnotatedStore annotatedStore : annotatedStores) {
+            for (TypeMirror actionType : annotatedStore.getActionTypes()) {
+                Element actionElement = processingEnv.getTypeUtils().asElement(actionType);
+                if (actionElement == null || actionElement.getAnnotation(ActionEnum.class) == null) {
+                    mMessager.printMessage(Diagnostic.Kind.ERROR, actionType + " is not annotated with @ActionEnum",
+                            annotatedStore.getStoreElement());
+                    continue;
+                }
+                String key = actionType.toString();
+                if (!actionTypes.containsKey(key)) {
+                    actionTypes.put(key, actionType);
+                    storesByActionType.put(key, new ArrayList<Element>());
+                }
+                storesByActionType.get(key).add(annotatedStore.getStoreElement());
+            }
+        }
+
+        TypeName actionClassType = ParameterizedTypeName.get(ClassName.get(Class.class),
+                WildcardTypeName.subtypeOf(IAction.class));
+        TypeName storeClassType = ParameterizedTypeName.get(ClassName.get(Class.class),
+                WildcardTypeName.subtypeOf(Object.class));
+        TypeName routesType = ParameterizedTypeName.get(ClassName.get(Map.class), actionClassType,
+                ParameterizedTypeName.get(ClassName.get(List.class), storeClassType));
+
+        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC);
+        for (Entry<String, TypeMirror> entry : actionTypes.entrySet()) {
+            CodeBlock.Builder storeClasses = CodeBlock.builder();
+            List<Element> stores = storesByActionType.get(entry.getKey());
+            for (int i = 0; i < stores.size(); i++) {
+                storeClasses.add(i == 0 ? "$T.class" : ", $T.class", stores.get(i).asType());
+            }
+            constructorBuilder.addStatement("mRoutes.put($T.class, $T.unmodifiableList($T.<$T>asList($L)))",
+                    entry.getValue(), Collections.class, Arrays.class, storeClassType, storeClasses.build());
+        }
+
+        MethodSpec getRoutesMethod = MethodSpec.methodBuilder("getRoutes")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(routesType)
+                .addStatement("return $T.unmodifiableMap(mRoutes)", Collections.class)
+                .build();
+
+        TypeSpec routingTableClass = TypeSpec.classBuilder(mRoutingTableName)
+                .addModifiers(Modifier.FINAL, Modifier.PUBLIC)
+                .addSuperinterface(ActionRoutingTable.class)
+                .addField(FieldSpec.builder(routesType, "mRoutes", Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T<>()", HashMap.class)
+                        .build())
+                .addMethod(constructorBuilder.build())
+                .addMethod(getRoutesMethod)
+                .build();
+
+        JavaFile javaFile = JavaFile.builder(AnnotationConfig.PACKAGE, routingTableClass)
+                .build();
+
+        try {
+            javaFile.writeTo(mFiler);
+        } catch (IOException e) {
+            mMessager.printMessage(Diagnostic.Kind.ERROR, "Failed to create file: " + e.getMessage());
+        }
+
+        return AnnotationConfig.PACKAGE + "." + mRoutingTableName;
+    }
 }
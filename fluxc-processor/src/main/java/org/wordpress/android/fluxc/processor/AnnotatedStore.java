@@ -0,0 +1,37 @@
+package org.wordpress.android.fluxc.processor;
+
+import org.wordpress.android.fluxc.annotations.StoreActions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Blueprint for a {@link StoreActions}-annotated store after processing.
+ */
+public class AnnotatedStore {
+    private Element mStoreElement;
+    private List<TypeMirror> mActionTypes = new ArrayList<>();
+
+    public AnnotatedStore(Element storeElement) {
+        mStoreElement = storeElement;
+        StoreActions storeActionsAnnotation = storeElement.getAnnotation(StoreActions.class);
+        try {
+            storeActionsAnnotation.value();
+        } catch (MirroredTypesException e) {
+            mActionTypes.addAll(e.getTypeMirrors());
+        }
+    }
+
+    public Element getStoreElement() {
+        return mStoreElement;
+    }
+
+    public List<TypeMirror> getActionTypes() {
+        return Collections.unmodifiableList(mActionTypes);
+    }
+}
@@ -1,27 +1,83 @@
 package org.wordpress.android.fluxc;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.EventBusBuilder;
+import org.greenrobot.eventbus.Subscribe;
+import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.annotations.action.Action;
+import org.wordpress.android.fluxc.annotations.action.ActionRoutingTable;
+import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.store.Store;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import javax.inject.Singleton;
 
 @Singleton
 public class Dispatcher {
     private final EventBus mBus;
 
+    // Routed mode only: actions are delivered directly to the stores listed in the routing tables, and
+    // mActionBus broadcasts them to the remaining subscribers (unannotated stores, tests, etc.)
+    private final List<ActionRoutingTable> mRoutingTables;
+    private final EventBus mActionBus;
+    private final ExecutorService mExecutorService;
+    private final Map<Class<?>, List<RoutedStore>> mRoutedStores = new HashMap<>();
+
     public Dispatcher() {
-        mBus = EventBus.builder()
+        this(Collections.<ActionRoutingTable>emptyList(), null);
+    }
+
+    /**
+     * Creates a Dispatcher in routed mode: actions are only delivered to the stores registered for their action type
+     * in one of the given routing tables, instead of being broadcast to every registered store.
+     */
+    public Dispatcher(@NonNull List<ActionRoutingTable> routingTables) {
+        this(routingTables, null);
+    }
+
+    /**
+     * @param routingTables routing tables generated for {@link org.wordpress.android.fluxc.annotations.StoreActions}
+     *                      annotated stores, an empty list keeps the default broadcast mode
+     * @param executorService executor running ASYNC subscribers, EventBus' default executor is used if null
+     */
+    public Dispatcher(@NonNull List<ActionRoutingTable> routingTables, @Nullable ExecutorService executorService) {
+        mRoutingTables = new ArrayList<>(routingTables);
+        mBus = createEventBusBuilder(executorService)
                 .logNoSubscriberMessages(true)
                 .sendNoSubscriberEvent(true)
-                .throwSubscriberException(true)
                 .build();
+
+        if (isRouted()) {
+            mExecutorService = executorService != null ? executorService : Executors.newCachedThreadPool();
+            mActionBus = createEventBusBuilder(mExecutorService)
+                    .logNoSubscriberMessages(false)
+                    .sendNoSubscriberEvent(false)
+                    .build();
+        } else {
+            mExecutorService = executorService;
+            mActionBus = null;
+        }
     }
 
     public void register(final Object object) {
         mBus.register(object);
+        if (isRouted() && !(object instanceof Store && registerRoutedStore((Store) object))) {
+            mActionBus.register(object);
+        }
         if (object instanceof Store) {
             ((Store) object).onRegister();
         }
@@ -29,19 +85,149 @@ public class Dispatcher {
 
     public void unregister(final Object object) {
         mBus.unregister(object);
+        if (isRouted()) {
+            unregisterRoutedStore(object);
+            if (mActionBus.isRegistered(object)) {
+                mActionBus.unregister(object);
+            }
+        }
     }
 
     public void dispatch(Action action) {
         AppLog.d(T.API, "Dispatching action: " + action.getType().getClass().getSimpleName()
                 + "-" + action.getType().toString());
-        post(action);
+        if (isRouted()) {
+            route(action);
+        } else {
+            post(action);
+        }
     }
 
     public void emitChange(final Object changeEvent) {
         mBus.post(changeEvent);
     }
 
+    public boolean isRouted() {
+        return !mRoutingTables.isEmpty();
+    }
+
     private void post(final Object event) {
         mBus.post(event);
     }
+
+    private void route(final Action action) {
+        List<RoutedStore> routedStores;
+        synchronized (mRoutedStores) {
+            routedStores = mRoutedStores.get(getActionTypeClass(action.getType()));
+        }
+        if (routedStores != null) {
+            for (final RoutedStore routedStore : routedStores) {
+                mExecutorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        routedStore.mStore.onAction(action);
+                    }
+                });
+            }
+        }
+        if (mActionBus.hasSubscriberForEvent(Action.class)) {
+            mActionBus.post(action);
+        }
+    }
+
+    /**
+     * Adds the store to the routes of every action type it handles, ordered by the priority of its
+     * {@link Subscribe}-annotated onAction.
+     *
+     * @return false if the store isn't in any routing table and must receive every action
+     */
+    private boolean registerRoutedStore(Store store) {
+        Subscribe subscribe = getOnActionSubscription(store);
+        if (subscribe == null || subscribe.threadMode() != ThreadMode.ASYNC) {
+            // Only ASYNC subscribers can be routed without changing the thread they're called on
+            return false;
+        }
+
+        List<Class<? extends IAction>> actionTypes = new ArrayList<>();
+        for (ActionRoutingTable routingTable : mRoutingTables) {
+            for (Entry<Class<? extends IAction>, List<Class<?>>> route : routingTable.getRoutes().entrySet()) {
+                for (Class<?> storeClass : route.getValue()) {
+                    if (storeClass.isInstance(store)) {
+                        actionTypes.add(route.getKey());
+                        break;
+                    }
+                }
+            }
+        }
+        if (actionTypes.isEmpty()) {
+            return false;
+        }
+
+        RoutedStore routedStore = new RoutedStore(store, subscribe.priority());
+        synchronized (mRoutedStores) {
+            for (Class<? extends IAction> actionType : actionTypes) {
+                // Copy on write, so that route() can iterate over the current list without holding the lock
+                List<RoutedStore> routedStores = mRoutedStores.get(actionType);
+                List<RoutedStore> newRoutedStores = routedStores == null
+                        ? new ArrayList<RoutedStore>() : new ArrayList<>(routedStores);
+                int position = 0;
+                while (position < newRoutedStores.size()
+                       && newRoutedStores.get(position).mPriority >= routedStore.mPriority) {
+                    position++;
+                }
+                newRoutedStores.add(position, routedStore);
+                mRoutedStores.put(actionType, Collections.unmodifiableList(newRoutedStores));
+            }
+        }
+        return true;
+    }
+
+    private void unregisterRoutedStore(Object object) {
+        synchronized (mRoutedStores) {
+            for (Entry<Class<?>, List<RoutedStore>> entry : mRoutedStores.entrySet()) {
+                List<RoutedStore> newRoutedStores = new ArrayList<>(entry.getValue());
+                for (int i = newRoutedStores.size() - 1; i >= 0; i--) {
+                    if (newRoutedStores.get(i).mStore == object) {
+                        newRoutedStores.remove(i);
+                    }
+                }
+                entry.setValue(Collections.unmodifiableList(newRoutedStores));
+            }
+        }
+    }
+
+    private static @Nullable Subscribe getOnActionSubscription(Store store) {
+        try {
+            Method onAction = store.getClass().getMethod("onAction", Action.class);
+            return onAction.getAnnotation(Subscribe.class);
+        } catch (NoSuchMethodException e) {
+            AppLog.e(T.API, "Unable to find onAction for " + store.getClass().getSimpleName());
+            return null;
+        }
+    }
+
+    private static Class<?> getActionTypeClass(IAction actionType) {
+        if (actionType instanceof Enum) {
+            return ((Enum) actionType).getDeclaringClass();
+        }
+        return actionType.getClass();
+    }
+
+    private static EventBusBuilder createEventBusBuilder(@Nullable ExecutorService executorService) {
+        EventBusBuilder builder = EventBus.builder().throwSubscriberException(true);
+        if (executorService != null) {
+            builder.executorService(executorService);
+        }
+        return builder;
+    }
+
+    private static class RoutedStore {
+        private final Store mStore;
+        private final int mPriority;
+
+        RoutedStore(Store store, int priority) {
+            mStore = store;
+            mPriority = priority;
+        }
+    }
 }
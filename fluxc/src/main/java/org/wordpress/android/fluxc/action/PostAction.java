@@ -5,6 +5,8 @@ import org.wordpress.android.fluxc.annotations.ActionEnum;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostStatusResponsePayload;
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsByRemoteIdsPayload;
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsByRemoteIdsResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.RemoteAutoSavePostPayload;
 import org.wordpress.android.fluxc.store.PostStore.DeletedPostPayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostListPayload;
@@ -27,6 +29,8 @@ public enum PostAction implements IAction {
     FETCH_PAGES,
     @Action(payloadType = RemotePostPayload.class)
     FETCH_POST,
+    @Action(payloadType = FetchPostsByRemoteIdsPayload.class)
+    FETCH_POSTS_BY_REMOTE_IDS,
     @Action(payloadType = RemotePostPayload.class)
     FETCH_POST_STATUS,
     @Action(payloadType = RemotePostPayload.class)
@@ -47,6 +51,8 @@ public enum PostAction implements IAction {
     FETCHED_POSTS,
     @Action(payloadType = FetchPostResponsePayload.class)
     FETCHED_POST,
+    @Action(payloadType = FetchPostsByRemoteIdsResponsePayload.class)
+    FETCHED_POSTS_BY_REMOTE_IDS,
     @Action(payloadType = FetchPostStatusResponsePayload.class)
     FETCHED_POST_STATUS,
     @Action(payloadType = RemotePostPayload.class)
@@ -8,6 +8,7 @@ sealed class CauseOfOnPostChanged {
     class RestorePost(val localPostId: Int, val remotePostId: Long) : CauseOfOnPostChanged()
     object FetchPages : CauseOfOnPostChanged()
     object FetchPosts : CauseOfOnPostChanged()
+    class FetchPostsByRemoteIds(val remotePostIds: List<Long>) : CauseOfOnPostChanged()
     object RemoveAllPosts : CauseOfOnPostChanged()
     class RemovePost(val localPostId: Int, val remotePostId: Long) : CauseOfOnPostChanged()
     class UpdatePost(val localPostId: Int, val remotePostId: Long) : CauseOfOnPostChanged()
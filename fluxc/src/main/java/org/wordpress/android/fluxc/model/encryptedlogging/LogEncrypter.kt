@@ -5,8 +5,16 @@ import com.goterl.lazycode.lazysodium.interfaces.SecretStream
 import com.goterl.lazycode.lazysodium.interfaces.SecretStream.State
 import com.goterl.lazycode.lazysodium.utils.Key
 import dagger.Reusable
+import okio.Buffer
+import okio.BufferedSink
+import okio.BufferedSource
+import okio.ByteString
 import javax.inject.Inject
 
+private const val CARRIAGE_RETURN: Byte = 13 // '\r'
+private const val LINE_FEED: Byte = 10 // '\n'
+private val LINE_SEPARATORS = ByteString.encodeUtf8("\r\n")
+
 data class EncryptedLoggingKey(val publicKey: Key)
 
 /**
@@ -23,21 +31,41 @@ class LogEncrypter @Inject constructor(private val encryptedLoggingKey: Encrypte
      * @param text Text contents to be encrypted
      * @param uuid Uuid for the encrypted log
      */
-    fun encrypt(text: String, uuid: String): String = buildString {
+    fun encrypt(text: String, uuid: String): String {
+        val encrypted = Buffer()
+        encrypt(Buffer().writeUtf8(text), uuid, encrypted)
+        return encrypted.readUtf8()
+    }
+
+    /**
+     * Encrypts the text read from [source] and writes it to [sink], in the same format as [encrypt]. It also adds the
+     * given [uuid] to its headers.
+     *
+     * The text is encrypted one line at a time, so only the current line is kept in memory.
+     *
+     * @param source Text contents to be encrypted
+     * @param uuid Uuid for the encrypted log
+     * @param sink Destination of the encrypted log
+     */
+    fun encrypt(source: BufferedSource, uuid: String, sink: BufferedSink) {
         val state = State.ByReference()
-        append(buildHeader(uuid, state))
-        val lines = text.lines()
-        lines.asSequence().mapIndexed { index, line ->
-            if (index + 1 >= lines.size) {
-                // If it's the last element
-                line
-            } else {
-                "$line\n"
+        sink.writeUtf8(buildHeader(uuid, state))
+        // Split lines like `String.lines()`: on "\r\n", "\n" or "\r", with a last (possibly empty) line after the last
+        // separator. Every line but the last is encrypted with a "\n" ending.
+        while (true) {
+            val separatorIndex = source.indexOfElement(LINE_SEPARATORS)
+            if (separatorIndex == -1L) {
+                sink.writeUtf8(buildMessage(source.readUtf8(), state))
+                break
+            }
+            val line = source.readUtf8(separatorIndex)
+            if (source.readByte() == CARRIAGE_RETURN && source.request(1) && source.buffer().getByte(0) == LINE_FEED) {
+                source.skip(1)
             }
-        }.forEach { line ->
-            append(buildMessage(line, state))
+            sink.writeUtf8(buildMessage("$line\n", state))
         }
-        append(buildFooter(state))
+        sink.writeUtf8(buildFooter(state))
+        sink.flush()
     }
 
     /**
@@ -0,0 +1,120 @@
+package org.wordpress.android.fluxc.model.list
+
+import kotlin.math.min
+
+/**
+ * A range of items inserted in or removed from a list, between two snapshots of its remote item ids.
+ *
+ * The changes of a list are applied in order, like `RecyclerView.Adapter.notifyItemRangeRemoved` and
+ * `notifyItemRangeInserted` would apply them.
+ */
+sealed class ListItemRangeChange {
+    abstract val position: Int
+    abstract val count: Int
+
+    data class Inserted(override val position: Int, override val count: Int) : ListItemRangeChange()
+    data class Removed(override val position: Int, override val count: Int) : ListItemRangeChange()
+
+    companion object {
+        /**
+         * Returns the changes that turn [oldIds] into [newIds]: the removed ranges from the last to the first, so that
+         * each position is still valid when it's applied, then the inserted ranges from the first to the last. Items
+         * that moved are removed and inserted again.
+         *
+         * The ids of each snapshot must be unique, like the remote item ids of a list. Only the ids between the common
+         * first and last items of both snapshots are compared, so appending a page or removing a few items is cheap.
+         */
+        fun calculate(oldIds: LongArray, newIds: LongArray): List<ListItemRangeChange> {
+            var start = 0
+            val minSize = min(oldIds.size, newIds.size)
+            while (start < minSize && oldIds[start] == newIds[start]) {
+                start++
+            }
+            var oldEnd = oldIds.size
+            var newEnd = newIds.size
+            while (oldEnd > start && newEnd > start && oldIds[oldEnd - 1] == newIds[newEnd - 1]) {
+                oldEnd--
+                newEnd--
+            }
+
+            val newPositions = HashMap<Long, Int>(newEnd - start)
+            for (position in start until newEnd) {
+                newPositions[newIds[position]] = position - start
+            }
+            // The new position of each old item in between, or -1 if it was removed
+            val movedTo = IntArray(oldEnd - start) { newPositions[oldIds[start + it]] ?: -1 }
+            val isKept = keepLongestIncreasingSequence(movedTo)
+
+            val changes = ArrayList<ListItemRangeChange>()
+            var last = movedTo.size - 1
+            while (last >= 0) {
+                if (isKept[last]) {
+                    last--
+                    continue
+                }
+                var first = last
+                while (first > 0 && !isKept[first - 1]) {
+                    first--
+                }
+                changes.add(Removed(start + first, last - first + 1))
+                last = first - 1
+            }
+
+            val isKeptInNew = BooleanArray(newEnd - start)
+            movedTo.forEachIndexed { index, position ->
+                if (isKept[index]) {
+                    isKeptInNew[position] = true
+                }
+            }
+            var first = 0
+            while (first < isKeptInNew.size) {
+                if (isKeptInNew[first]) {
+                    first++
+                    continue
+                }
+                var end = first + 1
+                while (end < isKeptInNew.size && !isKeptInNew[end]) {
+                    end++
+                }
+                changes.add(Inserted(start + first, end - first))
+                first = end
+            }
+            return changes
+        }
+
+        /**
+         * Returns which of the [positions] are part of their longest increasing sequence, ignoring negative positions.
+         * These items keep their order in both snapshots, all the others are removed or moved.
+         */
+        private fun keepLongestIncreasingSequence(positions: IntArray): BooleanArray {
+            // The index of the last item of the best sequence of each length, and of the item before each item
+            val tails = IntArray(positions.size)
+            val previous = IntArray(positions.size)
+            var length = 0
+            positions.forEachIndexed { index, position ->
+                if (position < 0) {
+                    return@forEachIndexed
+                }
+                var low = 0
+                var high = length
+                while (low < high) {
+                    val middle = (low + high) ushr 1
+                    if (positions[tails[middle]] < position) low = middle + 1 else high = middle
+                }
+                previous[index] = if (low > 0) tails[low - 1] else -1
+                tails[low] = index
+                if (low == length) {
+                    length++
+                }
+            }
+
+            val isKept = BooleanArray(positions.size)
+            var index = if (length > 0) tails[length - 1] else -1
+            while (index >= 0) {
+                isKept[index] = true
+                index = previous[index]
+            }
+            return isKept
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.wordpress.android.fluxc.model.list
 
 import androidx.paging.DataSource
+import androidx.paging.PagedList
 import androidx.paging.PositionalDataSource
 import org.wordpress.android.fluxc.model.list.datasource.InternalPagedListDataSource
 
@@ -25,13 +26,20 @@ class PagedListFactory<LIST_DESCRIPTOR : ListDescriptor, ITEM_IDENTIFIER, LIST_I
     }
 }
 
+/**
+ * The [InternalPagedListDataSource] this [PagedList] is loaded from, or `null` if it wasn't created by a
+ * [PagedListFactory].
+ */
+internal val PagedList<*>.internalDataSource: InternalPagedListDataSource<*, *, *>?
+    get() = (dataSource as? PagedListPositionalDataSource<*, *, *>)?.dataSource
+
 /**
  * A positional data source for [LIST_ITEM].
  *
  * @param dataSource Describes how to take certain actions such as fetching list for the item type [LIST_ITEM].
  */
 private class PagedListPositionalDataSource<LIST_DESCRIPTOR : ListDescriptor, ITEM_IDENTIFIER, LIST_ITEM>(
-    private val dataSource: InternalPagedListDataSource<LIST_DESCRIPTOR, ITEM_IDENTIFIER, LIST_ITEM>
+    val dataSource: InternalPagedListDataSource<LIST_DESCRIPTOR, ITEM_IDENTIFIER, LIST_ITEM>
 ) : PositionalDataSource<LIST_ITEM>() {
     override fun loadInitial(params: LoadInitialParams, callback: LoadInitialCallback<LIST_ITEM>) {
         val totalSize = dataSource.totalSize
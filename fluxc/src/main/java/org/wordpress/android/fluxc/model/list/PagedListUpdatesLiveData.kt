@@ -0,0 +1,122 @@
+package org.wordpress.android.fluxc.model.list
+
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.LiveData
+import androidx.lifecycle.MediatorLiveData
+import androidx.lifecycle.Observer
+import androidx.paging.PagedList
+import org.wordpress.android.fluxc.model.list.datasource.InternalPagedListDataSource
+
+/**
+ * A [PagedList] of a `ListStore` list and the ranges of items inserted in or removed from the previously delivered
+ * [PagedList] to get it.
+ *
+ * @property itemRangeChanges The changes to apply, in order, to the previously delivered [PagedList]. It's `null` when
+ * there is nothing to apply them to, such as for the first [PagedList], or when the changes weren't calculated; the
+ * whole list should be reloaded then.
+ */
+class PagedListUpdate<T>(val pagedList: PagedList<T>, val itemRangeChanges: List<ListItemRangeChange>?)
+
+/**
+ * Pairs each [PagedList] of [data] with the [ListItemRangeChange]s that lead to it.
+ *
+ * The changes are calculated on a background thread when the data source of a reload is created, and [record]ed
+ * against it before the [PagedList] loaded from it is posted. `postValue` may skip some [PagedList]s if the list is
+ * reloaded several times before the main thread runs, so each update holds the changes of all the data sources up to
+ * the one of its [PagedList], in order.
+ *
+ * Unlike a plain [LiveData], an observer doesn't receive the update that was delivered before it was added, as its
+ * changes describe a list it has never seen. For the same reason, the first update after all the observers are gone
+ * doesn't have any changes.
+ */
+internal class PagedListUpdatesLiveData<T>(data: LiveData<PagedList<T>>) : MediatorLiveData<PagedListUpdate<T>>() {
+    private val pendingChanges = ArrayList<Pair<InternalPagedListDataSource<*, *, *>, List<ListItemRangeChange>?>>()
+    private val observers = HashMap<Observer<in PagedListUpdate<T>>, Observer<in PagedListUpdate<T>>>()
+    private var lastDataSource: InternalPagedListDataSource<*, *, *>? = null
+    @Volatile private var isRecording = false
+
+    init {
+        addSource(data) { pagedList ->
+            pagedList?.let { onPagedListChanged(it) }
+        }
+    }
+
+    /**
+     * Records the [changes] that lead to the [PagedList]s loaded from [dataSource], or `null` if there are none to
+     * apply. Nothing is recorded while there are no observers, since the next update won't have any changes anyway.
+     */
+    fun record(dataSource: InternalPagedListDataSource<*, *, *>, changes: List<ListItemRangeChange>?) {
+        if (isRecording) {
+            synchronized(pendingChanges) {
+                pendingChanges.add(Pair(dataSource, changes))
+            }
+        }
+    }
+
+    override fun observe(owner: LifecycleOwner, observer: Observer<in PagedListUpdate<T>>) {
+        super.observe(owner, skipCurrentValue(observer))
+    }
+
+    override fun observeForever(observer: Observer<in PagedListUpdate<T>>) {
+        super.observeForever(skipCurrentValue(observer))
+    }
+
+    override fun removeObserver(observer: Observer<in PagedListUpdate<T>>) {
+        // LiveData removes the observers of a destroyed owner with the wrapper they were registered with
+        val wrapper = observers.remove(observer) ?: observer
+        observers.values.remove(wrapper)
+        super.removeObserver(wrapper)
+    }
+
+    override fun onActive() {
+        isRecording = true
+        super.onActive()
+    }
+
+    override fun onInactive() {
+        super.onInactive()
+        isRecording = false
+        lastDataSource = null
+        synchronized(pendingChanges) {
+            pendingChanges.clear()
+        }
+    }
+
+    private fun skipCurrentValue(observer: Observer<in PagedListUpdate<T>>): Observer<PagedListUpdate<T>> {
+        val currentValue = value
+        val wrapper = Observer<PagedListUpdate<T>> { update ->
+            if (update !== currentValue) {
+                observer.onChanged(update)
+            }
+        }
+        observers[observer] = wrapper
+        return wrapper
+    }
+
+    private fun onPagedListChanged(pagedList: PagedList<T>) {
+        val dataSource = pagedList.internalDataSource
+        // The same list is delivered again when this becomes active
+        if (dataSource != null && dataSource === lastDataSource) {
+            return
+        }
+        val changes = drainChangesUpTo(dataSource)
+        val itemRangeChanges = if (lastDataSource != null && changes != null && null !in changes) {
+            changes.flatMap { it.orEmpty() }
+        } else {
+            null
+        }
+        lastDataSource = dataSource
+        value = PagedListUpdate(pagedList, itemRangeChanges)
+    }
+
+    /**
+     * Removes the changes recorded up to [dataSource] and returns them, or returns `null` if they weren't recorded.
+     */
+    private fun drainChangesUpTo(dataSource: InternalPagedListDataSource<*, *, *>?) = synchronized(pendingChanges) {
+        val count = pendingChanges.indexOfFirst { it.first === dataSource } + 1
+        val drained = pendingChanges.subList(0, if (count > 0) count else pendingChanges.size)
+        val changes = drained.map { it.second }
+        drained.clear()
+        if (count > 0) changes else null
+    }
+}
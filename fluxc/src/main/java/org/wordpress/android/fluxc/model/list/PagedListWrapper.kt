@@ -30,6 +30,14 @@ import kotlin.coroutines.CoroutineContext
  * can be directly used in the UI.
  * @property listError A [LiveData] instance that tells whether the last fetch resulted in an error. It can be used
  * to either let the user know of each error or present the error in the empty view when it's visible.
+ * @property pagedListUpdates A [LiveData] instance that provides each [PagedList] of [data] with the ranges of items
+ * inserted in or removed from the previously delivered one. The ranges are only calculated if the list was requested
+ * with `emitItemRangeChanges`, and their positions match the [PagedList] as long as each remote item id is turned into
+ * one item identifier. An adapter that keeps its own list should swap in [PagedListUpdate.pagedList] and then apply
+ * [PagedListUpdate.itemRangeChanges] in order with `notifyItemRangeRemoved` and `notifyItemRangeInserted`, or reload
+ * everything when they're `null`. A `PagedListAdapter` should only `submitList` the [PagedList] and ignore the
+ * ranges: it already diffs the lists, so applying the ranges as well would apply the changes twice. An observer only
+ * receives the updates delivered after it was added, so it should start from the current list of [data].
  */
 class PagedListWrapper<T>(
     val data: LiveData<PagedList<T>>,
@@ -38,7 +46,8 @@ class PagedListWrapper<T>(
     private val lifecycle: Lifecycle,
     private val refresh: () -> Unit,
     private val invalidate: () -> Unit,
-    private val parentCoroutineContext: CoroutineContext
+    private val parentCoroutineContext: CoroutineContext,
+    val pagedListUpdates: LiveData<PagedListUpdate<T>> = MutableLiveData()
 ) : LifecycleObserver, CoroutineScope {
     private var job: Job = Job()
 
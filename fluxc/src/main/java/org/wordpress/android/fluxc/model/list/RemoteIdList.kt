@@ -0,0 +1,13 @@
+package org.wordpress.android.fluxc.model.list
+
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
+
+/**
+ * A read-only [RemoteId] view of a snapshot of remote item ids, that only creates the [RemoteId]s that are read.
+ */
+internal class RemoteIdList(private val remoteItemIds: LongArray) : AbstractList<RemoteId>(), RandomAccess {
+    override val size: Int
+        get() = remoteItemIds.size
+
+    override fun get(index: Int) = RemoteId(remoteItemIds[index])
+}
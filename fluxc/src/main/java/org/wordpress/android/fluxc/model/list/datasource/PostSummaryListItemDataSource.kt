@@ -0,0 +1,71 @@
+package org.wordpress.android.fluxc.model.list.datasource
+
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.generated.PostActionBuilder
+import org.wordpress.android.fluxc.model.LocalOrRemoteId
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.LocalId
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
+import org.wordpress.android.fluxc.model.list.PostListDescriptor
+import org.wordpress.android.fluxc.model.post.PostSummary
+import org.wordpress.android.fluxc.store.PostStore
+import org.wordpress.android.fluxc.store.PostStore.FetchPostListPayload
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsByRemoteIdsPayload
+
+/**
+ * A [ListItemDataSourceInterface] for post and page lists that only loads the [PostSummary] of the listed posts.
+ *
+ * The full [org.wordpress.android.fluxc.model.PostModel] should be loaded from the [PostStore] when a post is opened.
+ */
+abstract class PostSummaryListItemDataSource<ITEM_IDENTIFIER, LIST_ITEM>(
+    private val dispatcher: Dispatcher,
+    private val postStore: PostStore
+) : ListItemDataSourceInterface<PostListDescriptor, ITEM_IDENTIFIER, LIST_ITEM> {
+    /**
+     * Should return the post the given [ITEM_IDENTIFIER] stands for, or null if it isn't a post (e.g. a header).
+     */
+    abstract fun getPostId(itemIdentifier: ITEM_IDENTIFIER): LocalOrRemoteId?
+
+    /**
+     * Should create the [LIST_ITEM] for the given [ITEM_IDENTIFIER]. [postSummary] is null if the item isn't a post
+     * or if the post isn't in the database yet.
+     */
+    abstract fun createItem(
+        listDescriptor: PostListDescriptor,
+        itemIdentifier: ITEM_IDENTIFIER,
+        postSummary: PostSummary?
+    ): LIST_ITEM
+
+    override fun getItemsAndFetchIfNecessary(
+        listDescriptor: PostListDescriptor,
+        itemIdentifiers: List<ITEM_IDENTIFIER>
+    ): List<LIST_ITEM> {
+        val postIds = itemIdentifiers.map { getPostId(it) }
+        val postSummaries = postStore.getPostSummariesByLocalOrRemotePostIds(postIds.filterNotNull(),
+                listDescriptor.site)
+        val postSummariesByLocalId = postSummaries.associateBy { it.id }
+        val postSummariesByRemoteId = postSummaries.associateBy { it.remotePostId }
+
+        val missingRemotePostIds = postIds.filterIsInstance<RemoteId>()
+                .map { it.value }
+                .filterNot { postSummariesByRemoteId.containsKey(it) }
+        if (missingRemotePostIds.isNotEmpty()) {
+            val payload = FetchPostsByRemoteIdsPayload(listDescriptor.site, missingRemotePostIds,
+                    listDescriptor.statusList)
+            dispatcher.dispatch(PostActionBuilder.newFetchPostsByRemoteIdsAction(payload))
+        }
+
+        return itemIdentifiers.mapIndexed { index, itemIdentifier ->
+            val postSummary = when (val postId = postIds[index]) {
+                is LocalId -> postSummariesByLocalId[postId.value]
+                is RemoteId -> postSummariesByRemoteId[postId.value]
+                null -> null
+            }
+            createItem(listDescriptor, itemIdentifier, postSummary)
+        }
+    }
+
+    override fun fetchList(listDescriptor: PostListDescriptor, offset: Long) {
+        val fetchPostListPayload = FetchPostListPayload(listDescriptor, offset)
+        dispatcher.dispatch(PostActionBuilder.newFetchPostListAction(fetchPostListPayload))
+    }
+}
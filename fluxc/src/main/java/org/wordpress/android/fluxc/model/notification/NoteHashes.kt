@@ -0,0 +1,57 @@
+package org.wordpress.android.fluxc.model.notification
+
+/**
+ * Read-only map of remote note IDs to note hashes, backed by two primitive arrays sorted by remote note ID so that
+ * thousands of cached notifications can be compared without boxing every entry.
+ */
+class NoteHashes internal constructor(
+    private val remoteNoteIds: LongArray,
+    private val noteHashes: LongArray,
+    val size: Int
+) {
+    /**
+     * @return The position of [remoteNoteId] in this map, or a negative value if it's not in this map.
+     */
+    fun indexOfKey(remoteNoteId: Long) = remoteNoteIds.binarySearch(remoteNoteId, 0, size)
+
+    fun containsKey(remoteNoteId: Long) = indexOfKey(remoteNoteId) >= 0
+
+    /**
+     * @return The note hash of [remoteNoteId], or [defaultValue] if it's not in this map.
+     */
+    fun get(remoteNoteId: Long, defaultValue: Long): Long {
+        val index = indexOfKey(remoteNoteId)
+        return if (index >= 0) noteHashes[index] else defaultValue
+    }
+
+    fun keyAt(index: Int) = remoteNoteIds[index]
+
+    fun valueAt(index: Int) = noteHashes[index]
+
+    /**
+     * Collects remote note IDs and note hashes in ascending remote note ID order. When a remote note ID is added more
+     * than once, the last note hash wins.
+     */
+    class Builder(capacity: Int) {
+        private val remoteNoteIds = LongArray(capacity)
+        private val noteHashes = LongArray(capacity)
+        private var size = 0
+
+        fun add(remoteNoteId: Long, noteHash: Long): Builder {
+            if (size > 0) {
+                val lastRemoteNoteId = remoteNoteIds[size - 1]
+                require(remoteNoteId >= lastRemoteNoteId) { "Remote note IDs must be added in ascending order" }
+                if (remoteNoteId == lastRemoteNoteId) {
+                    noteHashes[size - 1] = noteHash
+                    return this
+                }
+            }
+            remoteNoteIds[size] = remoteNoteId
+            noteHashes[size] = noteHash
+            size++
+            return this
+        }
+
+        fun build() = NoteHashes(remoteNoteIds, noteHashes, size)
+    }
+}
@@ -61,10 +61,17 @@ public enum PostStatus {
     }
 
     public static synchronized PostStatus fromPost(PostImmutableModel post) {
-        String value = post.getStatus();
+        return fromStringAndDateCreated(post.getStatus(), post.getDateCreated());
+    }
+
+    public static synchronized PostStatus fromPostSummary(PostSummary summary) {
+        return fromStringAndDateCreated(summary.getStatus(), summary.getDateCreated());
+    }
+
+    private static PostStatus fromStringAndDateCreated(String value, String dateCreatedIso8601) {
         long dateCreatedGMT = 0;
 
-        Date dateCreated = DateTimeUtils.dateUTCFromIso8601(post.getDateCreated());
+        Date dateCreated = DateTimeUtils.dateUTCFromIso8601(dateCreatedIso8601);
         if (dateCreated != null) {
             dateCreatedGMT = dateCreated.getTime();
         }
@@ -0,0 +1,31 @@
+package org.wordpress.android.fluxc.model.post
+
+/**
+ * The columns of a stored post or page that post and page lists show.
+ *
+ * Loading summaries instead of [org.wordpress.android.fluxc.model.PostModel]s leaves the content, custom fields and
+ * autosave columns in the database until the post is opened.
+ */
+data class PostSummary(
+    val id: Int,
+    val localSiteId: Int,
+    val remotePostId: Long,
+    val title: String,
+    val status: String,
+    val password: String,
+    val authorDisplayName: String?,
+    val dateCreated: String, // ISO 8601-formatted date in UTC, e.g. 1955-11-05T14:15:00Z
+    val lastModified: String, // ISO 8601-formatted date in UTC, e.g. 1955-11-05T14:15:00Z
+    val dateLocallyChanged: String, // ISO 8601-formatted date in UTC, e.g. 1955-11-05T14:15:00Z
+    val featuredImageId: Long,
+    val isPage: Boolean,
+    val parentId: Long,
+    val parentTitle: String,
+    val isLocalDraft: Boolean,
+    val isLocallyChanged: Boolean
+) {
+    val postStatus: PostStatus
+        get() = PostStatus.fromPostSummary(this)
+
+    fun hasFeaturedImage() = featuredImageId > 0
+}
@@ -2,7 +2,6 @@ package org.wordpress.android.fluxc.network;
 
 import android.net.Uri;
 import android.net.Uri.Builder;
-import android.util.Base64;
 
 import androidx.annotation.NonNull;
 
@@ -198,10 +197,8 @@ public abstract class BaseRequest<T> extends Request<T> {
     }
 
     public void setHTTPAuthHeaderOnMatchingURL(HTTPAuthManager httpAuthManager) {
-        HTTPAuthModel httpAuthModel = httpAuthManager.getHTTPAuthModel(getUrl());
-        if (httpAuthModel != null) {
-            String creds = String.format("%s:%s", httpAuthModel.getUsername(), httpAuthModel.getPassword());
-            String auth = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
+        String auth = httpAuthManager.getHTTPAuthHeader(getUrl());
+        if (auth != null) {
             mHeaders.put("Authorization", auth);
         }
     }
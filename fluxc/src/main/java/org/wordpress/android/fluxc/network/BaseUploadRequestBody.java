@@ -106,9 +106,10 @@ public abstract class BaseUploadRequestBody extends RequestBody {
             super.write(source, byteCount);
             mBytesWritten += byteCount;
             long currentTimeMillis = System.currentTimeMillis();
-            // Call the mListener.onProgress callback at maximum every 100ms.
+            // Call the mListener.onProgress callback at maximum every 100ms, and always once the whole body is written
+            // so that the progress doesn't stop short of its final value.
             if ((currentTimeMillis - mLastTimeOnProgressCalled) > ON_PROGRESS_THROTTLE_RATE
-                || mLastTimeOnProgressCalled == 0) {
+                || mLastTimeOnProgressCalled == 0 || mBytesWritten == contentLength()) {
                 mLastTimeOnProgressCalled = currentTimeMillis;
                 mListener.onProgress(mMedia, getProgress(mBytesWritten));
             }
@@ -0,0 +1,91 @@
+package org.wordpress.android.fluxc.network;
+
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable prefix tree of the stored HTTP auth credentials, keyed on their root URL, and on their root URL with the
+ * ending 'xmlrpc.php' (or other name) stripped.
+ *
+ * A lookup walks the tree along the requested URL once, instead of comparing the URL against every credential.
+ * When several credentials match, the first one in the given list wins, like it did when they were compared in turn.
+ */
+class HTTPAuthIndex {
+    static final HTTPAuthIndex EMPTY = new HTTPAuthIndex(Collections.<HTTPAuthModel>emptyList());
+
+    private final Node mRoot = new Node();
+
+    HTTPAuthIndex(@NonNull List<HTTPAuthModel> authModels) {
+        for (int i = 0; i < authModels.size(); i++) {
+            HTTPAuthModel authModel = authModels.get(i);
+            if (authModel.getRootUrl() == null) {
+                continue;
+            }
+            Entry entry = new Entry(i, authModel);
+            put(authModel.getRootUrl(), entry);
+            put(authModel.getRootUrl().replaceFirst("/[^/]*?.php$", ""), entry);
+        }
+    }
+
+    /**
+     * @return the credentials whose root URL is a prefix of the given URL, or null if there is none
+     */
+    @Nullable
+    Entry get(@NonNull String url) {
+        Entry match = mRoot.mEntry;
+        Node node = mRoot;
+        for (int i = 0; i < url.length(); i++) {
+            node = node.mChildren != null ? node.mChildren.get(url.charAt(i)) : null;
+            if (node == null) {
+                break;
+            }
+            if (node.mEntry != null && (match == null || node.mEntry.mOrder < match.mOrder)) {
+                match = node.mEntry;
+            }
+        }
+        return match;
+    }
+
+    private void put(String key, Entry entry) {
+        Node node = mRoot;
+        for (int i = 0; i < key.length(); i++) {
+            if (node.mChildren == null) {
+                node.mChildren = new HashMap<>();
+            }
+            Node child = node.mChildren.get(key.charAt(i));
+            if (child == null) {
+                child = new Node();
+                node.mChildren.put(key.charAt(i), child);
+            }
+            node = child;
+        }
+        if (node.mEntry == null || entry.mOrder < node.mEntry.mOrder) {
+            node.mEntry = entry;
+        }
+    }
+
+    static class Entry {
+        final int mOrder;
+        final HTTPAuthModel mAuthModel;
+        final String mAuthorizationHeader;
+
+        Entry(int order, HTTPAuthModel authModel) {
+            mOrder = order;
+            mAuthModel = authModel;
+            String creds = String.format("%s:%s", authModel.getUsername(), authModel.getPassword());
+            mAuthorizationHeader = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
+        }
+    }
+
+    private static class Node {
+        private Map<Character, Node> mChildren;
+        private Entry mEntry;
+    }
+}
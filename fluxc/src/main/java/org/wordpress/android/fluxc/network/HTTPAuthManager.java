@@ -6,38 +6,47 @@ import androidx.annotation.Nullable;
 import com.yarolegovich.wellsql.WellSql;
 
 import org.wordpress.android.fluxc.persistence.HTTPAuthSqlUtils;
+import org.wordpress.android.fluxc.persistence.WellSqlConfig;
 
 import java.net.URI;
 import java.util.List;
 
 public class HTTPAuthManager {
-    public HTTPAuthManager() {}
+    // Credentials are loaded once from the database, and reloaded after they're changed through this class
+    private volatile HTTPAuthIndex mIndex;
+
+    // Resetting the database drops the stored credentials, they must not be sent anymore
+    private final WellSqlConfig.OnResetListener mResetListener = new WellSqlConfig.OnResetListener() {
+        @Override
+        public void onReset() {
+            invalidateIndex();
+        }
+    };
+
+    public HTTPAuthManager() {
+        WellSqlConfig.addOnResetListener(mResetListener);
+    }
 
     /**
      * Get an HTTPAuthModel containing username and password for the url parameter
-     * TODO: Use an in memory model (or caching) - because this SQL query is executed every time a request is sent
      *
      * @param url to test
      * @return null if url is not matching any known HTTP auth credentials
      */
     @Nullable
     public HTTPAuthModel getHTTPAuthModel(String url) {
-        List<HTTPAuthModel> authModels = WellSql.select(HTTPAuthModel.class).getAsModel();
-        if (authModels.isEmpty()) {
-            return null;
-        }
-        for (HTTPAuthModel authModel : authModels) {
-            if (url.startsWith(authModel.getRootUrl())) {
-                return authModel;
-            }
+        HTTPAuthIndex.Entry entry = getIndex().get(url);
+        return entry != null ? entry.mAuthModel : null;
+    }
 
-            // Also compare against the stored URL with the ending 'xmlrpc.php' (or other name) stripped
-            String xmlrpcStripped = authModel.getRootUrl().replaceFirst("/[^/]*?.php$", "");
-            if (url.startsWith(xmlrpcStripped)) {
-                return authModel;
-            }
-        }
-        return null;
+    /**
+     * @return the value of the Basic Authorization header for the url parameter, or null if url is not matching any
+     * known HTTP auth credentials
+     */
+    @Nullable
+    public String getHTTPAuthHeader(String url) {
+        HTTPAuthIndex.Entry entry = getIndex().get(url);
+        return entry != null ? entry.mAuthorizationHeader : null;
     }
 
     public void addHTTPAuthCredentials(@NonNull String username, @NonNull String password,
@@ -49,6 +58,45 @@ public class HTTPAuthManager {
         httpAuthModel.setRealm(realm);
         // Replace old username / password / realm - URL used as key
         HTTPAuthSqlUtils.insertOrUpdateModel(httpAuthModel);
+        invalidateIndex();
+    }
+
+    public void deleteHTTPAuthCredentials(@NonNull String url) {
+        HTTPAuthSqlUtils.deleteModel(normalizeURL(url));
+        invalidateIndex();
+    }
+
+    public void deleteAllHTTPAuthCredentials() {
+        HTTPAuthSqlUtils.deleteAllModels();
+        invalidateIndex();
+    }
+
+    /**
+     * Drops the in-memory credentials, to be called if the HTTPAuthModel table is changed without using this class
+     * (resetting the database through {@link WellSqlConfig} already does).
+     *
+     * This takes the lock the index is loaded under: an index read from the table before the change can't be
+     * published after it was dropped.
+     */
+    public void invalidateIndex() {
+        synchronized (this) {
+            mIndex = null;
+        }
+    }
+
+    private HTTPAuthIndex getIndex() {
+        HTTPAuthIndex index = mIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = mIndex;
+                if (index == null) {
+                    List<HTTPAuthModel> authModels = WellSql.select(HTTPAuthModel.class).getAsModel();
+                    index = authModels.isEmpty() ? HTTPAuthIndex.EMPTY : new HTTPAuthIndex(authModels);
+                    mIndex = index;
+                }
+            }
+        }
+        return index;
     }
 
     private String normalizeURL(String url) {
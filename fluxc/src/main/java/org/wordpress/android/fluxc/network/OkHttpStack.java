@@ -15,6 +15,8 @@ import org.apache.http.message.BasicStatusLine;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
@@ -31,22 +33,22 @@ import okhttp3.ResponseBody;
  *
  * OkHttp backed {@link HttpStack HttpStack} that does not
  * use okhttp-urlconnection
+ *
+ * A single {@link OkHttpClient} is built for the stack, and a derived client is cached for each timeout profile
+ * (e.g. {@link BaseRequest#DEFAULT_REQUEST_TIMEOUT} and {@link BaseRequest#UPLOAD_REQUEST_READ_TIMEOUT}), so that
+ * all requests of the queue share the same connection pool and dispatcher.
  */
 public class OkHttpStack implements HttpStack {
-    private final OkHttpClient.Builder mClientBuilder;
+    private final OkHttpClient mBaseClient;
+    private final ConcurrentMap<Integer, OkHttpClient> mClientsByTimeout = new ConcurrentHashMap<>();
 
     public OkHttpStack(OkHttpClient.Builder clientBuilder) {
-        this.mClientBuilder = clientBuilder;
+        mBaseClient = clientBuilder.build();
     }
 
     @Override
     public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders)
             throws IOException, AuthFailureError {
-        int timeoutMs = request.getTimeoutMs();
-        mClientBuilder.connectTimeout(timeoutMs, TimeUnit.MILLISECONDS);
-        mClientBuilder.readTimeout(timeoutMs, TimeUnit.MILLISECONDS);
-        mClientBuilder.writeTimeout(timeoutMs, TimeUnit.MILLISECONDS);
-
         Builder okHttpRequestBuilder = new okhttp3.Request.Builder();
         okHttpRequestBuilder.url(request.getUrl());
 
@@ -60,7 +62,7 @@ public class OkHttpStack implements HttpStack {
 
         setConnectionParametersForRequest(okHttpRequestBuilder, request);
 
-        OkHttpClient client = mClientBuilder.build();
+        OkHttpClient client = getClient(request.getTimeoutMs());
         okhttp3.Request okHttpRequest = okHttpRequestBuilder.build();
         Call okHttpCall = client.newCall(okHttpRequest);
         okhttp3.Response okHttpResponse = okHttpCall.execute();
@@ -81,6 +83,27 @@ public class OkHttpStack implements HttpStack {
         return response;
     }
 
+    /**
+     * Returns the client to use for the given timeout. Clients are derived from the same base client, and share its
+     * connection pool, dispatcher and cookie jar.
+     */
+    OkHttpClient getClient(int timeoutMs) {
+        OkHttpClient client = mClientsByTimeout.get(timeoutMs);
+        if (client == null) {
+            client = mBaseClient.newBuilder()
+                    .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .build();
+            // Concurrent requests might build the same client, keep the first one
+            OkHttpClient previousClient = mClientsByTimeout.putIfAbsent(timeoutMs, client);
+            if (previousClient != null) {
+                client = previousClient;
+            }
+        }
+        return client;
+    }
+
     private static HttpEntity entityFromOkHttpResponse(okhttp3.Response r) throws IOException {
         BasicHttpEntity entity = new BasicHttpEntity();
         ResponseBody body = r.body();
@@ -30,7 +30,11 @@ public class DiscoveryWPAPIRestClient extends BaseWPAPIRestClient {
         add(request);
         try {
             return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | TimeoutException e) {
+        } catch (InterruptedException e) {
+            // The discovery doesn't need this response anymore
+            request.cancel();
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get HEAD response from server.");
         } catch (ExecutionException e) {
             // TODO: Add support for HTTP AUTH and self-signed SSL WP-API sites
@@ -61,7 +65,11 @@ public class DiscoveryWPAPIRestClient extends BaseWPAPIRestClient {
                 // TODO: Extract response.authentication and float it up
                 return wpApiBaseUrl;
             }
-        } catch (InterruptedException | TimeoutException e) {
+        } catch (InterruptedException e) {
+            // The discovery doesn't need this response anymore
+            request.cancel();
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get response from root endpoint.");
         } catch (ExecutionException e) {
             // TODO: Add support for HTTP AUTH and self-signed SSL WP-API sites
@@ -44,7 +44,11 @@ public class DiscoveryXMLRPCClient extends BaseXMLRPCClient {
 
         try {
             return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | TimeoutException e) {
+        } catch (InterruptedException e) {
+            // The discovery doesn't need this response anymore
+            request.cancel();
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get XML-RPC response");
         } catch (ExecutionException e) {
             if (e.getCause() instanceof AuthFailureError) {
@@ -85,7 +89,11 @@ public class DiscoveryXMLRPCClient extends BaseXMLRPCClient {
 
         try {
             return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | TimeoutException e) {
+        } catch (InterruptedException e) {
+            // The discovery doesn't need this response anymore
+            request.cancel();
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get XML-RPC response.");
         } catch (ExecutionException e) {
             if (e.getCause() instanceof AuthFailureError) {
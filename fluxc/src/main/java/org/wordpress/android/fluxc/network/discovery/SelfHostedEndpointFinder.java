@@ -4,6 +4,7 @@ import android.text.TextUtils;
 import android.webkit.URLUtil;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.wordpress.android.fluxc.BuildConfig;
 import org.wordpress.android.fluxc.Dispatcher;
@@ -15,8 +16,15 @@ import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.UrlUtils;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,6 +34,7 @@ public class SelfHostedEndpointFinder {
     private final Dispatcher mDispatcher;
     private final DiscoveryXMLRPCClient mDiscoveryXMLRPCClient;
     private final DiscoveryWPAPIRestClient mDiscoveryWPAPIRestClient;
+    private final ExecutorService mExecutorService;
 
     public enum DiscoveryError implements OnChangedError {
         INVALID_URL,
@@ -69,25 +78,48 @@ public class SelfHostedEndpointFinder {
 
     public SelfHostedEndpointFinder(Dispatcher dispatcher, DiscoveryXMLRPCClient discoveryXMLRPCClient,
                                     DiscoveryWPAPIRestClient discoveryWPAPIRestClient) {
+        this(dispatcher, discoveryXMLRPCClient, discoveryWPAPIRestClient, null);
+    }
+
+    /**
+     * @param executorService runs the discovery and its probes, it must be able to run several tasks at once
+     *                        (a cached thread pool is used by default)
+     */
+    public SelfHostedEndpointFinder(Dispatcher dispatcher, DiscoveryXMLRPCClient discoveryXMLRPCClient,
+                                    DiscoveryWPAPIRestClient discoveryWPAPIRestClient,
+                                    @Nullable ExecutorService executorService) {
         mDispatcher = dispatcher;
         mDiscoveryXMLRPCClient = discoveryXMLRPCClient;
         mDiscoveryWPAPIRestClient = discoveryWPAPIRestClient;
+        mExecutorService = executorService != null ? executorService : Executors.newCachedThreadPool();
     }
 
     public void findEndpoint(final String url) {
-        new Thread(new Runnable() {
+        mExecutorService.execute(new Runnable() {
             @Override
             public void run() {
+                // The WP-API discovery runs alongside the XML-RPC discovery
+                Future<String> wpRestEndpointFuture = null;
                 try {
-                    String wpRestEndpoint = "";
                     if (BuildConfig.ENABLE_WPAPI) {
-                        wpRestEndpoint = discoverWPRESTEndpoint(url);
+                        wpRestEndpointFuture = mExecutorService.submit(new Callable<String>() {
+                            @Override
+                            public String call() throws DiscoveryException {
+                                return discoverWPRESTEndpoint(url);
+                            }
+                        });
                     }
-                    // TODO: Eventually make the XML-RPC discovery only run if WP-API discovery fails
                     String xmlRpcEndpoint = verifyOrDiscoverXMLRPCEndpoint(url);
+                    String wpRestEndpoint = "";
+                    if (wpRestEndpointFuture != null) {
+                        wpRestEndpoint = getProbeResult(wpRestEndpointFuture, url);
+                    }
                     DiscoveryResultPayload payload = new DiscoveryResultPayload(xmlRpcEndpoint, wpRestEndpoint);
                     mDispatcher.dispatch(AuthenticationActionBuilder.newDiscoveryResultAction(payload));
                 } catch (DiscoveryException e) {
+                    if (wpRestEndpointFuture != null) {
+                        wpRestEndpointFuture.cancel(true);
+                    }
                     // TODO: Handle tracking of XMLRPCDiscoveryException
                     // If a DiscoveryException is caught this high up, it means that either:
                     // 1. The discovery process has completed, and did not turn up a valid WordPress.com site
@@ -97,7 +129,7 @@ public class SelfHostedEndpointFinder {
                     mDispatcher.dispatch(AuthenticationActionBuilder.newDiscoveryResultAction(payload));
                 }
             }
-        }).start();
+        });
     }
 
     private String verifyOrDiscoverXMLRPCEndpoint(final String siteUrl) throws DiscoveryException {
@@ -156,35 +188,77 @@ public class SelfHostedEndpointFinder {
         return urlsToTry;
     }
 
+    /**
+     * Calls system.listMethods on all the URLs to try at once, rather than waiting for each URL to fail before trying
+     * the next one. The results are still looked at in order: a URL wins once it's verified and all the URLs before it
+     * have failed, and the calls to the URLs after it are cancelled.
+     */
     private String verifyXMLRPCUrl(@NonNull final String siteUrl) throws DiscoveryException {
         // Ordered set of Strings that contains the URLs we want to try
         final LinkedHashSet<String> urlsToTry = getOrderedVerifyUrlsToTry(siteUrl);
 
         AppLog.i(T.NUX, "Calling system.listMethods on the following URLs: " + urlsToTry);
-        for (String url : urlsToTry) {
-            try {
-                if (checkXMLRPCEndpointValidity(url)) {
-                    // Endpoint found and works fine.
-                    return url;
+        List<Future<Boolean>> probes = new ArrayList<>(urlsToTry.size());
+        for (final String url : urlsToTry) {
+            probes.add(mExecutorService.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws DiscoveryException {
+                    return checkXMLRPCEndpointValidity(url);
                 }
-            } catch (DiscoveryException e) {
-                // Stop execution for errors requiring user interaction
-                if (e.discoveryError == DiscoveryError.ERRONEOUS_SSL_CERTIFICATE
-                    || e.discoveryError == DiscoveryError.HTTP_AUTH_REQUIRED
-                    || e.discoveryError == DiscoveryError.MISSING_XMLRPC_METHOD
-                    || e.discoveryError == DiscoveryError.XMLRPC_BLOCKED) {
-                    throw e;
+            }));
+        }
+        try {
+            int index = 0;
+            for (String url : urlsToTry) {
+                try {
+                    if (getProbeResult(probes.get(index++), url)) {
+                        // Endpoint found and works fine.
+                        return url;
+                    }
+                } catch (DiscoveryException e) {
+                    // Stop execution for errors requiring user interaction
+                    if (e.discoveryError == DiscoveryError.ERRONEOUS_SSL_CERTIFICATE
+                        || e.discoveryError == DiscoveryError.HTTP_AUTH_REQUIRED
+                        || e.discoveryError == DiscoveryError.MISSING_XMLRPC_METHOD
+                        || e.discoveryError == DiscoveryError.XMLRPC_BLOCKED) {
+                        throw e;
+                    }
+                    // Otherwise. swallow the error since we are just verifying various URLs
+                } catch (RuntimeException re) {
+                    // Depending how corrupt the user entered URL is, it can generate several kinds of runtime
+                    // exceptions, ignore them
                 }
-                // Otherwise. swallow the error since we are just verifying various URLs
-            } catch (RuntimeException re) {
-                // Depending how corrupt the user entered URL is, it can generate several kinds of runtime exceptions,
-                // ignore them
+            }
+        } finally {
+            // Cancel the calls we don't need anymore, this has no effect on the ones that already completed
+            for (Future<Boolean> probe : probes) {
+                probe.cancel(true);
             }
         }
         // Input url was not verified to be working
         return null;
     }
 
+    /**
+     * Waits for the given probe, and rethrows the {@link DiscoveryException} or {@link RuntimeException} it failed
+     * with, if any.
+     */
+    private static <T> T getProbeResult(Future<T> probe, String url) throws DiscoveryException {
+        try {
+            return probe.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DiscoveryException) {
+                throw (DiscoveryException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DiscoveryException(DiscoveryError.GENERIC_ERROR, url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DiscoveryException(DiscoveryError.GENERIC_ERROR, url);
+        }
+    }
+
     // Attempts to retrieve the XML-RPC url for a self-hosted site.
     // See diagrams here https://github.com/wordpress-mobile/WordPress-Android/issues/3805 for details about the
     // whole process.
@@ -0,0 +1,65 @@
+package org.wordpress.android.fluxc.network.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+
+/**
+ * Holds the {@link Gson} instances shared by every {@link GsonRequest}.
+ *
+ * Gson caches the type adapters it creates for each class, so sharing a single instance avoids rebuilding the
+ * reflective adapters for every request. Requests are mostly built statically, so the registry is available through
+ * {@link #getDefault()}, and is also provided for injection by the network module.
+ */
+public class GsonRegistry {
+    private static final GsonRegistry DEFAULT_REGISTRY = new GsonRegistry();
+
+    private final Gson mGson;
+    private final Gson mPlainGson;
+
+    GsonRegistry() {
+        mGson = createGsonBuilder().create();
+        mPlainGson = new Gson();
+    }
+
+    public static GsonRegistry getDefault() {
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * @return the lenient {@link Gson} instance used to parse API responses, with the {@link JsonObjectOrFalse} and
+     * {@link JsonObjectOrEmptyArray} adapters registered
+     */
+    public Gson getGson() {
+        return mGson;
+    }
+
+    /**
+     * @return a {@link Gson} instance with no custom adapter, used by the {@link JsonObjectOrFalse} and
+     * {@link JsonObjectOrEmptyArray} deserializers to parse the wrapped object without recursing into themselves
+     */
+    Gson getPlainGson() {
+        return mPlainGson;
+    }
+
+    /**
+     * Creates the type adapters for the given response types ahead of time, so that the first request parsing them
+     * doesn't pay for the reflection. Should be called off the main thread.
+     */
+    public void prewarm(Type... types) {
+        for (Type type : types) {
+            mGson.getAdapter(TypeToken.get(type));
+        }
+    }
+
+    private static GsonBuilder createGsonBuilder() {
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        gsonBuilder.setLenient();
+        gsonBuilder.registerTypeHierarchyAdapter(JsonObjectOrFalse.class, new JsonObjectOrFalseDeserializer());
+        gsonBuilder.registerTypeHierarchyAdapter(JsonObjectOrEmptyArray.class,
+                new JsonObjectOrEmptyArrayDeserializer());
+        return gsonBuilder;
+    }
+}
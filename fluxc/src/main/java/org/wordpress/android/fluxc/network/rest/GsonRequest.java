@@ -7,13 +7,14 @@ import com.android.volley.Response;
 import com.android.volley.Response.Listener;
 import com.android.volley.toolbox.HttpHeaderParser;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 
 import org.jetbrains.annotations.Nullable;
 import org.wordpress.android.fluxc.network.BaseRequest;
 
-import java.io.UnsupportedEncodingException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.HashMap;
@@ -43,7 +44,7 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
         mClass = clazz;
         mType = type;
         mListener = listener;
-        mGson = setupGsonBuilder().create();
+        mGson = GsonRegistry.getDefault().getGson();
         mParams = params;
         mBody = body;
     }
@@ -83,28 +84,26 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
 
     @Override
     protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        Charset charset;
+        try {
+            charset = Charset.forName(HttpHeaderParser.parseCharset(response.headers));
+        } catch (IllegalArgumentException e) {
+            // Unsupported or illegal charset name
+            return Response.error(new ParseError(e));
+        }
+
+        // Decode the response bytes as they're parsed, rather than copying the whole body into a String first
+        Reader reader = new InputStreamReader(new ByteArrayInputStream(response.data), charset);
         try {
-            String json = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
             T res;
             if (mClass == null) {
-                res = mGson.fromJson(json, mType);
+                res = mGson.fromJson(reader, mType);
             } else {
-                res = mGson.fromJson(json, mClass);
+                res = mGson.fromJson(reader, mClass);
             }
             return Response.success(res, createCacheEntry(response));
-        } catch (UnsupportedEncodingException e) {
-            return Response.error(new ParseError(e));
-        } catch (JsonSyntaxException e) {
+        } catch (JsonParseException e) {
             return Response.error(new ParseError(e));
         }
     }
-
-    private GsonBuilder setupGsonBuilder() {
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.setLenient();
-        gsonBuilder.registerTypeHierarchyAdapter(JsonObjectOrFalse.class, new JsonObjectOrFalseDeserializer());
-        gsonBuilder.registerTypeHierarchyAdapter(JsonObjectOrEmptyArray.class,
-                new JsonObjectOrEmptyArrayDeserializer());
-        return gsonBuilder;
-    }
 }
@@ -0,0 +1,41 @@
+package org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog
+
+import okhttp3.MediaType
+import okhttp3.RequestBody
+import okio.BufferedSink
+import okio.Okio
+import org.wordpress.android.fluxc.model.encryptedlogging.LogEncrypter
+import java.io.File
+import java.io.IOException
+
+private const val CONTENT_TYPE_JSON = "application/json"
+
+/**
+ * Request body encrypting the given log [file] while it's being uploaded: the file is read and encrypted one line at a
+ * time, and each encrypted line is written to the request right away, so the log is never held in memory as a whole.
+ *
+ * A new key is generated every time the body is written, e.g. when OkHttp retries the request.
+ */
+class EncryptedLogUploadRequestBody(
+    private val file: File,
+    private val uuid: String,
+    private val logEncrypter: LogEncrypter
+) : RequestBody() {
+    override fun contentType(): MediaType? = MediaType.parse(CONTENT_TYPE_JSON)
+
+    override fun writeTo(sink: BufferedSink) {
+        Okio.buffer(Okio.source(file)).use { source ->
+            try {
+                logEncrypter.encrypt(source, uuid, sink)
+            } catch (e: UnsatisfiedLinkError) {
+                // The body is written on an OkHttp thread, fail the call rather than that thread
+                throw EncryptionUnavailableException(e)
+            }
+        }
+    }
+
+    /**
+     * Thrown when the native encryption library couldn't be loaded.
+     */
+    class EncryptionUnavailableException(cause: Throwable) : IOException(cause)
+}
@@ -1,9 +1,9 @@
 package org.wordpress.android.fluxc.network.rest.wpcom.jetpacktunnel
 
 import com.android.volley.Response
-import com.google.gson.Gson
 import com.google.gson.reflect.TypeToken
 import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST
+import org.wordpress.android.fluxc.network.rest.GsonRegistry
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener
 import java.lang.reflect.Type
@@ -87,7 +87,7 @@ import java.net.URLEncoder
  *
  */
 object JetpackTunnelGsonRequest {
-    private val gson by lazy { Gson() }
+    private val gson by lazy { GsonRegistry.getDefault().gson }
 
     /**
      * Creates a new GET request to the given WP-API endpoint, calling it via the WP.com Jetpack WP-API tunnel.
@@ -45,6 +45,7 @@ import org.wordpress.android.fluxc.store.PostStore.DeletedPostPayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostListResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostStatusResponsePayload;
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsByRemoteIdsResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostsResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchRevisionsResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.PostDeleteActionType;
@@ -108,6 +109,45 @@ public class PostRestClient extends BaseWPComRestClient {
         add(request);
     }
 
+    /**
+     * Fetches the given posts with a single request, posts that can't be found are left out of the response.
+     */
+    public void fetchPostsByRemoteIds(final SiteModel site, final List<Long> remotePostIds,
+                                      final List<PostStatus> statusList) {
+        String url = WPCOMREST.sites.site(site.getSiteId()).posts.getUrlV1_1();
+
+        Map<String, String> params = createFetchPostListParameters(false, 0, remotePostIds.size(), statusList, null,
+                null, null, null, null);
+        params.put("include", TextUtils.join(",", remotePostIds));
+
+        final WPComGsonRequest<PostsResponse> request = WPComGsonRequest.buildGetRequest(url, params,
+                PostsResponse.class,
+                new Listener<PostsResponse>() {
+                    @Override
+                    public void onResponse(PostsResponse response) {
+                        List<PostModel> posts = new ArrayList<>(response.getPosts().size());
+                        for (PostWPComRestResponse postResponse : response.getPosts()) {
+                            PostModel post = postResponseToPostModel(postResponse);
+                            post.setLocalSiteId(site.getId());
+                            posts.add(post);
+                        }
+                        FetchPostsByRemoteIdsResponsePayload payload =
+                                new FetchPostsByRemoteIdsResponsePayload(site, remotePostIds, posts);
+                        mDispatcher.dispatch(PostActionBuilder.newFetchedPostsByRemoteIdsAction(payload));
+                    }
+                },
+                new WPComErrorListener() {
+                    @Override
+                    public void onErrorResponse(@NonNull WPComGsonNetworkError error) {
+                        PostError postError = new PostError(error.apiError, error.message);
+                        FetchPostsByRemoteIdsResponsePayload payload =
+                                new FetchPostsByRemoteIdsResponsePayload(site, remotePostIds, postError);
+                        mDispatcher.dispatch(PostActionBuilder.newFetchedPostsByRemoteIdsAction(payload));
+                    }
+                });
+        add(request);
+    }
+
     public void fetchPostStatus(final PostModel post, final SiteModel site) {
         String url = WPCOMREST.sites.site(site.getSiteId()).posts.post(post.getRemotePostId()).getUrlV1_1();
 
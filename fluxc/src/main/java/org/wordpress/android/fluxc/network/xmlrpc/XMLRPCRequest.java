@@ -22,9 +22,7 @@ import org.wordpress.android.util.AppLog.T;
 import org.xmlpull.v1.XmlPullParserException;
 import org.xmlpull.v1.XmlSerializer;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
@@ -57,15 +55,19 @@ public class XMLRPCRequest extends BaseRequest<Object> {
 
     @Override
     protected Response<Object> parseNetworkResponse(NetworkResponse response) {
+        Charset charset;
         try {
-            String data = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
-            InputStream is = new ByteArrayInputStream(data.getBytes(Charset.forName("UTF-8")));
-            Object obj = XMLSerializerUtils.deserialize(XMLSerializerUtils.scrubXmlResponse(is));
+            charset = Charset.forName(HttpHeaderParser.parseCharset(response.headers));
+        } catch (IllegalArgumentException e) {
+            // Unsupported or illegal charset name
+            return Response.error(new ParseError(e));
+        }
+
+        try {
+            Object obj = XMLSerializerUtils.deserialize(response.data, charset);
             return Response.success(obj, createCacheEntry(response));
         } catch (XMLRPCFault e) {
             return Response.error(new VolleyError(e));
-        } catch (UnsupportedEncodingException e) {
-            return Response.error(new ParseError(e));
         } catch (IOException e) {
             AppLog.e(T.API, "Can't deserialize XMLRPC response", e);
             return Response.error(new ParseError(e));
@@ -6,14 +6,14 @@ import org.xmlpull.v1.XmlPullParserException;
 import org.xmlpull.v1.XmlPullParserFactory;
 import org.xmlpull.v1.XmlSerializer;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringWriter;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.nio.charset.Charset;
 import java.util.Map;
 
 public class XMLSerializerUtils {
@@ -27,6 +27,7 @@ public class XMLSerializerUtils {
     private static final String TAG_FAULT_STRING = "faultString";
 
     private static final int MAX_SCRUB_CHARACTERS = 5000;
+    private static final byte[] XML_DECLARATION_START = {'<', '?', 'x', 'm', 'l'};
 
     public static StringWriter serialize(XmlSerializer serializer, XMLRPC method, Object[] params)
             throws IOException {
@@ -58,7 +59,25 @@ public class XMLSerializerUtils {
         // setup pull parser
         XmlPullParser pullParser = XmlPullParserFactory.newInstance().newPullParser();
         pullParser.setInput(is, "UTF-8");
+        return deserialize(pullParser);
+    }
+
+    /**
+     * Deserializes a raw XML-RPC response in a single pass, without copying it: any BOM or junk output before the XML
+     * declaration is skipped, and the bytes are decoded with the given charset as they're parsed.
+     */
+    public static Object deserialize(byte[] data, Charset charset)
+            throws IOException, XmlPullParserException, XMLRPCException {
+        int start = findXmlStart(data, data.length);
+        Reader reader = new InputStreamReader(new ByteArrayInputStream(data, start, data.length - start), charset);
+
+        XmlPullParser pullParser = XmlPullParserFactory.newInstance().newPullParser();
+        pullParser.setInput(reader);
+        return deserialize(pullParser);
+    }
 
+    private static Object deserialize(XmlPullParser pullParser)
+            throws IOException, XmlPullParserException, XMLRPCException {
         // lets start pulling...
         pullParser.nextTag();
         pullParser.require(XmlPullParser.START_TAG, null, TAG_METHOD_RESPONSE);
@@ -89,34 +108,43 @@ public class XMLSerializerUtils {
 
     public static InputStream scrubXmlResponse(InputStream is) throws IOException {
         // Many WordPress configs can output junk before the xml response (php warnings for example), this cleans it.
-        int bomCheck = -1;
-        int stopper = 0;
-        while ((bomCheck = is.read()) != -1 && stopper <= MAX_SCRUB_CHARACTERS) {
-            stopper++;
-            String snippet = "";
-            // 60 == '<' character
-            if (bomCheck == 60) {
-                for (int i = 0; i < 4; i++) {
-                    byte[] chunk = new byte[1];
-                    int numRead = is.read(chunk);
-                    if (numRead > 0) {
-                        snippet += new String(chunk, "UTF-8");
-                    }
-                }
-                if (snippet.equals("?xml")) {
-                    // it's all good, add xml tag back and start parsing
-                    String start = "<" + snippet;
-                    List<InputStream> streams = Arrays.asList(new ByteArrayInputStream(start.getBytes()), is);
-                    is = new SequenceInputStream(Collections.enumeration(streams));
-                    break;
-                } else {
-                    // keep searching...
-                    List<InputStream> streams = Arrays.asList(new ByteArrayInputStream(snippet.getBytes()), is);
-                    is = new SequenceInputStream(Collections.enumeration(streams));
-                }
-            }
+        int maxHeadLength = MAX_SCRUB_CHARACTERS + XML_DECLARATION_START.length;
+        BufferedInputStream bufferedInputStream = new BufferedInputStream(is, maxHeadLength);
+        bufferedInputStream.mark(maxHeadLength);
+
+        byte[] head = new byte[maxHeadLength];
+        int headLength = 0;
+        int numRead;
+        while (headLength < maxHeadLength
+               && (numRead = bufferedInputStream.read(head, headLength, maxHeadLength - headLength)) != -1) {
+            headLength += numRead;
+        }
+        bufferedInputStream.reset();
+
+        long toSkip = findXmlStart(head, headLength);
+        while (toSkip > 0) {
+            toSkip -= bufferedInputStream.skip(toSkip);
         }
+        return bufferedInputStream;
+    }
 
-        return is;
+    /**
+     * Looks for the XML declaration ({@code <?xml}) in the first {@link #MAX_SCRUB_CHARACTERS} bytes of the response,
+     * skipping any BOM or junk output before it.
+     *
+     * @return the offset of the XML declaration, or 0 if it wasn't found
+     */
+    static int findXmlStart(byte[] data, int length) {
+        int lastCandidate = Math.min(length - XML_DECLARATION_START.length, MAX_SCRUB_CHARACTERS);
+        for (int i = 0; i <= lastCandidate; i++) {
+            int j = 0;
+            while (j < XML_DECLARATION_START.length && data[i + j] == XML_DECLARATION_START[j]) {
+                j++;
+            }
+            if (j == XML_DECLARATION_START.length) {
+                return i;
+            }
+        }
+        return 0;
     }
 }
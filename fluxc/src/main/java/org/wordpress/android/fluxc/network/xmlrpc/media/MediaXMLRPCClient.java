@@ -1,7 +1,6 @@
 package org.wordpress.android.fluxc.network.xmlrpc.media;
 
 import android.text.TextUtils;
-import android.util.Base64;
 
 import androidx.annotation.NonNull;
 
@@ -22,7 +21,6 @@ import org.wordpress.android.fluxc.network.BaseRequest.BaseErrorListener;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.BaseUploadRequestBody.ProgressListener;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
-import org.wordpress.android.fluxc.network.HTTPAuthModel;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.xmlrpc.BaseXMLRPCClient;
 import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCException;
@@ -42,9 +40,7 @@ import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.MapUtils;
 import org.xmlpull.v1.XmlPullParserException;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -164,12 +160,7 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
         HttpUrl url = urlBuilder.build();
 
         // Use the HTTP Auth Manager to check if we need HTTP Auth for this url
-        HTTPAuthModel httpAuthModel = mHTTPAuthManager.getHTTPAuthModel(xmlrpcUrl.toString());
-        String authString = null;
-        if (httpAuthModel != null) {
-            String creds = String.format("%s:%s", httpAuthModel.getUsername(), httpAuthModel.getPassword());
-            authString = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
-        }
+        String authString = mHTTPAuthManager.getHTTPAuthHeader(xmlrpcUrl.toString());
 
         Builder builder = new Request.Builder()
                 .url(url)
@@ -586,9 +577,7 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
                 AppLog.e(T.MEDIA, "Failed to parse XMLRPC.wpUploadFile response - body was empty: " + response);
                 return null;
             }
-            String data = new String(responseBody.bytes(), "UTF-8");
-            InputStream is = new ByteArrayInputStream(data.getBytes(Charset.forName("UTF-8")));
-            Object responseObject = XMLSerializerUtils.deserialize(XMLSerializerUtils.scrubXmlResponse(is));
+            Object responseObject = XMLSerializerUtils.deserialize(responseBody.bytes(), Charset.forName("UTF-8"));
             if (responseObject instanceof Map) {
                 return (Map) responseObject;
             }
@@ -1,7 +1,5 @@
 package org.wordpress.android.fluxc.network.xmlrpc.media;
 
-import android.util.Base64;
-
 import androidx.annotation.NonNull;
 
 import org.apache.commons.lang3.StringEscapeUtils;
@@ -9,8 +7,12 @@ import org.wordpress.android.fluxc.model.MediaModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.network.BaseUploadRequestBody;
 
+import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Locale;
 
 import okhttp3.MediaType;
@@ -38,34 +40,42 @@ public class XmlrpcUploadRequestBody extends BaseUploadRequestBody {
     private static final String APPEND_XML =
             "</base64></value></member></struct></value></param></params></methodCall>";
 
-    private final String mPrependString;
-    private long mMediaSize;
+    /**
+     * The file is encoded in blocks of this many bytes (a multiple of 3, so that only the last block can be padded).
+     * Each block is encoded the way {@link android.util.Base64#DEFAULT} would: split into lines of
+     * {@link #BASE64_LINE_LENGTH} characters, each terminated by a newline.
+     */
+    private static final int BASE64_BLOCK_SIZE = 3600;
+    private static final int BASE64_LINE_LENGTH = 76;
+    private static final byte[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(Charset.forName("US-ASCII"));
+
+    private final byte[] mPrependBytes;
+    private final byte[] mAppendBytes;
     private long mContentSize = -1;
-    private long mMediaBytesWritten = 0;
 
     public XmlrpcUploadRequestBody(MediaModel media, ProgressListener listener, SiteModel site) {
         super(media, listener);
 
         // TODO: we should use the XMLRPCSerializer instead of doing this
-        mPrependString = String.format(Locale.ENGLISH, PREPEND_XML_FORMAT,
+        String prependString = String.format(Locale.ENGLISH, PREPEND_XML_FORMAT,
                 site.getSelfHostedSiteId(),
                 StringEscapeUtils.escapeXml(site.getUsername()),
                 StringEscapeUtils.escapeXml(site.getPassword()),
                 StringEscapeUtils.escapeXml(media.getFileName()),
                 StringEscapeUtils.escapeXml(media.getMimeType()),
                 media.getPostId());
-
-        try {
-            mMediaSize = contentLength();
-        } catch (IOException e) {
-            // Default to 1 (to avoid divide by zero errors)
-            mMediaSize = 1;
-        }
+        mPrependBytes = prependString.getBytes(Charset.forName("UTF-8"));
+        mAppendBytes = APPEND_XML.getBytes(Charset.forName("UTF-8"));
     }
 
     @Override
     protected float getProgress(long bytesWritten) {
-        return (float) mMediaBytesWritten / mMediaSize;
+        try {
+            return (float) bytesWritten / contentLength();
+        } catch (IOException e) {
+            return 0;
+        }
     }
 
     @Override
@@ -76,24 +86,13 @@ public class XmlrpcUploadRequestBody extends BaseUploadRequestBody {
     @Override
     public long contentLength() throws IOException {
         if (mContentSize == -1) {
-            mContentSize = getMediaBase64EncodedSize() + mPrependString.length() + APPEND_XML.length();
-        }
-        return mContentSize;
-    }
-
-    private long getMediaBase64EncodedSize() throws IOException {
-        FileInputStream fis = new FileInputStream(getMedia().getFilePath());
-        int totalSize = 0;
-        try {
-            byte[] buffer = new byte[3600];
-            int length;
-            while ((length = fis.read(buffer)) > 0) {
-                totalSize += Base64.encodeToString(buffer, 0, length, Base64.DEFAULT).length();
+            File file = new File(getMedia().getFilePath());
+            if (!file.isFile()) {
+                throw new FileNotFoundException(file.getPath());
             }
-        } finally {
-            fis.close();
+            mContentSize = mPrependBytes.length + getBase64EncodedSize(file.length()) + mAppendBytes.length;
         }
-        return totalSize;
+        return mContentSize;
     }
 
     @Override
@@ -102,27 +101,82 @@ public class XmlrpcUploadRequestBody extends BaseUploadRequestBody {
         BufferedSink bufferedSink = Okio.buffer(countingSink);
 
         // write XML up to point of file
-        bufferedSink.writeUtf8(mPrependString);
-
-        // write file to xml
+        bufferedSink.write(mPrependBytes);
 
+        // write file to xml, reusing the same buffers for every block
+        byte[] buffer = new byte[BASE64_BLOCK_SIZE];
+        byte[] encoded = new byte[getBase64EncodedBlockSize(BASE64_BLOCK_SIZE)];
         FileInputStream fis = new FileInputStream(getMedia().getFilePath());
         try {
-            byte[] buffer = new byte[3600]; // you must use a 24bit multiple
             int length;
-            String chunk;
-            while ((length = fis.read(buffer)) > 0) {
-                chunk = Base64.encodeToString(buffer, 0, length, Base64.DEFAULT);
-                mMediaBytesWritten += length;
-                bufferedSink.writeUtf8(chunk);
+            while ((length = readBlock(fis, buffer)) > 0) {
+                int encodedLength = encodeBlock(buffer, length, encoded);
+                bufferedSink.write(encoded, 0, encodedLength);
             }
         } finally {
             fis.close();
         }
 
         // write remainder or XML
-        bufferedSink.writeUtf8(APPEND_XML);
+        bufferedSink.write(mAppendBytes);
 
         bufferedSink.flush();
     }
+
+    static long getBase64EncodedSize(long mediaSize) {
+        long fullBlocks = mediaSize / BASE64_BLOCK_SIZE;
+        int lastBlockSize = (int) (mediaSize % BASE64_BLOCK_SIZE);
+        return fullBlocks * getBase64EncodedBlockSize(BASE64_BLOCK_SIZE) + getBase64EncodedBlockSize(lastBlockSize);
+    }
+
+    private static int getBase64EncodedBlockSize(int blockSize) {
+        int encodedChars = (blockSize + 2) / 3 * 4;
+        int newlines = (encodedChars + BASE64_LINE_LENGTH - 1) / BASE64_LINE_LENGTH;
+        return encodedChars + newlines;
+    }
+
+    /**
+     * Fills the buffer from the stream, so that only the last block of the file can be shorter than the buffer.
+     */
+    private static int readBlock(InputStream is, byte[] buffer) throws IOException {
+        int length = 0;
+        int numRead;
+        while (length < buffer.length && (numRead = is.read(buffer, length, buffer.length - length)) != -1) {
+            length += numRead;
+        }
+        return length;
+    }
+
+    /**
+     * Base64 encodes the first {@code length} bytes of {@code input} into {@code output}, with the same output as
+     * {@code Base64.encode(input, 0, length, Base64.DEFAULT)}.
+     *
+     * @return the number of bytes written to {@code output}
+     */
+    static int encodeBlock(byte[] input, int length, byte[] output) {
+        int op = 0;
+        int lineLength = 0;
+        int ip = 0;
+        while (ip < length) {
+            int remaining = length - ip;
+            int b0 = input[ip++] & 0xff;
+            int b1 = remaining > 1 ? input[ip++] & 0xff : 0;
+            int b2 = remaining > 2 ? input[ip++] & 0xff : 0;
+
+            output[op++] = BASE64_ALPHABET[b0 >> 2];
+            output[op++] = BASE64_ALPHABET[((b0 << 4) | (b1 >> 4)) & 0x3f];
+            output[op++] = remaining > 1 ? BASE64_ALPHABET[((b1 << 2) | (b2 >> 6)) & 0x3f] : (byte) '=';
+            output[op++] = remaining > 2 ? BASE64_ALPHABET[b2 & 0x3f] : (byte) '=';
+
+            lineLength += 4;
+            if (lineLength == BASE64_LINE_LENGTH) {
+                output[op++] = '\n';
+                lineLength = 0;
+            }
+        }
+        if (lineLength > 0) {
+            output[op++] = '\n';
+        }
+        return op;
+    }
 }
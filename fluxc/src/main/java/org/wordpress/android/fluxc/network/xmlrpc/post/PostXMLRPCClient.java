@@ -36,6 +36,7 @@ import org.wordpress.android.fluxc.store.PostStore.DeletedPostPayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostListResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostStatusResponsePayload;
+import org.wordpress.android.fluxc.store.PostStore.FetchPostsByRemoteIdsResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostsResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.PostDeleteActionType;
 import org.wordpress.android.fluxc.store.PostStore.PostError;
@@ -105,6 +106,47 @@ public class PostXMLRPCClient extends BaseXMLRPCClient {
         add(request);
     }
 
+    /**
+     * Fetches the given posts with a single system.multicall request, posts that can't be fetched are left out of the
+     * response.
+     */
+    public void fetchPostsByRemoteIds(final SiteModel site, final List<Long> remotePostIds) {
+        List<Object> calls = new ArrayList<>(remotePostIds.size());
+        for (Long remotePostId : remotePostIds) {
+            Map<String, Object> call = new HashMap<>();
+            call.put("methodName", XMLRPC.GET_POST.toString());
+            call.put("params", createFetchPostParams(remotePostId, site));
+            calls.add(call);
+        }
+        List<Object> params = new ArrayList<>(1);
+        params.add(calls);
+
+        final XMLRPCRequest request = new XMLRPCRequest(site.getXmlRpcUrl(), XMLRPC.MULTICALL, params,
+                new Listener<Object>() {
+                    @Override
+                    public void onResponse(Object response) {
+                        FetchPostsByRemoteIdsResponsePayload payload;
+                        if (response instanceof Object[]) {
+                            List<PostModel> posts = multicallResponseToPostModels((Object[]) response, site);
+                            payload = new FetchPostsByRemoteIdsResponsePayload(site, remotePostIds, posts);
+                        } else {
+                            payload = new FetchPostsByRemoteIdsResponsePayload(site, remotePostIds,
+                                    new PostError(PostErrorType.INVALID_RESPONSE));
+                        }
+                        mDispatcher.dispatch(PostActionBuilder.newFetchedPostsByRemoteIdsAction(payload));
+                    }
+                }, new BaseErrorListener() {
+            @Override
+            public void onErrorResponse(@NonNull BaseNetworkError error) {
+                FetchPostsByRemoteIdsResponsePayload payload = new FetchPostsByRemoteIdsResponsePayload(site,
+                        remotePostIds, createPostErrorFromBaseNetworkError(error));
+                mDispatcher.dispatch(PostActionBuilder.newFetchedPostsByRemoteIdsAction(payload));
+            }
+        });
+
+        add(request);
+    }
+
     public void fetchPostStatus(final PostModel post, final SiteModel site) {
         final String postStatusField = "post_status";
         List<Object> params = createFetchPostParams(post, site);
@@ -348,6 +390,24 @@ public class PostXMLRPCClient extends BaseXMLRPCClient {
         return new PostsModel(postArray);
     }
 
+    private static List<PostModel> multicallResponseToPostModels(@NonNull Object[] response, SiteModel site) {
+        List<PostModel> posts = new ArrayList<>(response.length);
+        for (Object result : response) {
+            // Successful calls are wrapped in a single element array, failed calls are a fault struct
+            Object postObject = result instanceof Object[] && ((Object[]) result).length == 1
+                    ? ((Object[]) result)[0] : null;
+            if (postObject instanceof Map) {
+                PostModel post = postResponseObjectToPostModel((Map) postObject, site);
+                if (post != null) {
+                    posts.add(post);
+                }
+            } else {
+                AppLog.w(T.POSTS, "Failed to fetch a post in a multicall: " + result);
+            }
+        }
+        return posts;
+    }
+
     private static PostModel postResponseObjectToPostModel(@NonNull Map postObject, SiteModel site) {
         Map<?, ?> postMap = (Map<?, ?>) postObject;
         PostModel post = new PostModel();
@@ -629,11 +689,15 @@ public class PostXMLRPCClient extends BaseXMLRPCClient {
     }
 
     private List<Object> createFetchPostParams(final PostModel post, final SiteModel site) {
+        return createFetchPostParams(post.getRemotePostId(), site);
+    }
+
+    private List<Object> createFetchPostParams(final long remotePostId, final SiteModel site) {
         List<Object> params = new ArrayList<>(4);
         params.add(site.getSelfHostedSiteId());
         params.add(site.getUsername());
         params.add(site.getPassword());
-        params.add(post.getRemotePostId());
+        params.add(remotePostId);
         return params;
     }
 
@@ -34,4 +34,14 @@ public class HTTPAuthSqlUtils {
                    }).execute();
         }
     }
+
+    public static int deleteModel(String rootUrl) {
+        return WellSql.delete(HTTPAuthModel.class)
+                .where().equals(HTTPAuthModelTable.ROOT_URL, rootUrl).endWhere()
+                .execute();
+    }
+
+    public static int deleteAllModels() {
+        return WellSql.delete(HTTPAuthModel.class).execute();
+    }
 }
@@ -26,6 +26,21 @@ class ListItemSqlUtils @Inject constructor() {
      */
     fun getListItems(listId: Int): List<ListItemModel> = getListItemsQuery(listId).asModel
 
+    /**
+     * This function returns the remote item ids of the given [listId] in the order of [getListItems]. Only the remote
+     * item id column is read, without creating a [ListItemModel] per item.
+     */
+    fun getListItemIds(listId: Int): LongArray =
+            getListItemsQuery(listId)
+                    .columns(ListItemModelTable.REMOTE_ITEM_ID)
+                    .asCursor.use { cursor ->
+                        val remoteItemIds = LongArray(cursor.count)
+                        while (cursor.moveToNext()) {
+                            remoteItemIds[cursor.position] = cursor.getLong(0)
+                        }
+                        remoteItemIds
+                    }
+
     /**
      * This function returns the number of records a list has for the given [listId].
      */
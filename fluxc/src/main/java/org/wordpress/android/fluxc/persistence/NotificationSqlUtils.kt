@@ -3,6 +3,7 @@ package org.wordpress.android.fluxc.persistence
 import android.annotation.SuppressLint
 import com.wellsql.generated.NotificationModelTable
 import com.yarolegovich.wellsql.SelectQuery
+import com.yarolegovich.wellsql.SelectQuery.ORDER_ASCENDING
 import com.yarolegovich.wellsql.SelectQuery.ORDER_DESCENDING
 import com.yarolegovich.wellsql.WellSql
 import com.yarolegovich.wellsql.core.Identifiable
@@ -10,6 +11,7 @@ import com.yarolegovich.wellsql.core.annotation.Column
 import com.yarolegovich.wellsql.core.annotation.PrimaryKey
 import com.yarolegovich.wellsql.core.annotation.Table
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.notification.NoteHashes
 import org.wordpress.android.fluxc.model.notification.NoteIdSet
 import org.wordpress.android.fluxc.model.notification.NotificationModel
 import org.wordpress.android.fluxc.model.notification.NotificationModel.Kind
@@ -52,6 +54,22 @@ class NotificationSqlUtils @Inject constructor(private val formattableContentMap
      */
     fun getNotificationsCount() = WellSql.select(NotificationModelBuilder::class.java).count()
 
+    /**
+     * Loads only the remote note ID and note hash of the cached notifications, skipping the parsing of their content.
+     */
+    fun getNotificationHashes(): NoteHashes {
+        return WellSql.select(NotificationModelBuilder::class.java)
+                .columns(NotificationModelTable.REMOTE_NOTE_ID, NotificationModelTable.NOTE_HASH)
+                .orderBy(NotificationModelTable.REMOTE_NOTE_ID, ORDER_ASCENDING)
+                .asCursor.use { cursor ->
+                    val builder = NoteHashes.Builder(cursor.count)
+                    while (cursor.moveToNext()) {
+                        builder.add(cursor.getLong(0), cursor.getLong(1))
+                    }
+                    builder.build()
+                }
+    }
+
     @SuppressLint("WrongConstant")
     fun getNotifications(
         @SelectQuery.Order order: Int = ORDER_DESCENDING,
@@ -184,6 +202,35 @@ class NotificationSqlUtils @Inject constructor(private val formattableContentMap
                 .endGroup().endWhere().execute()
     }
 
+    /**
+     * Deletes the notifications matching [remoteNoteIds] in a single transaction.
+     *
+     * @return The number of deleted notifications.
+     */
+    fun deleteNotificationsByRemoteIds(remoteNoteIds: List<Long>): Int {
+        if (remoteNoteIds.isEmpty()) {
+            return 0
+        }
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            // Stay below the SQLite limit on the number of query arguments
+            val deleted = remoteNoteIds.chunked(MAX_IN_QUERY_SIZE).sumBy { chunk ->
+                WellSql.delete(NotificationModelBuilder::class.java)
+                        .where().isIn(NotificationModelTable.REMOTE_NOTE_ID, chunk).endWhere()
+                        .execute()
+            }
+            db.setTransactionSuccessful()
+            return deleted
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    companion object {
+        private const val MAX_IN_QUERY_SIZE = 500
+    }
+
     private fun NotificationModel.toBuilder(): NotificationModelBuilder {
         return NotificationModelBuilder(
                 mId = this.noteId,
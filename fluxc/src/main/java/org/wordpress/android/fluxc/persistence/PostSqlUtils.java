@@ -1,6 +1,8 @@
 package org.wordpress.android.fluxc.persistence;
 
 import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
@@ -14,20 +16,29 @@ import com.yarolegovich.wellsql.SelectQuery;
 import com.yarolegovich.wellsql.SelectQuery.Order;
 import com.yarolegovich.wellsql.WellSql;
 import com.yarolegovich.wellsql.mapper.InsertMapper;
+import com.yarolegovich.wellsql.mapper.SelectMapper;
 
 import org.wordpress.android.fluxc.model.LocalOrRemoteId;
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.LocalId;
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.model.post.PostSummary;
 import org.wordpress.android.fluxc.model.revisions.LocalDiffModel;
 import org.wordpress.android.fluxc.model.revisions.LocalRevisionModel;
 import org.wordpress.android.fluxc.network.rest.wpcom.post.PostRemoteAutoSaveModel;
+import org.wordpress.android.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import javax.inject.Inject;
 
@@ -35,6 +46,42 @@ import dagger.Reusable;
 
 @Reusable
 public class PostSqlUtils {
+    private static final String[] POST_SUMMARY_COLUMNS = {
+            PostModelTable.ID, PostModelTable.LOCAL_SITE_ID, PostModelTable.REMOTE_POST_ID, PostModelTable.TITLE,
+            PostModelTable.STATUS, PostModelTable.PASSWORD, PostModelTable.AUTHOR_DISPLAY_NAME,
+            PostModelTable.DATE_CREATED, PostModelTable.LAST_MODIFIED, PostModelTable.DATE_LOCALLY_CHANGED,
+            PostModelTable.FEATURED_IMAGE_ID, PostModelTable.IS_PAGE, PostModelTable.PARENT_ID,
+            PostModelTable.PARENT_TITLE, PostModelTable.IS_LOCAL_DRAFT, PostModelTable.IS_LOCALLY_CHANGED
+    };
+
+    private static final SelectMapper<PostSummary> POST_SUMMARY_MAPPER = new SelectMapper<PostSummary>() {
+        @Override
+        public PostSummary convert(Cursor cursor) {
+            return new PostSummary(
+                    cursor.getInt(cursor.getColumnIndex(PostModelTable.ID)),
+                    cursor.getInt(cursor.getColumnIndex(PostModelTable.LOCAL_SITE_ID)),
+                    cursor.getLong(cursor.getColumnIndex(PostModelTable.REMOTE_POST_ID)),
+                    getString(cursor, PostModelTable.TITLE),
+                    getString(cursor, PostModelTable.STATUS),
+                    getString(cursor, PostModelTable.PASSWORD),
+                    cursor.getString(cursor.getColumnIndex(PostModelTable.AUTHOR_DISPLAY_NAME)),
+                    getString(cursor, PostModelTable.DATE_CREATED),
+                    getString(cursor, PostModelTable.LAST_MODIFIED),
+                    getString(cursor, PostModelTable.DATE_LOCALLY_CHANGED),
+                    cursor.getLong(cursor.getColumnIndex(PostModelTable.FEATURED_IMAGE_ID)),
+                    cursor.getInt(cursor.getColumnIndex(PostModelTable.IS_PAGE)) != 0,
+                    cursor.getLong(cursor.getColumnIndex(PostModelTable.PARENT_ID)),
+                    getString(cursor, PostModelTable.PARENT_TITLE),
+                    cursor.getInt(cursor.getColumnIndex(PostModelTable.IS_LOCAL_DRAFT)) != 0,
+                    cursor.getInt(cursor.getColumnIndex(PostModelTable.IS_LOCALLY_CHANGED)) != 0);
+        }
+
+        private String getString(Cursor cursor, String column) {
+            // Like the PostModel getters, summaries don't have null strings
+            return StringUtils.notNullStr(cursor.getString(cursor.getColumnIndex(column)));
+        }
+    };
+
     @Inject
     public PostSqlUtils() {
     }
@@ -95,6 +142,70 @@ public class PostSqlUtils {
         return numberOfDeletedRows;
     }
 
+    /**
+     * Bulk version of {@link #insertOrUpdatePost(PostModel, boolean)}: the existing rows matching the given posts are
+     * looked up with IN queries rather than one query per post, and all the writes happen in a single transaction.
+     *
+     * Posts are applied in order with the same rules as {@link #insertOrUpdatePost(PostModel, boolean)}, so a post
+     * sees the rows inserted or updated by the posts before it in the list.
+     *
+     * @return the number of rows inserted, updated or deleted
+     */
+    public synchronized int insertOrUpdatePosts(List<PostModel> posts, boolean overwriteLocalChanges) {
+        if (posts == null || posts.isEmpty()) {
+            return 0;
+        }
+
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.beginTransaction();
+        try {
+            ExistingPosts existingPosts = new ExistingPosts(posts);
+            UpdateAllExceptId<PostModel> updateMapper = new UpdateAllExceptId<>(PostModel.class);
+            int rowsAffected = 0;
+            for (PostModel post : posts) {
+                if (post == null) {
+                    continue;
+                }
+                List<PostModel> postResult = existingPosts.getMatches(post);
+                if (postResult.isEmpty()) {
+                    WellSql.insert(post).execute();
+                    existingPosts.add(post.getId(), post.getLocalSiteId(), post.getRemotePostId(),
+                            post.isLocallyChanged());
+                    rowsAffected++;
+                    continue;
+                }
+                // Same duplicate resolution as insertOrUpdatePost(), except that when none of the duplicates has the
+                // local ID of the post, the oldest one is kept instead of all of them being deleted
+                PostModel existingPost = postResult.get(0);
+                for (PostModel item : postResult) {
+                    if (item.getId() == post.getId()) {
+                        existingPost = item;
+                        break;
+                    }
+                }
+                for (PostModel item : postResult) {
+                    if (item != existingPost) {
+                        WellSql.delete(PostModel.class).whereId(item.getId());
+                        existingPosts.remove(item);
+                        rowsAffected++;
+                    }
+                }
+                // Update only if local changes for this post don't exist
+                if (overwriteLocalChanges || !existingPost.isLocallyChanged()) {
+                    rowsAffected += WellSql.update(PostModel.class).whereId(existingPost.getId())
+                                           .put(post, updateMapper).execute();
+                    existingPosts.remove(existingPost);
+                    existingPosts.add(existingPost.getId(), post.getLocalSiteId(), post.getRemotePostId(),
+                            post.isLocallyChanged());
+                }
+            }
+            db.setTransactionSuccessful();
+            return rowsAffected;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
     public int insertOrUpdatePostKeepingLocalChanges(PostModel post) {
         return insertOrUpdatePost(post, false);
     }
@@ -189,6 +300,42 @@ public class PostSqlUtils {
         if (localOrRemoteIds.isEmpty()) {
             return Collections.emptyList();
         }
+        return whereLocalOrRemotePostIds(WellSql.select(PostModel.class), localOrRemoteIds, localSiteId).getAsModel();
+    }
+
+    /**
+     * Returns the {@link PostSummary} of every post or page of the site, in the order of {@link #getPostsForSite}.
+     */
+    public List<PostSummary> getPostSummariesForSite(SiteModel site, boolean getPages) {
+        if (site == null) {
+            return Collections.emptyList();
+        }
+
+        return selectPostSummaries()
+                .where().beginGroup()
+                .equals(PostModelTable.LOCAL_SITE_ID, site.getId())
+                .equals(PostModelTable.IS_PAGE, getPages)
+                .endGroup().endWhere()
+                .orderBy(PostModelTable.IS_LOCAL_DRAFT, SelectQuery.ORDER_DESCENDING)
+                .orderBy(PostModelTable.DATE_CREATED, SelectQuery.ORDER_DESCENDING)
+                .getAsModel(POST_SUMMARY_MAPPER);
+    }
+
+    public List<PostSummary> getPostSummariesByLocalOrRemotePostIds(
+            @NonNull List<? extends LocalOrRemoteId> localOrRemoteIds, int localSiteId) {
+        if (localOrRemoteIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return whereLocalOrRemotePostIds(selectPostSummaries(), localOrRemoteIds, localSiteId)
+                .getAsModel(POST_SUMMARY_MAPPER);
+    }
+
+    private static SelectQuery<PostModel> selectPostSummaries() {
+        return WellSql.select(PostModel.class).columns(POST_SUMMARY_COLUMNS);
+    }
+
+    private static SelectQuery<PostModel> whereLocalOrRemotePostIds(SelectQuery<PostModel> query,
+            @NonNull List<? extends LocalOrRemoteId> localOrRemoteIds, int localSiteId) {
         List<Integer> localIds = new ArrayList<>();
         List<Long> remoteIds = new ArrayList<>();
         for (LocalOrRemoteId localOrRemoteId : localOrRemoteIds) {
@@ -199,7 +346,7 @@ public class PostSqlUtils {
             }
         }
         ConditionClauseBuilder<SelectQuery<PostModel>> whereQuery =
-                WellSql.select(PostModel.class).where().equals(PostModelTable.LOCAL_SITE_ID, localSiteId).beginGroup();
+                query.where().equals(PostModelTable.LOCAL_SITE_ID, localSiteId).beginGroup();
         boolean addIsInLocalIdsCondition = !localIds.isEmpty();
         if (addIsInLocalIdsCondition) {
             whereQuery = whereQuery.isIn(PostModelTable.ID, localIds);
@@ -211,7 +358,7 @@ public class PostSqlUtils {
             }
             whereQuery = whereQuery.isIn(PostModelTable.REMOTE_POST_ID, remoteIds);
         }
-        return whereQuery.endGroup().endWhere().getAsModel();
+        return whereQuery.endGroup().endWhere();
     }
 
     public PostModel insertPostForResult(PostModel post) {
@@ -265,6 +412,26 @@ public class PostSqlUtils {
                 .endGroup().endGroup().endWhere().exists();
     }
 
+    /**
+     * @return the local IDs of the sites with local changes, see {@link #getSiteHasLocalChanges(SiteModel)}
+     */
+    public Set<Integer> getLocalSiteIdsWithLocalChanges() {
+        String sql = "SELECT " + PostModelTable.LOCAL_SITE_ID + " FROM PostModel"
+                     + " WHERE " + PostModelTable.IS_LOCAL_DRAFT + " = 1"
+                     + " OR " + PostModelTable.IS_LOCALLY_CHANGED + " = 1"
+                     + " GROUP BY " + PostModelTable.LOCAL_SITE_ID;
+        Cursor cursor = WellSql.giveMeWritableDb().rawQuery(sql, null);
+        try {
+            Set<Integer> localSiteIds = new HashSet<>();
+            while (cursor.moveToNext()) {
+                localSiteIds.add(cursor.getInt(0));
+            }
+            return localSiteIds;
+        } finally {
+            cursor.close();
+        }
+    }
+
     public int getNumLocalChanges() {
         return (int) WellSql.select(PostModel.class)
                             .where().beginGroup()
@@ -400,4 +567,176 @@ public class PostSqlUtils {
         }
         return localPostIds;
     }
+
+    /**
+     * Returns the local ids of the pages of the site whose title contains the query, ignoring case like
+     * {@code title.toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT))}.
+     *
+     * Only the ids and titles are read, from the (LOCAL_SITE_ID, IS_PAGE, TITLE) index rather than the page rows.
+     * SQLite's LIKE ignores the case of ASCII letters only, so the titles are filtered again here and queries with
+     * other characters are only matched here.
+     */
+    public List<LocalId> getPageIdsMatchingTitle(SiteModel site, @NonNull String titleQuery) {
+        if (site == null) {
+            return Collections.emptyList();
+        }
+        ConditionClauseBuilder<SelectQuery<PostModel>> clauseBuilder =
+                WellSql.select(PostModel.class)
+                       .columns(PostModelTable.ID, PostModelTable.TITLE)
+                       .where().beginGroup()
+                       .equals(PostModelTable.LOCAL_SITE_ID, site.getId())
+                       .equals(PostModelTable.IS_PAGE, true)
+                       .endGroup();
+        if (isAscii(titleQuery)) {
+            clauseBuilder = clauseBuilder.contains(PostModelTable.TITLE, titleQuery);
+        }
+        String lowerCaseQuery = titleQuery.toLowerCase(Locale.ROOT);
+        List<LocalId> pageIds = new ArrayList<>();
+        for (PostModel page : clauseBuilder.endWhere().getAsModel()) {
+            if (page.getTitle().toLowerCase(Locale.ROOT).contains(lowerCaseQuery)) {
+                pageIds.add(new LocalId(page.getId()));
+            }
+        }
+        return pageIds;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The existing rows matching a batch of posts, loaded with a few IN queries, and kept up to date as the batch is
+     * written so that each post is matched like {@link #insertOrUpdatePost(PostModel, boolean)} would match it.
+     *
+     * Only the columns needed to match the posts and check for local changes are loaded.
+     */
+    private static class ExistingPosts {
+        // Stay well under SQLite's limit of 999 variables per statement
+        private static final int MAX_IN_QUERY_SIZE = 500;
+
+        private static final Comparator<PostModel> BY_ID = new Comparator<PostModel>() {
+            @Override
+            public int compare(PostModel lhs, PostModel rhs) {
+                return lhs.getId() < rhs.getId() ? -1 : (lhs.getId() == rhs.getId() ? 0 : 1);
+            }
+        };
+
+        private final Map<Integer, PostModel> mById = new HashMap<>();
+        private final Map<Integer, Map<Long, List<PostModel>>> mByRemoteId = new HashMap<>();
+
+        ExistingPosts(List<PostModel> posts) {
+            List<Integer> localIds = new ArrayList<>();
+            Map<Integer, Set<Long>> remoteIdsBySite = new HashMap<>();
+            for (PostModel post : posts) {
+                if (post == null) {
+                    continue;
+                }
+                // Rows start at 1, there is no need to look up new posts by their local ID
+                if (post.getId() > 0) {
+                    localIds.add(post.getId());
+                }
+                if (!post.isLocalDraft()) {
+                    Set<Long> remoteIds = remoteIdsBySite.get(post.getLocalSiteId());
+                    if (remoteIds == null) {
+                        remoteIds = new HashSet<>();
+                        remoteIdsBySite.put(post.getLocalSiteId(), remoteIds);
+                    }
+                    remoteIds.add(post.getRemotePostId());
+                }
+            }
+
+            for (List<Integer> chunk : chunk(localIds)) {
+                addAll(select().where().isIn(PostModelTable.ID, chunk).endWhere().getAsModel());
+            }
+            for (Map.Entry<Integer, Set<Long>> entry : remoteIdsBySite.entrySet()) {
+                for (List<Long> chunk : chunk(new ArrayList<>(entry.getValue()))) {
+                    addAll(select().where().beginGroup()
+                                   .equals(PostModelTable.LOCAL_SITE_ID, entry.getKey())
+                                   .isIn(PostModelTable.REMOTE_POST_ID, chunk)
+                                   .endGroup().endWhere().getAsModel());
+                }
+            }
+        }
+
+        /**
+         * @return the rows matching the given post, ordered by local ID
+         */
+        List<PostModel> getMatches(PostModel post) {
+            List<PostModel> matches = new ArrayList<>();
+            PostModel byId = mById.get(post.getId());
+            if (byId != null) {
+                matches.add(byId);
+            }
+            if (!post.isLocalDraft()) {
+                Map<Long, List<PostModel>> siteRows = mByRemoteId.get(post.getLocalSiteId());
+                List<PostModel> byRemoteId = siteRows != null ? siteRows.get(post.getRemotePostId()) : null;
+                if (byRemoteId != null) {
+                    for (PostModel row : byRemoteId) {
+                        if (row != byId) {
+                            matches.add(row);
+                        }
+                    }
+                }
+            }
+            Collections.sort(matches, BY_ID);
+            return matches;
+        }
+
+        void add(int id, int localSiteId, long remotePostId, boolean isLocallyChanged) {
+            PostModel row = new PostModel();
+            row.setId(id);
+            row.setLocalSiteId(localSiteId);
+            row.setRemotePostId(remotePostId);
+            row.setIsLocallyChanged(isLocallyChanged);
+            addAll(Collections.singletonList(row));
+        }
+
+        void remove(PostModel row) {
+            mById.remove(row.getId());
+            Map<Long, List<PostModel>> siteRows = mByRemoteId.get(row.getLocalSiteId());
+            List<PostModel> byRemoteId = siteRows != null ? siteRows.get(row.getRemotePostId()) : null;
+            if (byRemoteId != null) {
+                byRemoteId.remove(row);
+            }
+        }
+
+        private void addAll(List<PostModel> rows) {
+            for (PostModel row : rows) {
+                if (mById.containsKey(row.getId())) {
+                    continue;
+                }
+                mById.put(row.getId(), row);
+                Map<Long, List<PostModel>> siteRows = mByRemoteId.get(row.getLocalSiteId());
+                if (siteRows == null) {
+                    siteRows = new HashMap<>();
+                    mByRemoteId.put(row.getLocalSiteId(), siteRows);
+                }
+                List<PostModel> byRemoteId = siteRows.get(row.getRemotePostId());
+                if (byRemoteId == null) {
+                    byRemoteId = new ArrayList<>(1);
+                    siteRows.put(row.getRemotePostId(), byRemoteId);
+                }
+                byRemoteId.add(row);
+            }
+        }
+
+        private static SelectQuery<PostModel> select() {
+            return WellSql.select(PostModel.class)
+                          .columns(PostModelTable.ID, PostModelTable.LOCAL_SITE_ID, PostModelTable.REMOTE_POST_ID,
+                                  PostModelTable.IS_LOCALLY_CHANGED);
+        }
+
+        private static <T> List<List<T>> chunk(List<T> values) {
+            List<List<T>> chunks = new ArrayList<>();
+            for (int i = 0; i < values.size(); i += MAX_IN_QUERY_SIZE) {
+                chunks.add(values.subList(i, Math.min(values.size(), i + MAX_IN_QUERY_SIZE)));
+            }
+            return chunks;
+        }
+    }
 }
@@ -2,8 +2,10 @@ package org.wordpress.android.fluxc.persistence;
 
 import android.content.ContentValues;
 import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.wellsql.generated.AccountModelTable;
 import com.wellsql.generated.PostFormatModelTable;
@@ -17,12 +19,19 @@ import org.wordpress.android.fluxc.model.AccountModel;
 import org.wordpress.android.fluxc.model.PostFormatModel;
 import org.wordpress.android.fluxc.model.RoleModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.store.SiteStore.UpdateSitesResult;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.UrlUtils;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 public class SiteSqlUtils {
     public static class DuplicateSiteException extends Exception {
@@ -67,6 +76,10 @@ public class SiteSqlUtils {
      * 4. Exists in the DB, originally a WP.com REST site, and matches by XMLRPC_URL -> THROW a DuplicateSiteException
      * 5. Exists in the DB, originally an XML-RPC site, and matches by XMLRPC_URL -> UPDATE
      * 6. Not matching any previous cases -> INSERT
+     *
+     * An UPDATE only writes the columns that changed, and nothing if the site is the same as the stored one.
+     *
+     * @return the number of rows inserted or updated, 0 if the site didn't change
      */
     public static int insertOrUpdateSite(SiteModel site) throws DuplicateSiteException {
         if (site == null) {
@@ -160,18 +173,7 @@ public class SiteSqlUtils {
             return 1;
         } else {
             // Update old site
-            AppLog.d(T.DB, "Updating site: " + site.getUrl());
-            int oldId = siteResult.get(0).getId();
-            try {
-                return WellSql.update(SiteModel.class).whereId(oldId)
-                        .put(site, new UpdateAllExceptId<>(SiteModel.class)).execute();
-            } catch (SQLiteConstraintException e) {
-                AppLog.e(T.DB, "Error while updating site: siteId=" + site.getSiteId() + " url=" + site.getUrl()
-                        + " xmlrpc=" + site.getXmlRpcUrl(), e);
-                // Can happen on self hosted sites with incorrect url values in wp.getOption response.
-                // See https://github.com/wordpress-mobile/WordPress-FluxC-Android/issues/397
-                throw new DuplicateSiteException();
-            }
+            return updateSite(siteResult.get(0).getId(), siteResult.get(0), site);
         }
     }
 
@@ -278,6 +280,32 @@ public class SiteSqlUtils {
         WellSql.insert(roles).execute();
     }
 
+    /**
+     * Inserts or updates the given sites in a single transaction. Sites are matched the same way as in
+     * {@link #insertOrUpdateSite(SiteModel)}, against the existing sites loaded once and kept in memory.
+     *
+     * The editor preferences of existing sites are kept, since the REST API doesn't return them. The apps will dispatch
+     * the action to update the editors when necessary.
+     *
+     * Like in {@link #insertOrUpdateSite(SiteModel)}, unchanged sites aren't written. The local IDs of the inserted and
+     * updated sites are returned in {@link UpdateSitesResult#changedLocalSiteIds}.
+     */
+    public static UpdateSitesResult insertOrUpdateSites(@NonNull List<SiteModel> sites) {
+        return reconcileSites(null, sites);
+    }
+
+    /**
+     * Same as {@link #insertOrUpdateSites(List)}, then removes the sites
+     * {@link #removeWPComRestSitesAbsentFromList(PostSqlUtils, List)} would, in the same transaction. The local IDs of
+     * the removed sites are added to {@link UpdateSitesResult#changedLocalSiteIds}.
+     *
+     * @param sites
+     *  the WP.com and Jetpack sites fetched from the REST API
+     */
+    public static UpdateSitesResult syncWPComRestSites(PostSqlUtils postSqlUtils, @NonNull List<SiteModel> sites) {
+        return reconcileSites(postSqlUtils, sites);
+    }
+
     /**
      * Removes all sites from local database with the following criteria:
      * 1. Site is a WP.com -or- Jetpack connected site
@@ -288,38 +316,275 @@ public class SiteSqlUtils {
      *  list of sites to keep in local database
      */
     public static int removeWPComRestSitesAbsentFromList(PostSqlUtils postSqlUtils, @NonNull List<SiteModel> sites) {
-        // get all local WP.com+Jetpack sites
-        List<SiteModel> localSites = WellSql.select(SiteModel.class)
-                .where()
-                .equals(SiteModelTable.ORIGIN, SiteModel.ORIGIN_WPCOM_REST)
-                .endWhere().getAsModel();
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.beginTransaction();
+        try {
+            List<Integer> removedSiteIds = removeWPComRestSitesAbsentFromList(postSqlUtils,
+                    new ExistingSites(getSitesAccessedViaWPComRest().getAsModel()), sites);
+            db.setTransactionSuccessful();
+            return removedSiteIds.size();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static synchronized UpdateSitesResult reconcileSites(@Nullable PostSqlUtils postSqlUtils,
+                                                                 @NonNull List<SiteModel> sites) {
+        UpdateSitesResult result = new UpdateSitesResult();
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.beginTransaction();
+        try {
+            ExistingSites existingSites = new ExistingSites(WellSql.select(SiteModel.class).getAsModel());
+            Boolean hasWPComAccount = null;
+            for (SiteModel site : sites) {
+                if (site == null) {
+                    continue;
+                }
+                // Same as insertOrUpdateSite(), WP.com REST API sites can't be added without a WordPress.com account
+                if (site.isUsingWpComRestApi()) {
+                    if (hasWPComAccount == null) {
+                        hasWPComAccount = WellSql.select(AccountModel.class)
+                                                 .where()
+                                                 .not().equals(AccountModelTable.USER_ID, 0)
+                                                 .endWhere()
+                                                 .exists();
+                    }
+                    if (!hasWPComAccount) {
+                        AppLog.w(T.DB, "Can't insert WP.com site " + site.getUrl() + ", missing user account");
+                        continue;
+                    }
+                }
 
-        if (localSites.size() > 0) {
-            // iterate through all local WP.com+Jetpack sites
-            Iterator<SiteModel> localIterator = localSites.iterator();
-            while (localIterator.hasNext()) {
-                SiteModel localSite = localIterator.next();
-
-                // don't remove sites with local changes
-                if (postSqlUtils.getSiteHasLocalChanges(localSite)) {
-                    localIterator.remove();
-                } else {
-                    // don't remove local site if the remote ID matches a given site's ID
-                    for (SiteModel site : sites) {
-                        if (site.getSiteId() == localSite.getSiteId()) {
-                            localIterator.remove();
-                            break;
+                SiteModel siteWithSameSiteId = site.getSiteId() != 0
+                        ? existingSites.get(existingSites.getFirstIdBySiteId(site.getSiteId())) : null;
+                if (siteWithSameSiteId != null) {
+                    site.setMobileEditor(siteWithSameSiteId.getMobileEditor());
+                    site.setWebEditor(siteWithSameSiteId.getWebEditor());
+                }
+
+                try {
+                    int oldId = existingSites.getMatchingId(site);
+                    if (oldId == 0) {
+                        AppLog.d(T.DB, "Inserting site: " + site.getUrl());
+                        WellSql.insert(site).execute();
+                        existingSites.put(site.getId(), site);
+                        result.rowsAffected++;
+                        result.changedLocalSiteIds.add(site.getId());
+                    } else if (updateSite(oldId, existingSites.get(oldId), site) > 0) {
+                        existingSites.put(oldId, site);
+                        result.rowsAffected++;
+                        result.changedLocalSiteIds.add(oldId);
+                    }
+                } catch (DuplicateSiteException e) {
+                    result.duplicateSiteFound = true;
+                }
+            }
+
+            if (postSqlUtils != null) {
+                result.changedLocalSiteIds.addAll(removeWPComRestSitesAbsentFromList(postSqlUtils, existingSites,
+                        sites));
+            }
+            db.setTransactionSuccessful();
+            return result;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Updates the columns of the row with the given local ID that differ between the stored site and the given one.
+     *
+     * @return 0 if none of the columns changed, in which case nothing is written
+     */
+    private static int updateSite(int oldId, SiteModel storedSite, SiteModel site) throws DuplicateSiteException {
+        final ContentValues changedColumns = getChangedColumns(storedSite, site);
+        if (changedColumns.size() == 0) {
+            AppLog.d(T.DB, "Site unchanged: " + site.getUrl());
+            return 0;
+        }
+        AppLog.d(T.DB, "Updating site: " + site.getUrl() + ", changed columns: " + changedColumns.keySet());
+        try {
+            return WellSql.update(SiteModel.class).whereId(oldId)
+                    .put(site, new InsertMapper<SiteModel>() {
+                        @Override
+                        public ContentValues toCv(SiteModel item) {
+                            return changedColumns;
+                        }
+                    }).execute();
+        } catch (SQLiteConstraintException e) {
+            AppLog.e(T.DB, "Error while updating site: siteId=" + site.getSiteId() + " url=" + site.getUrl()
+                    + " xmlrpc=" + site.getXmlRpcUrl(), e);
+            // Can happen on self hosted sites with incorrect url values in wp.getOption response.
+            // See https://github.com/wordpress-mobile/WordPress-FluxC-Android/issues/397
+            throw new DuplicateSiteException();
+        }
+    }
+
+    /**
+     * @return the columns of the given site, except the ID, whose values differ from the ones of the stored site
+     */
+    private static ContentValues getChangedColumns(SiteModel storedSite, SiteModel site) {
+        UpdateAllExceptId<SiteModel> mapper = new UpdateAllExceptId<>(SiteModel.class);
+        ContentValues storedColumns = mapper.toCv(storedSite);
+        ContentValues changedColumns = mapper.toCv(site);
+        for (String column : storedColumns.keySet()) {
+            Object storedValue = storedColumns.get(column);
+            Object value = changedColumns.get(column);
+            if (changedColumns.containsKey(column)
+                && (storedValue == null ? value == null : storedValue.equals(value))) {
+                changedColumns.remove(column);
+            }
+        }
+        return changedColumns;
+    }
+
+    /**
+     * @return the local IDs of the removed sites
+     */
+    private static List<Integer> removeWPComRestSitesAbsentFromList(PostSqlUtils postSqlUtils,
+                                                                    ExistingSites existingSites,
+                                                                    @NonNull List<SiteModel> sites) {
+        Set<Long> siteIdsToKeep = new HashSet<>();
+        for (SiteModel site : sites) {
+            siteIdsToKeep.add(site.getSiteId());
+        }
+        Set<Integer> localSiteIdsWithLocalChanges = postSqlUtils.getLocalSiteIdsWithLocalChanges();
+
+        List<Integer> localSiteIdsToRemove = new ArrayList<>();
+        for (Map.Entry<Integer, SiteModel> entry : existingSites.getAll()) {
+            SiteModel localSite = entry.getValue();
+            if (localSite.getOrigin() == SiteModel.ORIGIN_WPCOM_REST
+                && !siteIdsToKeep.contains(localSite.getSiteId())
+                && !localSiteIdsWithLocalChanges.contains(entry.getKey())) {
+                localSiteIdsToRemove.add(entry.getKey());
+            }
+        }
+
+        for (int i = 0; i < localSiteIdsToRemove.size(); i += ExistingSites.MAX_IN_QUERY_SIZE) {
+            List<Integer> chunk = localSiteIdsToRemove.subList(i,
+                    Math.min(i + ExistingSites.MAX_IN_QUERY_SIZE, localSiteIdsToRemove.size()));
+            WellSql.delete(SiteModel.class).where().isIn(SiteModelTable.ID, chunk).endWhere().execute();
+        }
+        for (Integer localSiteId : localSiteIdsToRemove) {
+            existingSites.remove(localSiteId);
+        }
+        return localSiteIdsToRemove;
+    }
+
+    /**
+     * The sites of the database, indexed like {@link #insertOrUpdateSite(SiteModel)} looks them up.
+     */
+    private static class ExistingSites {
+        // Stay well under SQLite's limit of 999 variables per statement
+        private static final int MAX_IN_QUERY_SIZE = 500;
+
+        private final Map<Integer, SiteModel> mById = new HashMap<>();
+        private final Map<Long, SortedSet<Integer>> mIdsBySiteId = new HashMap<>();
+        private final Map<String, SortedSet<Integer>> mIdsByXmlRpcUrl = new HashMap<>();
+
+        ExistingSites(List<SiteModel> sites) {
+            for (SiteModel site : sites) {
+                put(site.getId(), site);
+            }
+        }
+
+        @Nullable SiteModel get(int id) {
+            return mById.get(id);
+        }
+
+        Set<Map.Entry<Integer, SiteModel>> getAll() {
+            return mById.entrySet();
+        }
+
+        /**
+         * Sets the values of the row with the given local ID.
+         */
+        void put(int id, SiteModel site) {
+            remove(id);
+            mById.put(id, site);
+            addId(mIdsBySiteId, site.getSiteId(), id);
+            addId(mIdsByXmlRpcUrl, site.getXmlRpcUrl(), id);
+        }
+
+        void remove(int id) {
+            SiteModel site = mById.remove(id);
+            if (site != null) {
+                removeId(mIdsBySiteId, site.getSiteId(), id);
+                removeId(mIdsByXmlRpcUrl, site.getXmlRpcUrl(), id);
+            }
+        }
+
+        int getFirstIdBySiteId(long siteId) {
+            SortedSet<Integer> ids = mIdsBySiteId.get(siteId);
+            return ids != null ? ids.first() : 0;
+        }
+
+        /**
+         * @return the local ID of the row the given site should update, or 0 if it should be inserted
+         */
+        int getMatchingId(SiteModel site) throws DuplicateSiteException {
+            if (mById.containsKey(site.getId())) {
+                AppLog.d(T.DB, "Site found by (local) ID: " + site.getId());
+                return site.getId();
+            }
+
+            if (site.getSiteId() > 0) {
+                // For WordPress.com and Jetpack sites, the WP.com ID is a unique enough identifier
+                int id = getFirstIdBySiteId(site.getSiteId());
+                if (id != 0) {
+                    AppLog.d(T.DB, "Site found by SITE_ID: " + site.getSiteId());
+                    return id;
+                }
+            } else {
+                SortedSet<Integer> ids = mIdsBySiteId.get(site.getSiteId());
+                if (ids != null && site.getUrl() != null) {
+                    for (int id : ids) {
+                        if (site.getUrl().equals(mById.get(id).getUrl())) {
+                            AppLog.d(T.DB, "Site found by SITE_ID: " + site.getSiteId() + " and URL: "
+                                           + site.getUrl());
+                            return id;
                         }
                     }
                 }
             }
 
-            // delete applicable sites
-            for (SiteModel site : localSites) {
-                deleteSite(site);
+            // If the site is a self hosted, maybe it's already in the DB as a Jetpack site, and we don't want to
+            // create a duplicate. See insertOrUpdateSite() for the possible cases.
+            int id = getFirstId(mIdsByXmlRpcUrl.get("http://" + UrlUtils.removeScheme(site.getXmlRpcUrl())),
+                    mIdsByXmlRpcUrl.get("https://" + UrlUtils.removeScheme(site.getXmlRpcUrl())));
+            if (id != 0) {
+                AppLog.d(T.DB, "Site found using XML-RPC url: " + site.getXmlRpcUrl());
+                if (mById.get(id).getOrigin() == SiteModel.ORIGIN_WPCOM_REST) {
+                    AppLog.d(T.DB, "Site is a duplicate");
+                    throw new DuplicateSiteException();
+                }
+            }
+            return id;
+        }
+
+        private static int getFirstId(@Nullable SortedSet<Integer> ids, @Nullable SortedSet<Integer> otherIds) {
+            int id = ids != null ? ids.first() : 0;
+            int otherId = otherIds != null ? otherIds.first() : 0;
+            return id == 0 || (otherId != 0 && otherId < id) ? otherId : id;
+        }
+
+        private static <K> void addId(Map<K, SortedSet<Integer>> idsByKey, K key, int id) {
+            SortedSet<Integer> ids = idsByKey.get(key);
+            if (ids == null) {
+                ids = new TreeSet<>();
+                idsByKey.put(key, ids);
             }
+            ids.add(id);
         }
 
-        return localSites.size();
+        private static <K> void removeId(Map<K, SortedSet<Integer>> idsByKey, K key, int id) {
+            SortedSet<Integer> ids = idsByKey.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsByKey.remove(key);
+                }
+            }
+        }
     }
 }
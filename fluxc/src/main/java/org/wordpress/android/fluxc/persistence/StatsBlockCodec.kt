@@ -0,0 +1,254 @@
+package org.wordpress.android.fluxc.persistence
+
+import android.util.Base64
+import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.VisitAndViewsRestClient.VisitsAndViewsResponse
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import java.io.ByteArrayOutputStream
+
+/**
+ * Marks the stats blocks stored with a [StatsBlockCodec], the other blocks are stored as JSON.
+ */
+internal const val BINARY_BLOCK_PREFIX = "#"
+
+private const val NULL_LENGTH = 0
+private const val ROW_MAJOR_TABLE = 0
+private const val COLUMNAR_TABLE = 1
+private const val STRING_COLUMN = 0
+private const val INTEGER_COLUMN = 1
+private const val DATE_COLUMN = 2
+private val DATE_REGEX = Regex("\\d{4}-\\d{2}-\\d{2}")
+
+/**
+ * Compact binary encoding of a stats block type, used instead of JSON for the largest blocks.
+ */
+interface StatsBlockCodec<T> {
+    /**
+     * Stored with every block. Bump it when changing the encoding: the blocks stored with another version are
+     * treated as missing, and fetched again.
+     */
+    val version: Int
+
+    fun write(item: T, writer: StatsBlockWriter)
+
+    fun read(reader: StatsBlockReader): T
+}
+
+fun <T> StatsBlockCodec<T>.encode(item: T): String {
+    val writer = StatsBlockWriter()
+    writer.writeVarInt(version)
+    write(item, writer)
+    return BINARY_BLOCK_PREFIX + Base64.encodeToString(writer.toByteArray(), Base64.NO_WRAP)
+}
+
+/**
+ * @return The decoded block, or null when it was stored with another version of the codec or can't be decoded.
+ */
+fun <T> StatsBlockCodec<T>.decode(block: String): T? {
+    return try {
+        val reader = StatsBlockReader(Base64.decode(block.substring(BINARY_BLOCK_PREFIX.length), Base64.NO_WRAP))
+        if (reader.readVarInt() == version) read(reader) else null
+    } catch (e: IllegalArgumentException) {
+        AppLog.e(T.STATS, "Can't decode stats block", e)
+        null
+    } catch (e: IndexOutOfBoundsException) {
+        AppLog.e(T.STATS, "Can't decode stats block", e)
+        null
+    }
+}
+
+/**
+ * Writes ZigZag varints and strings. Tables of strings are stored by column, and the columns holding only
+ * integers or dates are stored as varint deltas between consecutive rows.
+ */
+class StatsBlockWriter {
+    private val output = ByteArrayOutputStream()
+
+    fun writeVarLong(value: Long) {
+        // ZigZag keeps the small negative values small
+        var remaining = (value shl 1) xor (value shr 63)
+        while (remaining and 0x7FL.inv() != 0L) {
+            output.write(((remaining and 0x7F) or 0x80).toInt())
+            remaining = remaining ushr 7
+        }
+        output.write(remaining.toInt())
+    }
+
+    fun writeVarInt(value: Int) = writeVarLong(value.toLong())
+
+    fun writeString(value: String?) {
+        if (value == null) {
+            writeVarInt(NULL_LENGTH)
+            return
+        }
+        val bytes = value.toByteArray(Charsets.UTF_8)
+        writeVarInt(bytes.size + 1)
+        output.write(bytes, 0, bytes.size)
+    }
+
+    fun writeStrings(values: List<String?>?) {
+        if (values == null) {
+            writeVarInt(NULL_LENGTH)
+            return
+        }
+        writeVarInt(values.size + 1)
+        values.forEach { writeString(it) }
+    }
+
+    fun writeTable(rows: List<List<String?>?>?) {
+        if (rows == null) {
+            writeVarInt(NULL_LENGTH)
+            return
+        }
+        writeVarInt(rows.size + 1)
+        val columnCount = rows.firstOrNull()?.size ?: 0
+        if (rows.any { it == null || it.size != columnCount }) {
+            writeVarInt(ROW_MAJOR_TABLE)
+            rows.forEach { writeStrings(it) }
+            return
+        }
+        writeVarInt(COLUMNAR_TABLE)
+        writeVarInt(columnCount)
+        for (column in 0 until columnCount) {
+            writeColumn(rows.map { it!![column] })
+        }
+    }
+
+    fun toByteArray(): ByteArray = output.toByteArray()
+
+    private fun writeColumn(values: List<String?>) {
+        val integers = values.map { value -> value?.toLongOrNull()?.takeIf { it.toString() == value } }
+        if (integers.all { it != null }) {
+            writeVarInt(INTEGER_COLUMN)
+            writeDeltas(integers.map { it!! })
+            return
+        }
+        if (values.all { it != null && DATE_REGEX.matches(it) }) {
+            writeVarInt(DATE_COLUMN)
+            // 2018-10-09 is stored as 20181009, consecutive days are mostly one apart
+            writeDeltas(values.map { (it!!.substring(0, 4) + it.substring(5, 7) + it.substring(8, 10)).toLong() })
+            return
+        }
+        writeVarInt(STRING_COLUMN)
+        values.forEach { writeString(it) }
+    }
+
+    private fun writeDeltas(values: List<Long>) {
+        var previous = 0L
+        for (value in values) {
+            writeVarLong(value - previous)
+            previous = value
+        }
+    }
+}
+
+class StatsBlockReader(private val bytes: ByteArray) {
+    private var position = 0
+
+    fun readVarLong(): Long {
+        var result = 0L
+        var shift = 0
+        while (true) {
+            val byte = bytes[position++].toInt()
+            result = result or ((byte and 0x7F).toLong() shl shift)
+            if (byte and 0x80 == 0) {
+                break
+            }
+            shift += 7
+        }
+        return (result ushr 1) xor -(result and 1)
+    }
+
+    fun readVarInt() = readVarLong().toInt()
+
+    fun readString(): String? {
+        val length = readVarInt() - 1
+        if (length < 0) {
+            return null
+        }
+        checkRemaining(length)
+        val value = String(bytes, position, length, Charsets.UTF_8)
+        position += length
+        return value
+    }
+
+    fun readStrings(): List<String?>? {
+        val size = readVarInt() - 1
+        if (size < 0) {
+            return null
+        }
+        checkRemaining(size)
+        return List(size) { readString() }
+    }
+
+    fun readTable(): List<List<String?>?>? {
+        val rowCount = readVarInt() - 1
+        if (rowCount < 0) {
+            return null
+        }
+        checkRemaining(rowCount)
+        if (readVarInt() == ROW_MAJOR_TABLE) {
+            return List(rowCount) { readStrings() }
+        }
+        val columnCount = readVarInt()
+        checkRemaining(columnCount)
+        val columns = List(columnCount) { readColumn(rowCount) }
+        return List(rowCount) { row -> columns.map { it[row] } }
+    }
+
+    /**
+     * Every value takes at least a byte, fails early on a corrupted size.
+     */
+    private fun checkRemaining(size: Int) {
+        if (size > bytes.size - position) {
+            throw IndexOutOfBoundsException("$size values at $position, block of ${bytes.size} bytes")
+        }
+    }
+
+    private fun readColumn(rowCount: Int): List<String?> {
+        return when (val type = readVarInt()) {
+            STRING_COLUMN -> List(rowCount) { readString() }
+            INTEGER_COLUMN -> readDeltas(rowCount).map { it.toString() }
+            DATE_COLUMN -> readDeltas(rowCount).map { formatDate(it) }
+            else -> throw IllegalArgumentException("Unknown column type $type")
+        }
+    }
+
+    private fun readDeltas(count: Int): List<Long> {
+        var previous = 0L
+        return List(count) {
+            previous += readVarLong()
+            previous
+        }
+    }
+
+    private fun formatDate(value: Long): String {
+        val year = (value / 10000).toString().padStart(4, '0')
+        val month = (value / 100 % 100).toString().padStart(2, '0')
+        val day = (value % 100).toString().padStart(2, '0')
+        return "$year-$month-$day"
+    }
+}
+
+/**
+ * Years of daily visits make the largest blocks, their data table is mostly dates and integers.
+ */
+object VisitsAndViewsBlockCodec : StatsBlockCodec<VisitsAndViewsResponse> {
+    override val version = 1
+
+    override fun write(item: VisitsAndViewsResponse, writer: StatsBlockWriter) {
+        writer.writeString(item.date)
+        writer.writeString(item.unit)
+        writer.writeStrings(item.fields)
+        writer.writeTable(item.data)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun read(reader: StatsBlockReader): VisitsAndViewsResponse {
+        val date = reader.readString()
+        val unit = reader.readString()
+        val fields = reader.readStrings() as List<String>?
+        val data = reader.readTable() as List<List<String>?>?
+        return VisitsAndViewsResponse(date, fields, data, unit)
+    }
+}
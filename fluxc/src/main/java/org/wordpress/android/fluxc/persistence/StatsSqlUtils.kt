@@ -1,5 +1,6 @@
 package org.wordpress.android.fluxc.persistence
 
+import android.util.LruCache
 import com.google.gson.Gson
 import com.google.gson.GsonBuilder
 import com.wellsql.generated.StatsBlockTable
@@ -10,11 +11,16 @@ import com.yarolegovich.wellsql.core.annotation.Column
 import com.yarolegovich.wellsql.core.annotation.PrimaryKey
 import com.yarolegovich.wellsql.core.annotation.Table
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.VisitAndViewsRestClient.VisitsAndViewsResponse
+import java.util.concurrent.atomic.AtomicLong
 import javax.inject.Inject
 import javax.inject.Singleton
 
 const val DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ssZ"
 
+// Budget of the decoded blocks cache, measured in characters of the stored blocks
+private const val DECODED_BLOCKS_CACHE_SIZE = 2 * 1024 * 1024
+
 @Singleton
 class StatsSqlUtils
 @Inject constructor() {
@@ -24,6 +30,29 @@ class StatsSqlUtils
         builder.create()
     }
 
+    /**
+     * Decoded blocks, so that reading the same stats again doesn't query the database nor parse the JSON. The cached
+     * models are shared between the readers and must not be modified.
+     */
+    private val decodedBlocks = object : LruCache<BlockKey, DecodedBlocks>(DECODED_BLOCKS_CACHE_SIZE) {
+        override fun sizeOf(key: BlockKey, value: DecodedBlocks) = value.size
+    }
+
+    // Incremented on every write, a read that overlaps with a write doesn't cache what it read
+    private val generation = AtomicLong()
+
+    // Resetting the database drops the stored blocks, on sign out for instance
+    private val resetListener = WellSqlConfig.OnResetListener { evictAll() }
+
+    init {
+        WellSqlConfig.addOnResetListener(resetListener)
+    }
+
+    // Block types stored in a compact binary format rather than as JSON
+    private val codecs: Map<Class<*>, StatsBlockCodec<*>> = mapOf(
+            VisitsAndViewsResponse::class.java to VisitsAndViewsBlockCodec
+    )
+
     fun <T> insert(
         site: SiteModel,
         blockType: BlockType,
@@ -33,7 +62,7 @@ class StatsSqlUtils
         date: String? = null,
         postId: Long? = null
     ) {
-        val json = gson.toJson(item)
+        val json = encode(item)
         if (replaceExistingData) {
             var deleteStatement = WellSql.delete(StatsBlockBuilder::class.java)
                     .where()
@@ -58,6 +87,7 @@ class StatsSqlUtils
                         json = json
                 )
         ).execute()
+        invalidate { it.localSiteId == site.id && it.blockType == blockType && it.statsType == statsType }
     }
 
     fun <T> selectAll(
@@ -68,8 +98,7 @@ class StatsSqlUtils
         date: String? = null,
         postId: Long? = null
     ): List<T> {
-        val models = createSelectStatement(site, blockType, statsType, date, postId).asModel
-        return models.map { gson.fromJson(it.json, classOfT) }
+        return selectDecoded(BlockKey(site.id, blockType, statsType, date, postId, false), classOfT)
     }
 
     fun <T> select(
@@ -80,27 +109,78 @@ class StatsSqlUtils
         date: String? = null,
         postId: Long? = null
     ): T? {
-        val model = createSelectStatement(site, blockType, statsType, date, postId).asModel.firstOrNull()
-        if (model != null) {
-            return gson.fromJson(model.json, classOfT)
-        }
-        return null
+        return selectDecoded(BlockKey(site.id, blockType, statsType, date, postId, true), classOfT).firstOrNull()
     }
 
     fun deleteAllStats(): Int {
-        return WellSql.delete(StatsBlockBuilder::class.java).execute()
+        val deleted = WellSql.delete(StatsBlockBuilder::class.java).execute()
+        evictAll()
+        return deleted
     }
 
     fun deleteSiteStats(site: SiteModel): Int {
-        return WellSql.delete(StatsBlockBuilder::class.java)
+        val deleted = WellSql.delete(StatsBlockBuilder::class.java)
                 .where()
                 .equals(StatsBlockTable.LOCAL_SITE_ID, site.id)
                 .endWhere()
                 .execute()
+        invalidate { it.localSiteId == site.id }
+        return deleted
+    }
+
+    fun getCacheMetrics(): CacheMetrics {
+        return CacheMetrics(decodedBlocks.hitCount(), decodedBlocks.missCount(), decodedBlocks.size(),
+                decodedBlocks.maxSize())
+    }
+
+    private fun <T> selectDecoded(key: BlockKey, classOfT: Class<T>): List<T> {
+        val cached = decodedBlocks.get(key)
+        if (cached != null && cached.items.all { classOfT.isInstance(it) }) {
+            @Suppress("UNCHECKED_CAST")
+            return cached.items as List<T>
+        }
+        val readGeneration = generation.get()
+        val statement = createSelectStatement(key.localSiteId, key.blockType, key.statsType, key.date, key.postId)
+        val models = if (key.firstOnly) listOfNotNull(statement.asModel.firstOrNull()) else statement.asModel
+        val items = models.mapNotNull { decode(it.json, classOfT) }
+        if (generation.get() == readGeneration) {
+            decodedBlocks.put(key, DecodedBlocks(items, maxOf(models.sumBy { it.json.length }, 1)))
+            // A write may have happened between the check and the put
+            if (generation.get() != readGeneration) {
+                decodedBlocks.remove(key)
+            }
+        }
+        return items
+    }
+
+    private fun encode(item: Any?): String {
+        @Suppress("UNCHECKED_CAST")
+        val codec = item?.let { codecs[it.javaClass] } as StatsBlockCodec<Any>?
+        return codec?.encode(item!!) ?: gson.toJson(item)
+    }
+
+    private fun <T> decode(block: String, classOfT: Class<T>): T? {
+        if (!block.startsWith(BINARY_BLOCK_PREFIX)) {
+            // Stored as JSON, either before the block type had a codec or because it doesn't have one
+            return gson.fromJson(block, classOfT)
+        }
+        @Suppress("UNCHECKED_CAST")
+        val codec = codecs[classOfT] as StatsBlockCodec<T>?
+        return codec?.decode(block)
+    }
+
+    private fun invalidate(predicate: (BlockKey) -> Boolean) {
+        generation.incrementAndGet()
+        decodedBlocks.snapshot().keys.filter(predicate).forEach { decodedBlocks.remove(it) }
+    }
+
+    private fun evictAll() {
+        generation.incrementAndGet()
+        decodedBlocks.evictAll()
     }
 
     private fun createSelectStatement(
-        site: SiteModel,
+        localSiteId: Int,
         blockType: BlockType,
         statsType: StatsType,
         date: String?,
@@ -108,7 +188,7 @@ class StatsSqlUtils
     ): SelectQuery<StatsBlockBuilder> {
         var select = WellSql.select(StatsBlockBuilder::class.java)
                 .where()
-                .equals(StatsBlockTable.LOCAL_SITE_ID, site.id)
+                .equals(StatsBlockTable.LOCAL_SITE_ID, localSiteId)
                 .equals(StatsBlockTable.BLOCK_TYPE, blockType.name)
                 .equals(StatsBlockTable.STATS_TYPE, statsType.name)
         if (date != null) {
@@ -120,6 +200,22 @@ class StatsSqlUtils
         return select.endWhere()
     }
 
+    data class CacheMetrics(val hitCount: Int, val missCount: Int, val size: Int, val maxSize: Int)
+
+    /**
+     * A null [date] or [postId] matches the blocks of any date or post, [firstOnly] is set for [select].
+     */
+    private data class BlockKey(
+        val localSiteId: Int,
+        val blockType: BlockType,
+        val statsType: StatsType,
+        val date: String?,
+        val postId: Long?,
+        val firstOnly: Boolean
+    )
+
+    private class DecodedBlocks(val items: List<Any?>, val size: Int)
+
     @Table(name = "StatsBlock")
     data class StatsBlockBuilder(
         @PrimaryKey @Column private var mId: Int = -1,
@@ -128,6 +224,7 @@ class StatsSqlUtils
         @Column var statsType: String,
         @Column var date: String?,
         @Column var postId: Long?,
+        // JSON, or the binary format of the block types with a StatsBlockCodec
         @Column var json: String
     ) : Identifiable {
         constructor() : this(-1, -1, "", "", null, null, "")
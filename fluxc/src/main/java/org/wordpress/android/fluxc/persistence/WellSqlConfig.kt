@@ -1,22 +1,70 @@
 package org.wordpress.android.fluxc.persistence
 
+import android.content.ContentValues
 import android.content.Context
 import android.database.sqlite.SQLiteDatabase
 import android.os.Build
 import android.preference.PreferenceManager
 import androidx.annotation.StringDef
+import com.google.gson.JsonObject
+import com.google.gson.JsonParser
 import com.yarolegovich.wellsql.DefaultWellConfig
 import com.yarolegovich.wellsql.WellSql
 import com.yarolegovich.wellsql.WellTableManager
 import org.wordpress.android.fluxc.BuildConfig
 import org.wordpress.android.util.AppLog
 import org.wordpress.android.util.AppLog.T
+import java.util.Collections
+import java.util.WeakHashMap
 import kotlin.annotation.AnnotationRetention.SOURCE
 import kotlin.annotation.AnnotationTarget.VALUE_PARAMETER
 
 open class WellSqlConfig : DefaultWellConfig {
     companion object {
         const val ADDON_WOOCOMMERCE = "WC"
+
+        /**
+         * Indexes on the columns the most frequent lookups filter on. Tables are created without them, so they're
+         * created along with the tables in [onCreate] and [reset].
+         */
+        private val INDEXES = listOf(
+                TableIndex("PostModel", "LOCAL_SITE_ID", "REMOTE_POST_ID"),
+                // Page searches only read the titles from this index
+                TableIndex("PostModel", "LOCAL_SITE_ID", "IS_PAGE", "TITLE"),
+                TableIndex("MediaModel", "LOCAL_SITE_ID", "MEDIA_ID"),
+                TableIndex("WCProductModel", "LOCAL_SITE_ID", "REMOTE_PRODUCT_ID"),
+                TableIndex("NotificationModel", "REMOTE_NOTE_ID", "REMOTE_SITE_ID"),
+                TableIndex("StatsBlock", "LOCAL_SITE_ID", "BLOCK_TYPE", "STATS_TYPE", "DATE"),
+                TableIndex("WCOrderLineItemModel", "LOCAL_SITE_ID", "PRODUCT_ID"),
+                TableIndex("WCOrderLineItemModel", "LOCAL_ORDER_ID")
+        )
+
+        // Weakly referenced, being registered doesn't keep a listener alive
+        private val resetListeners = Collections.newSetFromMap(WeakHashMap<OnResetListener, Boolean>())
+
+        /**
+         * Registers a [listener] notified every time the tables are reset. The listener is only weakly referenced,
+         * its owner has to keep a reference to it.
+         */
+        @JvmStatic
+        fun addOnResetListener(listener: OnResetListener) {
+            synchronized(resetListeners) {
+                resetListeners.add(listener)
+            }
+        }
+    }
+
+    /**
+     * Notified after the tables were dropped and created again, so that what was loaded from them and kept in memory
+     * is dropped too.
+     */
+    fun interface OnResetListener {
+        fun onReset()
+    }
+
+    private class TableIndex(val tableName: String, vararg val columns: String) {
+        val createStatement = "CREATE INDEX IF NOT EXISTS ${tableName}_${columns.joinToString("_")}_INDEX " +
+                "ON $tableName (${columns.joinToString(",")})"
     }
 
     constructor(context: Context) : super(context)
@@ -27,8 +75,17 @@ open class WellSqlConfig : DefaultWellConfig {
     @Target(VALUE_PARAMETER)
     annotation class AddOn
 
+    /**
+     * How often SQLite waits for the changes to reach the disk, see
+     * https://www.sqlite.org/pragma.html#pragma_synchronous. With write-ahead logging, [NORMAL] can only lose the last
+     * commits on a power loss, it never corrupts the database.
+     */
+    enum class Synchronous {
+        OFF, NORMAL, FULL
+    }
+
     override fun getDbVersion(): Int {
-        return 118
+        return 121
     }
 
     override fun getDbName(): String {
@@ -37,6 +94,7 @@ open class WellSqlConfig : DefaultWellConfig {
 
     override fun onCreate(db: SQLiteDatabase, helper: WellTableManager) {
         mTables.forEach { table -> helper.createTable(table) }
+        createIndexes(db)
     }
 
     @Suppress("CheckStyle")
@@ -1292,6 +1350,45 @@ open class WellSqlConfig : DefaultWellConfig {
                     db.execSQL("CREATE TABLE StockMediaPage (_id INTEGER PRIMARY KEY AUTOINCREMENT,PAGE INTEGER," +
                             "NEXT_PAGE INTEGER)")
                 }
+                118 -> {
+                    migrate(version) {
+                        db.execSQL("CREATE INDEX IF NOT EXISTS PostModel_LOCAL_SITE_ID_REMOTE_POST_ID_INDEX " +
+                                "ON PostModel (LOCAL_SITE_ID,REMOTE_POST_ID)")
+                        db.execSQL("CREATE INDEX IF NOT EXISTS MediaModel_LOCAL_SITE_ID_MEDIA_ID_INDEX " +
+                                "ON MediaModel (LOCAL_SITE_ID,MEDIA_ID)")
+                        db.execSQL("CREATE INDEX IF NOT EXISTS NotificationModel_REMOTE_NOTE_ID_REMOTE_SITE_ID_INDEX " +
+                                "ON NotificationModel (REMOTE_NOTE_ID,REMOTE_SITE_ID)")
+                        db.execSQL("CREATE INDEX IF NOT EXISTS " +
+                                "StatsBlock_LOCAL_SITE_ID_BLOCK_TYPE_STATS_TYPE_DATE_INDEX " +
+                                "ON StatsBlock (LOCAL_SITE_ID,BLOCK_TYPE,STATS_TYPE,DATE)")
+                    }
+                    migrateAddOn(ADDON_WOOCOMMERCE, version) {
+                        db.execSQL("CREATE INDEX IF NOT EXISTS WCProductModel_LOCAL_SITE_ID_REMOTE_PRODUCT_ID_INDEX " +
+                                "ON WCProductModel (LOCAL_SITE_ID,REMOTE_PRODUCT_ID)")
+                    }
+                }
+                119 -> migrateAddOn(ADDON_WOOCOMMERCE, version) {
+                    db.execSQL("DROP TABLE IF EXISTS WCOrderLineItemModel")
+                    db.execSQL("CREATE TABLE WCOrderLineItemModel (" +
+                            "_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "LOCAL_SITE_ID INTEGER," +
+                            "LOCAL_ORDER_ID INTEGER," +
+                            "REMOTE_LINE_ITEM_ID INTEGER," +
+                            "PRODUCT_ID INTEGER," +
+                            "VARIATION_ID INTEGER," +
+                            "NAME TEXT NOT NULL," +
+                            "QUANTITY REAL," +
+                            "TOTAL TEXT NOT NULL)")
+                    db.execSQL("CREATE INDEX IF NOT EXISTS WCOrderLineItemModel_LOCAL_SITE_ID_PRODUCT_ID_INDEX " +
+                            "ON WCOrderLineItemModel (LOCAL_SITE_ID,PRODUCT_ID)")
+                    db.execSQL("CREATE INDEX IF NOT EXISTS WCOrderLineItemModel_LOCAL_ORDER_ID_INDEX " +
+                            "ON WCOrderLineItemModel (LOCAL_ORDER_ID)")
+                    insertLineItemsOfCachedOrders(db)
+                }
+                120 -> migrate(version) {
+                    db.execSQL("CREATE INDEX IF NOT EXISTS PostModel_LOCAL_SITE_ID_IS_PAGE_TITLE_INDEX " +
+                            "ON PostModel (LOCAL_SITE_ID,IS_PAGE,TITLE)")
+                }
             }
         }
         db.setTransactionSuccessful()
@@ -1305,8 +1402,32 @@ open class WellSqlConfig : DefaultWellConfig {
         } else {
             db.execSQL("PRAGMA foreign_keys=ON")
         }
+        if (isWriteAheadLoggingEnabled()) {
+            if (isReadConnectionPoolEnabled()) {
+                db.enableWriteAheadLogging()
+            } else {
+                // Returns the new journal mode, so it can't go through execSQL
+                db.rawQuery("PRAGMA journal_mode=WAL", null).use { it.moveToFirst() }
+            }
+        }
+        db.execSQL("PRAGMA synchronous=${getSynchronous().name}")
     }
 
+    /**
+     * With write-ahead logging, the stores' background writes don't block the reads of the other threads, and
+     * commits only append to the log instead of rewriting the journal.
+     */
+    open fun isWriteAheadLoggingEnabled() = true
+
+    /**
+     * Only used with write-ahead logging. When enabled, the framework opens extra read-only connections so that
+     * reads run in parallel with each other and with the current write transaction. When disabled, every query
+     * goes through the single primary connection.
+     */
+    open fun isReadConnectionPoolEnabled() = true
+
+    open fun getSynchronous() = if (isWriteAheadLoggingEnabled()) Synchronous.NORMAL else Synchronous.FULL
+
     /**
      * For debug builds we want a cursor window size of 5MB so we can test for any problems caused by
      * a larger size. Once we're confident this works we'll return 5MB in release builds to hopefully
@@ -1325,14 +1446,43 @@ open class WellSqlConfig : DefaultWellConfig {
             val table = getTable(clazz)
             db.execSQL("DROP TABLE IF EXISTS ${table.tableName}")
             db.execSQL(table.createStatement())
+            createIndexes(db, table.tableName)
         }
+        notifyResetListeners()
     }
 
     /**
-     * Recreates all the tables in this database - similar to the above but can be used from onDowngrade where we can't
-     * call giveMeWritableDb (attempting to do so results in "IllegalStateException: getDatabase called recursively")
+     * Recreates all the tables in this database, along with their indexes - similar to the above but can be used from
+     * onDowngrade where we can't call giveMeWritableDb (attempting to do so results in "IllegalStateException:
+     * getDatabase called recursively")
+     *
+     * @param db the database passed to onDowngrade
      */
+    fun reset(db: SQLiteDatabase, helper: WellTableManager) {
+        resetTables(helper)
+        createIndexes(db)
+        notifyResetListeners()
+    }
+
+    /**
+     * Recreates all the tables in this database, without their indexes since [WellTableManager] doesn't give access to
+     * the database they're created with.
+     */
+    @Deprecated("The indexes aren't created", ReplaceWith("reset(db, helper)"))
     fun reset(helper: WellTableManager) {
+        resetTables(helper)
+        notifyResetListeners()
+    }
+
+    /**
+     * To be called by the subclasses overriding [reset], once the tables were reset.
+     */
+    protected fun notifyResetListeners() {
+        val listeners = synchronized(resetListeners) { resetListeners.toList() }
+        listeners.forEach { it.onReset() }
+    }
+
+    private fun resetTables(helper: WellTableManager) {
         AppLog.d(T.DB, "resetting tables")
         for (table in mTables) {
             AppLog.d(T.DB, "dropping table " + table.simpleName)
@@ -1342,6 +1492,60 @@ open class WellSqlConfig : DefaultWellConfig {
         }
     }
 
+    /**
+     * Creates the missing indexes of all the tables in this database
+     */
+    fun createIndexes(db: SQLiteDatabase) {
+        mTables.forEach { clazz -> createIndexes(db, getTable(clazz).tableName) }
+    }
+
+    /**
+     * Creates the missing indexes of the given table
+     */
+    fun createIndexes(db: SQLiteDatabase, tableName: String) {
+        INDEXES.filter { it.tableName == tableName }.forEach { db.execSQL(it.createStatement) }
+    }
+
+    /**
+     * Fills the WCOrderLineItemModel table from the LINE_ITEMS JSON of the cached orders, the same way
+     * `OrderSqlUtils.insertOrUpdateOrder` saves them. Orders whose JSON can't be parsed are left without line items
+     * until they're fetched again.
+     */
+    private fun insertLineItemsOfCachedOrders(db: SQLiteDatabase) {
+        db.rawQuery("SELECT _id, LOCAL_SITE_ID, LINE_ITEMS FROM WCOrderModel", null).use { cursor ->
+            while (cursor.moveToNext()) {
+                val lineItems = try {
+                    parseLineItems(cursor.getString(2))
+                } catch (e: RuntimeException) {
+                    AppLog.e(T.DB, "Can't parse the line items of order ${cursor.getInt(0)}", e)
+                    emptyList<ContentValues>()
+                }
+                lineItems.forEach { values ->
+                    values.put("LOCAL_SITE_ID", cursor.getInt(1))
+                    values.put("LOCAL_ORDER_ID", cursor.getInt(0))
+                    db.insert("WCOrderLineItemModel", null, values)
+                }
+            }
+        }
+    }
+
+    private fun parseLineItems(json: String?): List<ContentValues> {
+        val lineItems = JsonParser().parse(json ?: "").takeIf { it.isJsonArray }?.asJsonArray ?: return emptyList()
+        return lineItems.filter { it.isJsonObject }.map { element ->
+            val lineItem = element.asJsonObject
+            ContentValues().apply {
+                put("REMOTE_LINE_ITEM_ID", lineItem.getOrNull("id")?.asLong ?: 0L)
+                put("PRODUCT_ID", lineItem.getOrNull("product_id")?.asLong ?: 0L)
+                put("VARIATION_ID", lineItem.getOrNull("variation_id")?.asLong ?: 0L)
+                put("NAME", lineItem.getOrNull("name")?.asString ?: "")
+                put("QUANTITY", lineItem.getOrNull("quantity")?.asFloat?.toDouble() ?: 0.0)
+                put("TOTAL", lineItem.getOrNull("total")?.asString ?: "")
+            }
+        }
+    }
+
+    private fun JsonObject.getOrNull(memberName: String) = get(memberName)?.takeUnless { it.isJsonNull }
+
     private fun migrate(version: Int, script: () -> Unit) {
         AppLog.d(T.DB, "Migrating to version ${version + 1}")
         script()
@@ -14,6 +14,7 @@ import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.AccountAction;
 import org.wordpress.android.fluxc.action.AuthenticationAction;
+import org.wordpress.android.fluxc.annotations.StoreActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.AccountModel;
@@ -52,6 +53,7 @@ import javax.inject.Singleton;
 /**
  * In-memory based and persisted in SQLite.
  */
+@StoreActions({AccountAction.class, AuthenticationAction.class})
 @Singleton
 public class AccountStore extends Store {
     // Payloads
@@ -10,6 +10,7 @@ import org.wordpress.android.fluxc.action.ActivityLogAction
 import org.wordpress.android.fluxc.action.ActivityLogAction.FETCH_ACTIVITIES
 import org.wordpress.android.fluxc.action.ActivityLogAction.FETCH_REWIND_STATE
 import org.wordpress.android.fluxc.action.ActivityLogAction.REWIND
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.activity.ActivityLogModel
@@ -24,6 +25,7 @@ import javax.inject.Singleton
 
 private const val ACTIVITY_LOG_PAGE_SIZE = 10
 
+@StoreActions(ActivityLogAction::class)
 @Singleton
 class ActivityLogStore
 @Inject constructor(
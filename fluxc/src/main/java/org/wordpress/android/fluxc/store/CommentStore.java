@@ -13,6 +13,7 @@ import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.CommentAction;
+import org.wordpress.android.fluxc.annotations.StoreActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.CommentModel;
@@ -34,6 +35,7 @@ import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+@StoreActions(CommentAction.class)
 @Singleton
 public class CommentStore extends Store {
     private final CommentRestClient mCommentRestClient;
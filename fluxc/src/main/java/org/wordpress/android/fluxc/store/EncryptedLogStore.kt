@@ -8,6 +8,7 @@ import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.EncryptedLogAction
 import org.wordpress.android.fluxc.action.EncryptedLogAction.RESET_UPLOAD_STATES
 import org.wordpress.android.fluxc.action.EncryptedLogAction.UPLOAD_LOG
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.encryptedlogging.EncryptedLog
 import org.wordpress.android.fluxc.model.encryptedlogging.EncryptedLogUploadState.FAILED
@@ -15,6 +16,7 @@ import org.wordpress.android.fluxc.model.encryptedlogging.EncryptedLogUploadStat
 import org.wordpress.android.fluxc.model.encryptedlogging.LogEncrypter
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError
 import org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog.EncryptedLogRestClient
+import org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog.EncryptedLogUploadRequestBody
 import org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog.UploadEncryptedLogResult.LogUploadFailed
 import org.wordpress.android.fluxc.network.rest.wpcom.encryptedlog.UploadEncryptedLogResult.LogUploaded
 import org.wordpress.android.fluxc.persistence.EncryptedLogSqlUtils
@@ -49,6 +51,7 @@ private const val TOO_MANY_REQUESTS_ERROR_DELAY = 60 * 60 * 1000L // 1 hour
 private const val REGULAR_UPLOAD_FAILURE_DELAY = 60 * 1000L // 1 minute
 private const val MAX_RETRY_COUNT = 3
 
+@StoreActions(EncryptedLogAction::class)
 @Singleton
 class EncryptedLogStore @Inject constructor(
     private val encryptedLogRestClient: EncryptedLogRestClient,
@@ -142,20 +145,18 @@ class EncryptedLogStore @Inject constructor(
             uploadNext()
             return
         }
-        try {
-            val encryptedText = logEncrypter.encrypt(text = encryptedLog.file.readText(), uuid = encryptedLog.uuid)
+        // The log is encrypted while it's being uploaded, a missing encryption library fails the upload with an
+        // `UnsatisfiedLinkException` error
+        val encryptedContents = EncryptedLogUploadRequestBody(encryptedLog.file, encryptedLog.uuid, logEncrypter)
 
-            // Update the upload state of the log
-            encryptedLog.copy(uploadState = UPLOADING).let {
-                encryptedLogSqlUtils.insertOrUpdateEncryptedLog(it)
-            }
+        // Update the upload state of the log
+        encryptedLog.copy(uploadState = UPLOADING).let {
+            encryptedLogSqlUtils.insertOrUpdateEncryptedLog(it)
+        }
 
-            when (val result = encryptedLogRestClient.uploadLog(encryptedLog.uuid, encryptedText)) {
-                is LogUploaded -> handleSuccessfulUpload(encryptedLog)
-                is LogUploadFailed -> handleFailedUpload(encryptedLog, result.error)
-            }
-        } catch (e: UnsatisfiedLinkError) {
-            handleFailedUpload(encryptedLog, UnsatisfiedLinkException)
+        when (val result = encryptedLogRestClient.uploadLog(encryptedLog.uuid, encryptedContents)) {
+            is LogUploaded -> handleSuccessfulUpload(encryptedLog)
+            is LogUploadFailed -> handleFailedUpload(encryptedLog, result.error)
         }
     }
 
@@ -17,17 +17,20 @@ import org.wordpress.android.fluxc.action.ListAction.LIST_ITEMS_REMOVED
 import org.wordpress.android.fluxc.action.ListAction.LIST_REQUIRES_REFRESH
 import org.wordpress.android.fluxc.action.ListAction.REMOVE_ALL_LISTS
 import org.wordpress.android.fluxc.action.ListAction.REMOVE_EXPIRED_LISTS
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
-import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.list.LIST_STATE_TIMEOUT
 import org.wordpress.android.fluxc.model.list.ListDescriptor
 import org.wordpress.android.fluxc.model.list.ListDescriptorTypeIdentifier
 import org.wordpress.android.fluxc.model.list.ListItemModel
+import org.wordpress.android.fluxc.model.list.ListItemRangeChange
 import org.wordpress.android.fluxc.model.list.ListModel
 import org.wordpress.android.fluxc.model.list.ListState
 import org.wordpress.android.fluxc.model.list.ListState.FETCHED
 import org.wordpress.android.fluxc.model.list.PagedListFactory
+import org.wordpress.android.fluxc.model.list.PagedListUpdatesLiveData
 import org.wordpress.android.fluxc.model.list.PagedListWrapper
+import org.wordpress.android.fluxc.model.list.RemoteIdList
 import org.wordpress.android.fluxc.model.list.datasource.InternalPagedListDataSource
 import org.wordpress.android.fluxc.model.list.datasource.ListItemDataSourceInterface
 import org.wordpress.android.fluxc.persistence.ListItemSqlUtils
@@ -49,6 +52,7 @@ const val DEFAULT_EXPIRATION_DURATION = 1000L * 60 * 60 * 24 * 7
  * as little as possible to the consumers and make sure the exposed parts are immutable. This not only moves the
  * responsibility of mutation to the Store but also makes it much easier to use the exposed data.
  */
+@StoreActions(ListAction::class)
 @Singleton
 class ListStore @Inject constructor(
     private val listSqlUtils: ListSqlUtils,
@@ -82,6 +86,9 @@ class ListStore @Inject constructor(
      * @param dataSource Describes how to take certain actions such as fetching a list for the item type [LIST_ITEM].
      * @param lifecycle The lifecycle of the client that'll be consuming this list. It's used to make sure everything
      * is cleaned up properly once the client is destroyed.
+     * @param emitItemRangeChanges Whether each reload of the list should compare the remote item ids with the previous
+     * ones and deliver the inserted and removed ranges with the new `PagedList` through
+     * [PagedListWrapper.pagedListUpdates], so that clients can update the list by position instead of diffing it.
      *
      * @return A [PagedListWrapper] that provides all the necessary information to consume a list such as its data,
      * whether the first page is being fetched, whether there are any errors etc. in `LiveData` format.
@@ -89,14 +96,26 @@ class ListStore @Inject constructor(
     fun <LIST_DESCRIPTOR : ListDescriptor, ITEM_IDENTIFIER, LIST_ITEM> getList(
         listDescriptor: LIST_DESCRIPTOR,
         dataSource: ListItemDataSourceInterface<LIST_DESCRIPTOR, ITEM_IDENTIFIER, LIST_ITEM>,
-        lifecycle: Lifecycle
+        lifecycle: Lifecycle,
+        emitItemRangeChanges: Boolean = false
     ): PagedListWrapper<LIST_ITEM> {
-        val factory = createPagedListFactory(listDescriptor, dataSource)
+        // The data sources are only created once the list is observed, after the updates are set
+        lateinit var pagedListUpdates: PagedListUpdatesLiveData<LIST_ITEM>
+        val factory = createPagedListFactory(
+                listDescriptor = listDescriptor,
+                dataSource = dataSource,
+                onItemRangesCalculated = if (emitItemRangeChanges) {
+                    { source, changes -> pagedListUpdates.record(source, changes) }
+                } else {
+                    null
+                }
+        )
         val pagedListData = createPagedListLiveData(
                 listDescriptor = listDescriptor,
                 dataSource = dataSource,
                 pagedListFactory = factory
         )
+        pagedListUpdates = PagedListUpdatesLiveData(pagedListData)
         return PagedListWrapper(
                 data = pagedListData,
                 dispatcher = mDispatcher,
@@ -108,7 +127,8 @@ class ListStore @Inject constructor(
                     }
                 },
                 invalidate = factory::invalidate,
-                parentCoroutineContext = coroutineContext
+                parentCoroutineContext = coroutineContext,
+                pagedListUpdates = pagedListUpdates
         )
     }
 
@@ -143,32 +163,44 @@ class ListStore @Inject constructor(
 
     /**
      * A helper function that creates a [PagedListFactory] for the given [LIST_DESCRIPTOR] and [dataSource].
+     *
+     * Each data source works with a snapshot of the remote item ids. If [onItemRangesCalculated] is set, every snapshot
+     * is compared with the previous one and the changed ranges are passed to it with the data source, or `null` for the
+     * first one. This happens when the data source is created, before the `PagedList` loaded from it is posted.
      */
     private fun <LIST_DESCRIPTOR : ListDescriptor, ITEM_IDENTIFIER, LIST_ITEM> createPagedListFactory(
         listDescriptor: LIST_DESCRIPTOR,
-        dataSource: ListItemDataSourceInterface<LIST_DESCRIPTOR, ITEM_IDENTIFIER, LIST_ITEM>
+        dataSource: ListItemDataSourceInterface<LIST_DESCRIPTOR, ITEM_IDENTIFIER, LIST_ITEM>,
+        onItemRangesCalculated: ((InternalPagedListDataSource<*, *, *>, List<ListItemRangeChange>?) -> Unit)? = null
     ): PagedListFactory<LIST_DESCRIPTOR, ITEM_IDENTIFIER, LIST_ITEM> {
-        val getRemoteItemIds = { getListItems(listDescriptor).map { RemoteId(value = it) } }
         val getIsListFullyFetched = { getListState(listDescriptor) == FETCHED }
+        var previousRemoteItemIds: LongArray? = null
         return PagedListFactory(
                 createDataSource = {
-                    InternalPagedListDataSource(
+                    val remoteItemIds = getListItemIds(listDescriptor)
+                    val internalDataSource = InternalPagedListDataSource(
                             listDescriptor = listDescriptor,
-                            remoteItemIds = getRemoteItemIds(),
+                            remoteItemIds = RemoteIdList(remoteItemIds),
                             isListFullyFetched = getIsListFullyFetched(),
                             itemDataSource = dataSource
                     )
+                    if (onItemRangesCalculated != null) {
+                        val changes = previousRemoteItemIds?.let { ListItemRangeChange.calculate(it, remoteItemIds) }
+                        onItemRangesCalculated(internalDataSource, changes)
+                        previousRemoteItemIds = remoteItemIds
+                    }
+                    internalDataSource
                 })
     }
 
     /**
-     * A helper function that returns the list items for the given [ListDescriptor].
+     * A helper function that returns the remote item ids of the given [ListDescriptor].
      */
-    private fun getListItems(listDescriptor: ListDescriptor): List<Long> {
+    private fun getListItemIds(listDescriptor: ListDescriptor): LongArray {
         val listModel = listSqlUtils.getList(listDescriptor)
         return if (listModel != null) {
-            listItemSqlUtils.getListItems(listModel.id).map { it.remoteItemId }
-        } else emptyList()
+            listItemSqlUtils.getListItemIds(listModel.id)
+        } else LongArray(0)
     }
 
     /**
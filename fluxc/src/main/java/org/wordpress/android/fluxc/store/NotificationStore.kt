@@ -8,6 +8,7 @@ import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.NotificationAction
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.notification.NotificationModel
 import org.wordpress.android.fluxc.model.SiteModel
@@ -24,6 +25,7 @@ import java.util.UUID
 import javax.inject.Inject
 import javax.inject.Singleton
 
+@StoreActions(NotificationAction::class)
 @Singleton
 class NotificationStore @Inject
 constructor(
@@ -376,23 +378,26 @@ constructor(
         // Create a mutable copy of freshly fetched notifications map
         val notifsToFetch = payload.hashesMap.toMutableMap()
 
-        // Pull cached notifications from the database and build a map of remoteNoteId to noteHash
-        val existingNotifsByRemoteIdMap = notificationSqlUtils
-                .getNotifications().associateBy { it.remoteNoteId }.toMap()
+        // Pull the remoteNoteId and noteHash of the cached notifications from the database
+        val cachedNoteHashes = notificationSqlUtils.getNotificationHashes()
 
         // Scrub the newly fetched list against the cached db records. Remove any entries for records that
         // do not require an update from the remote API
-        existingNotifsByRemoteIdMap.entries.forEach { cached ->
+        val remoteNoteIdsToDelete = mutableListOf<Long>()
+        for (i in 0 until cachedNoteHashes.size) {
+            val remoteNoteId = cachedNoteHashes.keyAt(i)
             // Compare new note_hash values against cached values. Delete from db if
             // cached notification not present in new list
-            notifsToFetch[cached.key]?.let { newNoteHash ->
-                if (cached.value.noteHash == newNoteHash) {
-                    // Notifications are identical. No update needed, remove from
-                    // list of notifs to fetch
-                    notifsToFetch.remove(cached.key)
-                }
-            } ?: notificationSqlUtils.deleteNotificationByRemoteId(cached.key) // Delete notification from the db
+            val newNoteHash = notifsToFetch[remoteNoteId]
+            if (newNoteHash == null) {
+                remoteNoteIdsToDelete.add(remoteNoteId)
+            } else if (newNoteHash == cachedNoteHashes.valueAt(i)) {
+                // Notifications are identical. No update needed, remove from
+                // list of notifs to fetch
+                notifsToFetch.remove(remoteNoteId)
+            }
         }
+        notificationSqlUtils.deleteNotificationsByRemoteIds(remoteNoteIdsToDelete)
 
         // Fetch new and updated notifications from the remote api
         notificationRestClient.fetchNotifications(notifsToFetch.keys.toList())
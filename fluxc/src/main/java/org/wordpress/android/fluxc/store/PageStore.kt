@@ -5,10 +5,13 @@ import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.generated.PostActionBuilder
 import org.wordpress.android.fluxc.model.CauseOfOnPostChanged
+import org.wordpress.android.fluxc.model.LocalOrRemoteId
+import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.PostModel
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.page.PageModel
 import org.wordpress.android.fluxc.model.post.PostStatus
+import org.wordpress.android.fluxc.model.post.PostSummary
 import org.wordpress.android.fluxc.network.utils.CurrentDateUtils
 import org.wordpress.android.fluxc.persistence.PostSqlUtils
 import org.wordpress.android.fluxc.store.PageStore.OnPageChanged.Error
@@ -24,7 +27,6 @@ import org.wordpress.android.fluxc.tools.CoroutineEngine
 import org.wordpress.android.util.AppLog
 import org.wordpress.android.util.DateTimeUtils
 import java.util.Calendar
-import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.coroutines.Continuation
@@ -48,6 +50,9 @@ class PageStore @Inject constructor(
                 PostStatus.PRIVATE,
                 PostStatus.TRASHED
         )
+
+        // Stay well under SQLite's limit of 999 variables per statement
+        private const val MAX_IDS_PER_QUERY = 500
     }
 
     private var postLoadContinuations: MutableList<Continuation<OnPageChanged>> = mutableListOf()
@@ -80,14 +85,44 @@ class PageStore @Inject constructor(
                 }
             }
 
-    suspend fun search(site: SiteModel, searchQuery: String): List<PageModel> =
-            coroutineEngine.withDefaultContext(AppLog.T.POSTS, this, "search") {
-                getPagesFromDb(site).filter {
-                    it.title.toLowerCase(Locale.ROOT)
-                            .contains(searchQuery.toLowerCase(Locale.ROOT))
-                }
+    /**
+     * Returns the pages whose title contains the query, ignoring case. Only the matching pages and their ancestors
+     * are loaded from the database.
+     */
+    suspend fun search(site: SiteModel, searchQuery: String): List<PageModel> {
+        // We don't want to return data from the database when it's still being loaded
+        if (postLoadContinuations.isNotEmpty()) {
+            return listOf()
+        }
+        return coroutineEngine.withDefaultContext(AppLog.T.POSTS, this, "search") {
+            val matchingPageIds = postStore.getPageIdsMatchingTitle(site, searchQuery)
+            val posts = toPagePosts(getPostsByIds(matchingPageIds, site)).toMutableMap()
+
+            // Loads the missing ancestors of the matching pages, one level of the hierarchy at a time
+            val requestedIds = posts.keys.toMutableSet()
+            var parentIds = getMissingParentIds(posts.values, requestedIds)
+            while (parentIds.isNotEmpty()) {
+                requestedIds.addAll(parentIds)
+                val parents = toPagePosts(getPostsByIds(parentIds.map { RemoteId(it) }, site))
+                posts.putAll(parents)
+                parentIds = getMissingParentIds(parents.values, requestedIds)
             }
 
+            val matchingLocalIds = matchingPageIds.mapTo(HashSet()) { it.value }
+            return@withDefaultContext buildPageTree(site, posts)
+                    .filter { matchingLocalIds.contains(it.pageId) }
+                    .sortedBy { it.remoteId }
+        }
+    }
+
+    private fun getPostsByIds(ids: List<LocalOrRemoteId>, site: SiteModel): List<PostModel> {
+        return ids.chunked(MAX_IDS_PER_QUERY).flatMap { postStore.getPostsByLocalOrRemotePostIds(it, site) }
+    }
+
+    private fun getMissingParentIds(posts: Collection<PostModel>, requestedIds: Set<Long>): List<Long> {
+        return posts.map { it.parentId }.filter { it > 0L && !requestedIds.contains(it) }.distinct()
+    }
+
     suspend fun updatePageInDb(page: PageModel): OnPageChanged = suspendCoroutine { cont ->
         val post = postStore.getPostByRemotePostId(page.remoteId, page.site)
                 ?: postStore.getPostByLocalPostId(page.pageId)
@@ -129,47 +164,83 @@ class PageStore @Inject constructor(
             return listOf()
         }
         return coroutineEngine.withDefaultContext(AppLog.T.POSTS, this, "getPagesFromDb") {
-            val posts = postStore.getPagesForSite(site)
-                    .asSequence()
-                    .filterNotNull()
-                    .filter { PAGE_TYPES.contains(PostStatus.fromPost(it)) }
-                    .map {
-                        // local DB pages have a non-unique remote ID value of 0
-                        // to keep the apart we replace it with page ID (still unique)
-                        // and make it negative (to easily tell it's a temporary value)
-                        if (it.remotePostId == 0L) {
-                            /**
-                             * This hack is breaking the approach which we use for making sure we upload only changes which
-                             * were explicitly confirmed by the user. We are modifying the PostModel and we need to make
-                             * sure to retain the confirmation.
-                             */
-                            val changesConfirmed = it.contentHashcode() == it.changesConfirmedContentHashcode
-                            it.setRemotePostId(-it.id.toLong())
-                            if (changesConfirmed) {
-                                it.setChangesConfirmedContentHashcode(it.contentHashcode())
-                            }
+            val posts = toPagePosts(postStore.getPagesForSite(site))
+
+            return@withDefaultContext buildPageTree(site, posts).sortedBy { it.remoteId }
+        }
+    }
+
+    /**
+     * Keeps the posts of the [PAGE_TYPES] and maps them by their remote ID.
+     */
+    private fun toPagePosts(posts: List<PostModel?>): Map<Long, PostModel> {
+        return posts.asSequence()
+                .filterNotNull()
+                .filter { PAGE_TYPES.contains(PostStatus.fromPost(it)) }
+                .map {
+                    // local DB pages have a non-unique remote ID value of 0
+                    // to keep the apart we replace it with page ID (still unique)
+                    // and make it negative (to easily tell it's a temporary value)
+                    if (it.remotePostId == 0L) {
+                        /**
+                         * This hack is breaking the approach which we use for making sure we upload only changes which
+                         * were explicitly confirmed by the user. We are modifying the PostModel and we need to make
+                         * sure to retain the confirmation.
+                         */
+                        val changesConfirmed = it.contentHashcode() == it.changesConfirmedContentHashcode
+                        it.setRemotePostId(-it.id.toLong())
+                        if (changesConfirmed) {
+                            it.setChangesConfirmedContentHashcode(it.contentHashcode())
                         }
-                        it
                     }
-                    .associateBy { it.remotePostId }
+                    it
+                }
+                .associateBy { it.remotePostId }
+    }
 
-            return@withDefaultContext posts.map { getPageFromPost(it.key, site, posts, false) }
-                    .filterNotNull()
-                    .sortedBy { it.remoteId }
+    /**
+     * Creates a [PageModel] for each post, in a single pass. Every page is created once and is the parent of all its
+     * children. A page whose parent isn't in [posts], or whose parent is one of its descendants, has no parent.
+     */
+    private fun buildPageTree(site: SiteModel, posts: Map<Long, PostModel>): Collection<PageModel> {
+        val pages = HashMap<Long, PageModel>(posts.size)
+        val ancestors = ArrayList<PostModel>()
+        val visitedIds = HashSet<Long>()
+        for (post in posts.values) {
+            // Walks up to the closest ancestor that is already created, then creates the pages from the top
+            var current: PostModel? = post
+            while (current != null && !pages.containsKey(current.remotePostId) &&
+                    visitedIds.add(current.remotePostId)) {
+                ancestors.add(current)
+                current = getParentPost(current, posts)
+            }
+            for (i in ancestors.indices.reversed()) {
+                val ancestor = ancestors[i]
+                val parent = getParentPost(ancestor, posts)?.let { pages[it.remotePostId] }
+                pages[ancestor.remotePostId] = PageModel(ancestor, site, parent)
+            }
+            ancestors.clear()
+            visitedIds.clear()
         }
+        return pages.values
+    }
+
+    private fun getParentPost(post: PostModel, posts: Map<Long, PostModel>): PostModel? {
+        return if (post.parentId > 0L) posts[post.parentId] else null
     }
 
-    private fun getPageFromPost(
-        postId: Long,
-        site: SiteModel,
-        posts: Map<Long, PostModel>,
-        skipLocalPages: Boolean = true
-    ): PageModel? {
-        if (skipLocalPages && (postId <= 0L || !posts.containsKey(postId))) {
-            return null
+    /**
+     * Returns the [PostSummary]s of the pages of the site, for page lists that don't need the page content. The
+     * [PageModel] of a page can be loaded with [getPageByLocalId] when it's opened.
+     */
+    suspend fun getPageSummariesFromDb(site: SiteModel): List<PostSummary> {
+        // We don't want to return data from the database when it's still being loaded
+        if (postLoadContinuations.isNotEmpty()) {
+            return listOf()
+        }
+        return coroutineEngine.withDefaultContext(AppLog.T.POSTS, this, "getPageSummariesFromDb") {
+            postStore.getPageSummariesForSite(site).filter { PAGE_TYPES.contains(it.postStatus) }
         }
-        val post = posts[postId]!!
-        return PageModel(post, site, getPageFromPost(post.parentId, site, posts))
     }
 
     suspend fun deletePageFromServer(page: PageModel): OnPageChanged = suspendCoroutine { cont ->
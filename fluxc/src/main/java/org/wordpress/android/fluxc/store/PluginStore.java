@@ -8,6 +8,7 @@ import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.PluginAction;
+import org.wordpress.android.fluxc.annotations.StoreActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.generated.PluginActionBuilder;
@@ -29,6 +30,7 @@ import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+@StoreActions(PluginAction.class)
 @Singleton
 public class PluginStore extends Store {
     // Request payloads
@@ -16,6 +16,7 @@ import org.wordpress.android.fluxc.BuildConfig;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.PostAction;
+import org.wordpress.android.fluxc.annotations.StoreActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.generated.ListActionBuilder;
@@ -24,6 +25,7 @@ import org.wordpress.android.fluxc.generated.UploadActionBuilder;
 import org.wordpress.android.fluxc.model.CauseOfOnPostChanged;
 import org.wordpress.android.fluxc.model.CauseOfOnPostChanged.FetchPages;
 import org.wordpress.android.fluxc.model.CauseOfOnPostChanged.FetchPosts;
+import org.wordpress.android.fluxc.model.CauseOfOnPostChanged.FetchPostsByRemoteIds;
 import org.wordpress.android.fluxc.model.CauseOfOnPostChanged.RemoveAllPosts;
 import org.wordpress.android.fluxc.model.LocalOrRemoteId;
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.LocalId;
@@ -35,6 +37,7 @@ import org.wordpress.android.fluxc.model.list.PostListDescriptor;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForRestSite;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForXmlRpcSite;
 import org.wordpress.android.fluxc.model.post.PostStatus;
+import org.wordpress.android.fluxc.model.post.PostSummary;
 import org.wordpress.android.fluxc.model.revisions.Diff;
 import org.wordpress.android.fluxc.model.revisions.LocalDiffModel;
 import org.wordpress.android.fluxc.model.revisions.LocalDiffType;
@@ -65,9 +68,12 @@ import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+@StoreActions(PostAction.class)
 @Singleton
 public class PostStore extends Store {
     public static final int NUM_POSTS_PER_FETCH = 20;
+    // Upper bound of the WP.com REST API `number` parameter
+    private static final int MAX_POSTS_PER_BATCH_FETCH = 100;
 
     public static final List<PostStatus> DEFAULT_POST_STATUS_LIST = Collections.unmodifiableList(Arrays.asList(
             PostStatus.DRAFT,
@@ -140,6 +146,38 @@ public class PostStore extends Store {
         }
     }
 
+    public static class FetchPostsByRemoteIdsPayload extends Payload<BaseNetworkError> {
+        @NonNull public SiteModel site;
+        @NonNull public List<Long> remotePostIds;
+        @NonNull public List<PostStatus> statusTypes;
+
+        public FetchPostsByRemoteIdsPayload(@NonNull SiteModel site, @NonNull List<Long> remotePostIds,
+                                            @NonNull List<PostStatus> statusTypes) {
+            this.site = site;
+            this.remotePostIds = remotePostIds;
+            this.statusTypes = statusTypes;
+        }
+    }
+
+    public static class FetchPostsByRemoteIdsResponsePayload extends Payload<PostError> {
+        @NonNull public SiteModel site;
+        @NonNull public List<Long> remotePostIds;
+        @NonNull public List<PostModel> posts;
+
+        public FetchPostsByRemoteIdsResponsePayload(@NonNull SiteModel site, @NonNull List<Long> remotePostIds,
+                                                    @NonNull List<PostModel> posts) {
+            this.site = site;
+            this.remotePostIds = remotePostIds;
+            this.posts = posts;
+        }
+
+        public FetchPostsByRemoteIdsResponsePayload(@NonNull SiteModel site, @NonNull List<Long> remotePostIds,
+                                                    @NonNull PostError error) {
+            this(site, remotePostIds, Collections.<PostModel>emptyList());
+            this.error = error;
+        }
+    }
+
     public static class FetchPostsResponsePayload extends Payload<PostError> {
         public PostsModel posts;
         public SiteModel site;
@@ -433,6 +471,27 @@ public class PostStore extends Store {
         return mPostSqlUtils.getPostsForSite(site, true);
     }
 
+    /**
+     * Returns all posts in the store for the given site as a {@link PostSummary} list.
+     */
+    public List<PostSummary> getPostSummariesForSite(SiteModel site) {
+        return mPostSqlUtils.getPostSummariesForSite(site, false);
+    }
+
+    /**
+     * Returns all pages in the store for the given site as a {@link PostSummary} list.
+     */
+    public List<PostSummary> getPageSummariesForSite(SiteModel site) {
+        return mPostSqlUtils.getPostSummariesForSite(site, true);
+    }
+
+    /**
+     * Returns the local ids of the pages of the given site whose title contains the query, ignoring case.
+     */
+    public List<LocalId> getPageIdsMatchingTitle(SiteModel site, @NonNull String titleQuery) {
+        return mPostSqlUtils.getPageIdsMatchingTitle(site, titleQuery);
+    }
+
     /**
      * Returns the number of posts in the store for the given site.
      */
@@ -512,6 +571,17 @@ public class PostStore extends Store {
         return mPostSqlUtils.getPostsByLocalOrRemotePostIds(localOrRemoteIds, site.getId());
     }
 
+    /**
+     * Returns the {@link PostSummary}s of the given posts, for lists that don't need their content.
+     */
+    public List<PostSummary> getPostSummariesByLocalOrRemotePostIds(List<? extends LocalOrRemoteId> localOrRemoteIds,
+                                                                    SiteModel site) {
+        if (localOrRemoteIds == null || site == null) {
+            return Collections.emptyList();
+        }
+        return mPostSqlUtils.getPostSummariesByLocalOrRemotePostIds(localOrRemoteIds, site.getId());
+    }
+
     /**
      * Given a list of remote IDs for a post and the site to which it belongs, returns the posts as map where the
      * key is the remote post ID and the value is the {@link PostModel}.
@@ -619,6 +689,12 @@ public class PostStore extends Store {
             case FETCH_POST:
                 fetchPost((RemotePostPayload) action.getPayload());
                 break;
+            case FETCH_POSTS_BY_REMOTE_IDS:
+                fetchPostsByRemoteIds((FetchPostsByRemoteIdsPayload) action.getPayload());
+                break;
+            case FETCHED_POSTS_BY_REMOTE_IDS:
+                handleFetchPostsByRemoteIdsCompleted((FetchPostsByRemoteIdsResponsePayload) action.getPayload());
+                break;
             case FETCH_POST_STATUS:
                 fetchPostStatus((RemotePostPayload) action.getPayload());
                 break;
@@ -703,6 +779,14 @@ public class PostStore extends Store {
         }
     }
 
+    private void fetchPostsByRemoteIds(FetchPostsByRemoteIdsPayload payload) {
+        if (payload.site.isUsingWpComRestApi()) {
+            mPostRestClient.fetchPostsByRemoteIds(payload.site, payload.remotePostIds, payload.statusTypes);
+        } else {
+            mPostXMLRPCClient.fetchPostsByRemoteIds(payload.site, payload.remotePostIds);
+        }
+    }
+
     private void fetchPostStatus(RemotePostPayload payload) {
         if (payload.post.isLocalDraft()) {
             // If the post is a local draft, it won't have a remote post status
@@ -745,6 +829,7 @@ public class PostStore extends Store {
                 postIds.add(item.remotePostId);
             }
             Map<Long, PostModel> posts = getPostsByRemotePostIds(postIds, site);
+            List<Long> changedPostIds = new ArrayList<>();
             for (PostListItem item : payload.postListItems) {
                 PostModel post = posts.get(item.remotePostId);
                 if (post == null) {
@@ -779,10 +864,10 @@ public class PostStore extends Store {
                 }
 
                 if (isPostChanged || isAutoSaveChanged) {
-                    // Dispatch a fetch action for the posts that are changed, but not for posts with local changes
-                    // as we'd otherwise overwrite and lose these local changes forever
+                    // Fetch the posts that are changed, but not the posts with local changes as we'd otherwise
+                    // overwrite and lose these local changes forever
                     if (!post.isLocallyChanged()) {
-                        mDispatcher.dispatch(PostActionBuilder.newFetchPostAction(new RemotePostPayload(post, site)));
+                        changedPostIds.add(post.getRemotePostId());
                     } else if (isPostChanged) {
                         // at this point we know there's a potential version conflict (the post has been modified
                         // both locally and on the remote), so flag the local version of the Post so the
@@ -800,6 +885,15 @@ public class PostStore extends Store {
                     }
                 }
             }
+
+            // Fetch the changed posts together rather than with a request per post
+            for (int i = 0; i < changedPostIds.size(); i += MAX_POSTS_PER_BATCH_FETCH) {
+                List<Long> batch = changedPostIds.subList(i,
+                        Math.min(i + MAX_POSTS_PER_BATCH_FETCH, changedPostIds.size()));
+                mDispatcher.dispatch(PostActionBuilder.newFetchPostsByRemoteIdsAction(
+                        new FetchPostsByRemoteIdsPayload(site, new ArrayList<>(batch),
+                                payload.listDescriptor.getStatusList())));
+            }
         }
 
         FetchedListItemsPayload fetchedListItemsPayload =
@@ -900,10 +994,7 @@ public class PostStore extends Store {
                 mPostSqlUtils.deleteUploadedPostsForSite(payload.site, payload.isPages);
             }
 
-            int rowsAffected = 0;
-            for (PostModel post : payload.posts.getPosts()) {
-                rowsAffected += mPostSqlUtils.insertOrUpdatePostKeepingLocalChanges(post);
-            }
+            int rowsAffected = mPostSqlUtils.insertOrUpdatePosts(payload.posts.getPosts(), false);
 
             onPostChanged = new OnPostChanged(causeOfChange, rowsAffected, payload.canLoadMore);
         }
@@ -911,6 +1002,25 @@ public class PostStore extends Store {
         emitChange(onPostChanged);
     }
 
+    private void handleFetchPostsByRemoteIdsCompleted(FetchPostsByRemoteIdsResponsePayload payload) {
+        CauseOfOnPostChanged causeOfChange = new FetchPostsByRemoteIds(payload.remotePostIds);
+        OnPostChanged onPostChanged;
+        if (payload.isError()) {
+            onPostChanged = new OnPostChanged(causeOfChange, 0);
+            onPostChanged.error = payload.error;
+            emitChange(onPostChanged);
+            return;
+        }
+
+        // Saved in a single transaction. Local changes made while the posts were being fetched are kept.
+        int rowsAffected = mPostSqlUtils.insertOrUpdatePosts(payload.posts, false);
+        onPostChanged = new OnPostChanged(causeOfChange, rowsAffected);
+        emitChange(onPostChanged);
+
+        mDispatcher.dispatch(ListActionBuilder.newListDataInvalidatedAction(
+                PostListDescriptor.calculateTypeIdentifier(payload.site.getId())));
+    }
+
     private void handleFetchSinglePostCompleted(FetchPostResponsePayload payload) {
         if (payload.origin == PostAction.PUSH_POST) {
             OnPostUploaded onPostUploaded = new OnPostUploaded(payload.post);
@@ -15,6 +15,7 @@ import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.SiteAction;
+import org.wordpress.android.fluxc.annotations.StoreActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.PlanModel;
@@ -56,6 +57,7 @@ import javax.inject.Singleton;
 /**
  * SQLite based only. There is no in memory copy of mapped data, everything is queried from the DB.
  */
+@StoreActions(SiteAction.class)
 @Singleton
 public class SiteStore extends Store {
     // Payloads
@@ -575,6 +577,11 @@ public class SiteStore extends Store {
 
     public static class OnSiteChanged extends OnChanged<SiteError> {
         public int rowsAffected;
+        /**
+         * The local IDs of the sites that were inserted, updated or removed. Sites that were saved again without any
+         * change aren't part of it.
+         */
+        public List<Integer> changedLocalSiteIds = new ArrayList<>();
 
         public OnSiteChanged(int rowsAffected) {
             this.rowsAffected = rowsAffected;
@@ -920,6 +927,7 @@ public class SiteStore extends Store {
     public static class UpdateSitesResult {
         public int rowsAffected = 0;
         public boolean duplicateSiteFound = false;
+        public List<Integer> changedLocalSiteIds = new ArrayList<>();
     }
 
     public enum SiteErrorType {
@@ -1657,6 +1665,9 @@ public class SiteStore extends Store {
                     siteModel.setWebEditor(freshSiteFromDB.getWebEditor());
                 }
                 event.rowsAffected = SiteSqlUtils.insertOrUpdateSite(siteModel);
+                if (event.rowsAffected > 0) {
+                    event.changedLocalSiteIds.add(siteModel.getId());
+                }
             } catch (DuplicateSiteException e) {
                 event.error = new SiteError(SiteErrorType.DUPLICATE_SITE);
             }
@@ -1672,6 +1683,7 @@ public class SiteStore extends Store {
         } else {
             UpdateSitesResult res = createOrUpdateSites(sitesModel);
             event.rowsAffected = res.rowsAffected;
+            event.changedLocalSiteIds = res.changedLocalSiteIds;
             if (res.duplicateSiteFound) {
                 event.error = new SiteError(SiteErrorType.DUPLICATE_SITE);
             }
@@ -1685,34 +1697,18 @@ public class SiteStore extends Store {
             // TODO: what kind of error could we get here?
             event.error = SiteErrorUtils.genericToSiteError(fetchedSites.error);
         } else {
-            UpdateSitesResult res = createOrUpdateSites(fetchedSites);
+            UpdateSitesResult res = SiteSqlUtils.syncWPComRestSites(mPostSqlUtils, fetchedSites.getSites());
             event.rowsAffected = res.rowsAffected;
+            event.changedLocalSiteIds = res.changedLocalSiteIds;
             if (res.duplicateSiteFound) {
                 event.error = new SiteError(SiteErrorType.DUPLICATE_SITE);
             }
-            SiteSqlUtils.removeWPComRestSitesAbsentFromList(mPostSqlUtils, fetchedSites.getSites());
         }
         emitChange(event);
     }
 
     private UpdateSitesResult createOrUpdateSites(SitesModel sites) {
-        UpdateSitesResult result = new UpdateSitesResult();
-        for (SiteModel site : sites.getSites()) {
-            try {
-                // The REST API doesn't return info about the editor(s). Make sure to copy current values
-                // available on the DB. Otherwise the apps will receive an update site without editor prefs set.
-                // The apps will dispatch the action to update editor(s) when necessary.
-                SiteModel siteFromDB = getSiteBySiteId(site.getSiteId());
-                if (siteFromDB != null) {
-                    site.setMobileEditor(siteFromDB.getMobileEditor());
-                    site.setWebEditor(siteFromDB.getWebEditor());
-                }
-                result.rowsAffected += SiteSqlUtils.insertOrUpdateSite(site);
-            } catch (DuplicateSiteException caughtException) {
-                result.duplicateSiteFound = true;
-            }
-        }
-        return result;
+        return SiteSqlUtils.insertOrUpdateSites(sites.getSites());
     }
 
     private void deleteSite(SiteModel site) {
@@ -6,6 +6,7 @@ import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.StockMediaAction
 import org.wordpress.android.fluxc.action.StockMediaAction.FETCH_STOCK_MEDIA
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.StockMediaModel
@@ -19,6 +20,7 @@ import org.wordpress.android.util.AppLog.T.MEDIA
 import javax.inject.Inject
 import javax.inject.Singleton
 
+@StoreActions(StockMediaAction::class)
 @Singleton
 class StockMediaStore
 @Inject constructor(
@@ -9,6 +9,7 @@ import org.wordpress.android.fluxc.action.TransactionAction
 import org.wordpress.android.fluxc.action.TransactionAction.CREATE_SHOPPING_CART
 import org.wordpress.android.fluxc.action.TransactionAction.FETCH_SUPPORTED_COUNTRIES
 import org.wordpress.android.fluxc.action.TransactionAction.REDEEM_CART_WITH_CREDITS
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.DomainContactModel
 import org.wordpress.android.fluxc.model.SiteModel
@@ -22,6 +23,7 @@ import org.wordpress.android.util.AppLog
 import javax.inject.Inject
 import javax.inject.Singleton
 
+@StoreActions(TransactionAction::class)
 @Singleton
 class TransactionsStore @Inject constructor(
     private val transactionsRestClient: TransactionsRestClient,
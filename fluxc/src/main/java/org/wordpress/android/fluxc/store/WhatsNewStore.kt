@@ -9,6 +9,7 @@ import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WhatsNewAction
 import org.wordpress.android.fluxc.action.WhatsNewAction.FETCH_CACHED_ANNOUNCEMENT
 import org.wordpress.android.fluxc.action.WhatsNewAction.FETCH_REMOTE_ANNOUNCEMENT
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.whatsnew.WhatsNewAnnouncementModel
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError
@@ -23,6 +24,7 @@ import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.coroutines.CoroutineContext
 
+@StoreActions(WhatsNewAction::class)
 @Singleton
 class WhatsNewStore @Inject constructor(
     private val whatsNewRestClient: WhatsNewRestClient,
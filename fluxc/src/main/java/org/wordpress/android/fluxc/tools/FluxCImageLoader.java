@@ -1,7 +1,6 @@
 package org.wordpress.android.fluxc.tools;
 
 import android.graphics.Bitmap;
-import android.util.Base64;
 import android.widget.ImageView.ScaleType;
 
 import com.android.volley.AuthFailureError;
@@ -13,7 +12,6 @@ import com.android.volley.toolbox.ImageLoader;
 import com.android.volley.toolbox.ImageRequest;
 
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
-import org.wordpress.android.fluxc.network.HTTPAuthModel;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken;
 import org.wordpress.android.fluxc.utils.WPUrlUtils;
@@ -68,10 +66,8 @@ public class FluxCImageLoader extends ImageLoader {
                     headers.put("Authorization", "Bearer " + mAccessToken.get());
                 } else {
                     // Check if we had HTTP Auth credentials for the root url
-                    HTTPAuthModel httpAuthModel = mHTTPAuthManager.getHTTPAuthModel(url);
-                    if (httpAuthModel != null) {
-                        String creds = String.format("%s:%s", httpAuthModel.getUsername(), httpAuthModel.getPassword());
-                        String auth = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
+                    String auth = mHTTPAuthManager.getHTTPAuthHeader(url);
+                    if (auth != null) {
                         headers.put("Authorization", auth);
                     }
                 }
@@ -0,0 +1,22 @@
+package org.wordpress.android.fluxc.model
+
+/**
+ * Remembers the value parsed from a JSON column of a model, so that it's only parsed again after the column is set
+ * to another string.
+ *
+ * Columns are compared by identity: a new string is set every time the model is loaded or updated, and comparing
+ * the content of large JSON arrays would cost about as much as parsing them again.
+ */
+internal class ParsedJsonColumn<T>(private val parse: (String) -> T) {
+    private class Parsed<T>(val json: String, val value: T)
+
+    @Volatile private var parsed: Parsed<T>? = null
+
+    fun get(json: String): T {
+        val current = parsed
+        if (current != null && current.json === json) {
+            return current.value
+        }
+        return parse(json).also { parsed = Parsed(json, it) }
+    }
+}
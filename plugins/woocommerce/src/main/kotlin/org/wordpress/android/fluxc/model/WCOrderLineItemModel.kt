@@ -0,0 +1,29 @@
+package org.wordpress.android.fluxc.model
+
+import com.yarolegovich.wellsql.core.Identifiable
+import com.yarolegovich.wellsql.core.annotation.Column
+import com.yarolegovich.wellsql.core.annotation.PrimaryKey
+import com.yarolegovich.wellsql.core.annotation.Table
+import org.wordpress.android.fluxc.persistence.WellSqlConfig
+
+/**
+ * A line item of a stored [WCOrderModel], kept in sync with the order's [WCOrderModel.lineItems] JSON so that
+ * orders can be looked up by their products in SQL.
+ */
+@Table(addOn = WellSqlConfig.ADDON_WOOCOMMERCE)
+data class WCOrderLineItemModel(@PrimaryKey @Column private var id: Int = 0) : Identifiable {
+    @Column var localSiteId = 0
+    @Column var localOrderId = 0 // The local db unique identifier for the parent order object
+    @Column var remoteLineItemId = 0L
+    @Column var productId = 0L
+    @Column var variationId = 0L // 0 when the item isn't a product variation
+    @Column var name = ""
+    @Column var quantity = 0.0
+    @Column var total = ""
+
+    override fun getId() = id
+
+    override fun setId(id: Int) {
+        this.id = id
+    }
+}
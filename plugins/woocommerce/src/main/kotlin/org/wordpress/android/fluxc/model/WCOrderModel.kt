@@ -63,6 +63,16 @@ data class WCOrderModel(@PrimaryKey @Column private var id: Int = 0) : Identifia
 
     @Column var shippingLines = ""
 
+    // Order lists and details read the line items and shipping lines many times, they're parsed once per change
+    @Transient private val parsedLineItems = ParsedJsonColumn { json ->
+        val responseType = object : TypeToken<List<LineItem>>() {}.type
+        gson.fromJson(json, responseType) as? List<LineItem> ?: emptyList()
+    }
+    @Transient private val parsedShippingLines = ParsedJsonColumn { json ->
+        val responseType = object : TypeToken<List<ShippingLine>>() {}.type
+        gson.fromJson(json, responseType) as? List<ShippingLine> ?: emptyList()
+    }
+
     companion object {
         private val gson by lazy { Gson() }
     }
@@ -121,10 +131,7 @@ data class WCOrderModel(@PrimaryKey @Column private var id: Int = 0) : Identifia
     /**
      * Deserializes the JSON contained in [lineItems] into a list of [LineItem] objects.
      */
-    fun getLineItemList(): List<LineItem> {
-        val responseType = object : TypeToken<List<LineItem>>() {}.type
-        return gson.fromJson(lineItems, responseType) as? List<LineItem> ?: emptyList()
-    }
+    fun getLineItemList(): List<LineItem> = parsedLineItems.get(lineItems)
 
     /**
      * Returns the order subtotal (the sum of the subtotals of each line item in the order).
@@ -136,10 +143,7 @@ data class WCOrderModel(@PrimaryKey @Column private var id: Int = 0) : Identifia
     /**
      * Deserializes the JSON contained in [shippingLines] into a list of [ShippingLine] objects.
      */
-    fun getShippingLineList(): List<ShippingLine> {
-        val responseType = object : TypeToken<List<ShippingLine>>() {}.type
-        return gson.fromJson(shippingLines, responseType) as? List<ShippingLine> ?: emptyList()
-    }
+    fun getShippingLineList(): List<ShippingLine> = parsedShippingLines.get(shippingLines)
 
     fun isMultiShippingLinesAvailable() = getShippingLineList()?.size > 1
 }
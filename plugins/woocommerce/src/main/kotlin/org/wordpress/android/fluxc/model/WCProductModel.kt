@@ -124,6 +124,20 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
         }
     }
 
+    // The JSON columns are parsed on first use and kept until the column changes, since product lists read
+    // them for every row they bind
+    @Transient private val parsedImages = ParsedJsonColumn(::parseImages)
+    @Transient private val parsedAttributes = ParsedJsonColumn(::parseAttributes)
+    @Transient private val parsedDownloads = ParsedJsonColumn(::parseDownloadableFiles)
+    @Transient private val parsedVariations = ParsedJsonColumn(::parseNumVariations)
+    @Transient private val parsedGroupedProductIds = ParsedJsonColumn(::parseGroupedProductIds)
+    @Transient private val parsedCategories = ParsedJsonColumn(::parseTriplets)
+    @Transient private val parsedTags = ParsedJsonColumn(::parseTriplets)
+
+    companion object {
+        private val gson by lazy { Gson() }
+    }
+
     override fun getId() = id
 
     override fun setId(id: Int) {
@@ -133,11 +147,45 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
     /**
      * Parses the images json array into a list of product images
      */
-    fun getImageList(): ArrayList<WCProductImageModel> {
+    fun getImageList() = ArrayList(parsedImages.get(images))
+
+    /**
+     * Extract the first image url from the json array of images
+     */
+    fun getFirstImageUrl(): String? = parsedImages.get(images).firstOrNull()?.src
+
+    /**
+     * Extract all image urls from the json array of images
+     */
+    fun getImageUrls(): List<String> {
+        val imageUrls = ArrayList<String>()
+        parsedImages.get(images).forEach {
+            imageUrls.add(it.src)
+        }
+        return imageUrls
+    }
+
+    fun getAttributeList(): List<ProductAttribute> = parsedAttributes.get(attributes)
+
+    fun getDownloadableFiles(): List<String> = parsedDownloads.get(downloads)
+
+    fun getNumVariations(): Int = parsedVariations.get(variations)
+
+    fun getGroupedProductIdList(): List<Long> = parsedGroupedProductIds.get(groupedProductIds)
+
+    fun getCategoryList() = ArrayList(parsedCategories.get(categories))
+
+    fun getCommaSeparatedCategoryNames() = getCommaSeparatedTripletNames(parsedCategories.get(categories))
+
+    fun getTagList() = ArrayList(parsedTags.get(tags))
+
+    fun getCommaSeparatedTagNames() = getCommaSeparatedTripletNames(parsedTags.get(tags))
+
+    private fun parseImages(jsonStr: String): List<WCProductImageModel> {
         val imageList = ArrayList<WCProductImageModel>()
-        if (images.isNotEmpty()) {
+        if (jsonStr.isNotEmpty()) {
             try {
-                Gson().fromJson(images, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
+                gson.fromJson(jsonStr, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
                     with(jsonElement.asJsonObject) {
                         WCProductImageModel(this.getLong("id")).also {
                             it.name = this.getString("name") ?: ""
@@ -156,32 +204,7 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
         return imageList
     }
 
-    /**
-     * Extract the first image url from the json array of images
-     */
-    fun getFirstImageUrl(): String? {
-        try {
-            Gson().fromJson(images, JsonElement::class.java).asJsonArray.firstOrNull { jsonElement ->
-                return (jsonElement.asJsonObject).getString("src")
-            }
-        } catch (e: JsonParseException) {
-            AppLog.e(T.API, e)
-        }
-        return null
-    }
-
-    /**
-     * Extract all image urls from the json array of images
-     */
-    fun getImageUrls(): List<String> {
-        val imageUrls = ArrayList<String>()
-        getImageList().forEach {
-            imageUrls.add(it.src)
-        }
-        return imageUrls
-    }
-
-    fun getAttributeList(): List<ProductAttribute> {
+    private fun parseAttributes(jsonStr: String): List<ProductAttribute> {
         fun getAttributeOptions(jsonArray: JsonArray?): List<String> {
             val options = ArrayList<String>()
             try {
@@ -198,7 +221,7 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
 
         val attrList = ArrayList<ProductAttribute>()
         try {
-            Gson().fromJson(attributes, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
+            gson.fromJson(jsonStr, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
                 with(jsonElement.asJsonObject) {
                     attrList.add(
                             ProductAttribute(
@@ -216,10 +239,10 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
         return attrList
     }
 
-    fun getDownloadableFiles(): List<String> {
+    private fun parseDownloadableFiles(jsonStr: String): List<String> {
         val fileList = ArrayList<String>()
         try {
-            Gson().fromJson(downloads, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
+            gson.fromJson(jsonStr, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
                 jsonElement.asJsonObject.getString("file")?.let {
                     fileList.add(it)
                 }
@@ -230,20 +253,20 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
         return fileList
     }
 
-    fun getNumVariations(): Int {
+    private fun parseNumVariations(jsonStr: String): Int {
         return try {
-            Gson().fromJson(variations, JsonElement::class.java).asJsonArray.size()
+            gson.fromJson(jsonStr, JsonElement::class.java).asJsonArray.size()
         } catch (e: JsonParseException) {
             AppLog.e(T.API, e)
             0
         }
     }
 
-    fun getGroupedProductIdList(): List<Long> {
+    private fun parseGroupedProductIds(jsonStr: String): List<Long> {
         val groupedIds = ArrayList<Long>()
         try {
-            if (groupedProductIds.isNotEmpty()) {
-                Gson().fromJson(groupedProductIds, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
+            if (jsonStr.isNotEmpty()) {
+                gson.fromJson(jsonStr, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
                     jsonElement.asLong.let { groupedIds.add(it) }
                 }
             }
@@ -253,14 +276,6 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
         return groupedIds
     }
 
-    fun getCategoryList() = getTriplets(categories)
-
-    fun getCommaSeparatedCategoryNames() = getCommaSeparatedTripletNames(getCategoryList())
-
-    fun getTagList() = getTriplets(tags)
-
-    fun getCommaSeparatedTagNames() = getCommaSeparatedTripletNames(getTagList())
-
     private fun getCommaSeparatedTripletNames(triplets: List<ProductTriplet>): String {
         if (triplets.isEmpty()) return ""
         var commaSeparatedNames = ""
@@ -274,11 +289,11 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
         return commaSeparatedNames
     }
 
-    private fun getTriplets(jsonStr: String): ArrayList<ProductTriplet> {
+    private fun parseTriplets(jsonStr: String): List<ProductTriplet> {
         val triplets = ArrayList<ProductTriplet>()
         try {
             if (jsonStr.isNotEmpty()) {
-                Gson().fromJson<JsonElement>(jsonStr, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
+                gson.fromJson<JsonElement>(jsonStr, JsonElement::class.java).asJsonArray.forEach { jsonElement ->
                     with(jsonElement.asJsonObject) {
                         triplets.add(
                                 ProductTriplet(
@@ -301,8 +316,8 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
      * lists contain the same images in the same order
      */
     fun hasSameImages(updatedProduct: WCProductModel): Boolean {
-        val updatedImages = updatedProduct.getImageList()
-        val thisImages = getImageList()
+        val updatedImages = updatedProduct.parsedImages.get(updatedProduct.images)
+        val thisImages = parsedImages.get(images)
         if (thisImages.size != updatedImages.size) {
             return false
         }
@@ -319,8 +334,8 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
      * lists contain the same categories in the same order
      */
     fun hasSameCategories(updatedProduct: WCProductModel): Boolean {
-        val updatedCategories = updatedProduct.getCategoryList()
-        val storedCategories = getCategoryList()
+        val updatedCategories = updatedProduct.parsedCategories.get(updatedProduct.categories)
+        val storedCategories = parsedCategories.get(categories)
         if (storedCategories.size != updatedCategories.size) {
             return false
         }
@@ -337,8 +352,8 @@ data class WCProductModel(@PrimaryKey @Column private var id: Int = 0) : Identif
      * lists contain the same tags in the same order
      */
     fun hasSameTags(updatedProduct: WCProductModel): Boolean {
-        val updatedTags = updatedProduct.getTagList()
-        val storedTags = getTagList()
+        val updatedTags = updatedProduct.parsedTags.get(updatedProduct.tags)
+        val storedTags = parsedTags.get(tags)
         if (storedTags.size != updatedTags.size) {
             return false
         }
@@ -1,5 +1,6 @@
 package org.wordpress.android.fluxc.persistence
 
+import com.wellsql.generated.WCOrderLineItemModelTable
 import com.wellsql.generated.WCOrderModelTable
 import com.wellsql.generated.WCOrderNoteModelTable
 import com.wellsql.generated.WCOrderShipmentProviderModelTable
@@ -10,6 +11,7 @@ import com.yarolegovich.wellsql.SelectQuery
 import com.yarolegovich.wellsql.WellSql
 import org.wordpress.android.fluxc.model.LocalOrRemoteId.RemoteId
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.WCOrderLineItemModel
 import org.wordpress.android.fluxc.model.WCOrderModel
 import org.wordpress.android.fluxc.model.WCOrderNoteModel
 import org.wordpress.android.fluxc.model.WCOrderShipmentProviderModel
@@ -58,7 +60,23 @@ object OrderSqlUtils {
                 .execute()
     }
 
+    /**
+     * Saves the [order] along with its line items, in a single transaction.
+     */
     fun insertOrUpdateOrder(order: WCOrderModel): Int {
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            val rowsAffected = doInsertOrUpdateOrder(order)
+            replaceOrderLineItems(order)
+            db.setTransactionSuccessful()
+            return rowsAffected
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    private fun doInsertOrUpdateOrder(order: WCOrderModel): Int {
         val orderResult = WellSql.select(WCOrderModel::class.java)
                 .where().beginGroup()
                 .equals(WCOrderModelTable.ID, order.id)
@@ -77,11 +95,71 @@ object OrderSqlUtils {
         } else {
             // Update
             val oldId = orderResult[0].id
+            order.id = oldId
             return WellSql.update(WCOrderModel::class.java).whereId(oldId)
                     .put(order, UpdateAllExceptId(WCOrderModel::class.java)).execute()
         }
     }
 
+    private fun replaceOrderLineItems(order: WCOrderModel) {
+        WellSql.delete(WCOrderLineItemModel::class.java)
+                .where()
+                .equals(WCOrderLineItemModelTable.LOCAL_ORDER_ID, order.id)
+                .endWhere()
+                .execute()
+
+        val lineItems = order.getLineItemList().map { lineItem ->
+            WCOrderLineItemModel().apply {
+                localSiteId = order.localSiteId
+                localOrderId = order.id
+                remoteLineItemId = lineItem.id ?: 0L
+                productId = lineItem.productId ?: 0L
+                variationId = lineItem.variationId ?: 0L
+                name = lineItem.name ?: ""
+                quantity = lineItem.quantity?.toDouble() ?: 0.0
+                total = lineItem.total ?: ""
+            }
+        }
+        if (lineItems.isNotEmpty()) {
+            WellSql.insert(lineItems).asSingleTransaction(false).execute()
+        }
+    }
+
+    fun getOrderLineItemsForOrder(localOrderId: Int): List<WCOrderLineItemModel> =
+            WellSql.select(WCOrderLineItemModel::class.java)
+                    .where()
+                    .equals(WCOrderLineItemModelTable.LOCAL_ORDER_ID, localOrderId)
+                    .endWhere()
+                    .asModel
+
+    /**
+     * Returns the orders of the [site] with at least one line item for the product [remoteProductId], most recent
+     * first. The orders are looked up from their saved line items, without parsing the line items of every order.
+     */
+    fun getOrdersForSiteByProductId(site: SiteModel, remoteProductId: Long): List<WCOrderModel> {
+        val localOrderIds = WellSql.select(WCOrderLineItemModel::class.java)
+                .columns(WCOrderLineItemModelTable.LOCAL_ORDER_ID)
+                .where().beginGroup()
+                .equals(WCOrderLineItemModelTable.LOCAL_SITE_ID, site.id)
+                .equals(WCOrderLineItemModelTable.PRODUCT_ID, remoteProductId)
+                .endGroup().endWhere()
+                .asCursor.use { cursor ->
+                    val ids = LinkedHashSet<Int>(cursor.count)
+                    while (cursor.moveToNext()) {
+                        ids.add(cursor.getInt(0))
+                    }
+                    ids
+                }
+
+        return localOrderIds.chunked(CHUNK_SIZE).flatMap { ids ->
+            WellSql.select(WCOrderModel::class.java)
+                    .where()
+                    .isIn(WCOrderModelTable.ID, ids)
+                    .endWhere()
+                    .asModel
+        }.sortedByDescending { it.dateCreated }
+    }
+
     fun getOrderForIdSet(orderIdSet: OrderIdSet): WCOrderModel? {
         val (id, remoteOrderId, localSiteId) = orderIdSet
         return WellSql.select(WCOrderModel::class.java)
@@ -124,6 +202,11 @@ object OrderSqlUtils {
     }
 
     fun deleteOrdersForSite(site: SiteModel): Int {
+        WellSql.delete(WCOrderLineItemModel::class.java)
+                .where()
+                .equals(WCOrderLineItemModelTable.LOCAL_SITE_ID, site.id)
+                .endWhere()
+                .execute()
         return WellSql.delete(WCOrderModel::class.java)
                 .where().beginGroup()
                 .equals(WCOrderModelTable.LOCAL_SITE_ID, site.id)
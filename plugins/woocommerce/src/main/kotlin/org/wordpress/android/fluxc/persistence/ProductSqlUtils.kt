@@ -29,7 +29,6 @@ import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.DATE_ASC
 import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.DATE_DESC
 import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.TITLE_ASC
 import org.wordpress.android.fluxc.store.WCProductStore.ProductSorting.TITLE_DESC
-import java.util.Locale
 
 object ProductSqlUtils {
     fun insertOrUpdateProduct(product: WCProductModel): Int {
@@ -96,59 +95,77 @@ object ProductSqlUtils {
                 .asModel
     }
 
+    /**
+     * @param limit the maximum number of products to return, or null to return all the matching products
+     * @param offset the number of matching products to skip, used with [limit] to load a page of products
+     */
     fun getProductsByFilterOptions(
         site: SiteModel,
         filterOptions: Map<ProductFilterOption, String>,
         sortType: ProductSorting = DEFAULT_PRODUCT_SORTING,
-        excludedProductIds: List<Long>? = null
+        excludedProductIds: List<Long>? = null,
+        limit: Int? = null,
+        offset: Int = 0
     ): List<WCProductModel> {
-        val queryBuilder = WellSql.select(WCProductModel::class.java)
-                .where().beginGroup()
-                .equals(WCProductModelTable.LOCAL_SITE_ID, site.id)
+        val selection = StringBuilder("${WCProductModelTable.LOCAL_SITE_ID} = ?")
+        val selectionArgs = mutableListOf(site.id.toString())
 
         if (filterOptions.containsKey(ProductFilterOption.STATUS)) {
-            queryBuilder.equals(WCProductModelTable.STATUS, filterOptions[ProductFilterOption.STATUS])
+            selection.append(" AND ${WCProductModelTable.STATUS} = ?")
+            selectionArgs.add(filterOptions.getValue(ProductFilterOption.STATUS))
         }
         if (filterOptions.containsKey(ProductFilterOption.STOCK_STATUS)) {
-            queryBuilder.equals(WCProductModelTable.STOCK_STATUS, filterOptions[ProductFilterOption.STOCK_STATUS])
+            selection.append(" AND ${WCProductModelTable.STOCK_STATUS} = ?")
+            selectionArgs.add(filterOptions.getValue(ProductFilterOption.STOCK_STATUS))
         }
         if (filterOptions.containsKey(ProductFilterOption.TYPE)) {
-            queryBuilder.equals(WCProductModelTable.TYPE, filterOptions[ProductFilterOption.TYPE])
+            selection.append(" AND ${WCProductModelTable.TYPE} = ?")
+            selectionArgs.add(filterOptions.getValue(ProductFilterOption.TYPE))
         }
 
-        excludedProductIds?.let {
-            queryBuilder.isNotIn(WCProductModelTable.REMOTE_PRODUCT_ID, excludedProductIds)
+        if (!excludedProductIds.isNullOrEmpty()) {
+            selection.append(" AND ${WCProductModelTable.REMOTE_PRODUCT_ID} NOT IN (")
+                    .append(excludedProductIds.joinToString(",") { "?" })
+                    .append(")")
+            excludedProductIds.forEach { selectionArgs.add(it.toString()) }
         }
 
-        val sortOrder = when (sortType) {
-            TITLE_ASC, DATE_ASC -> SelectQuery.ORDER_ASCENDING
-            TITLE_DESC, DATE_DESC -> SelectQuery.ORDER_DESCENDING
-        }
-        val sortField = when (sortType) {
-            TITLE_ASC, TITLE_DESC -> WCProductModelTable.NAME
-            DATE_ASC, DATE_DESC -> WCProductModelTable.DATE_CREATED
-        }
-
-        val products = queryBuilder
-                .endGroup().endWhere()
-                .orderBy(sortField, sortOrder)
-                .asModel
+        return selectPage(WCProductModel::class.java, selection.toString(), selectionArgs,
+                getProductsOrderBy(sortType), limit, offset)
+    }
 
-        return if (sortType == TITLE_ASC || sortType == TITLE_DESC) {
-            sortProductsByName(products, descending = sortType == TITLE_DESC)
-        } else {
-            products
+    private fun getProductsOrderBy(sortType: ProductSorting): String {
+        return when (sortType) {
+            TITLE_ASC -> "${WCProductModelTable.NAME} COLLATE NOCASE ASC"
+            TITLE_DESC -> "${WCProductModelTable.NAME} COLLATE NOCASE DESC"
+            DATE_ASC -> "${WCProductModelTable.DATE_CREATED} ASC"
+            DATE_DESC -> "${WCProductModelTable.DATE_CREATED} DESC"
         }
     }
 
     /**
-     * WellSQL doesn't support "COLLATE NOCASE" so we have to manually provide case-insensitive sorting
+     * WellSQL doesn't support "COLLATE NOCASE" nor "OFFSET", so the sorted and paged queries are built here and
+     * the rows are mapped with the WellSQL mapper of [clazz]. The local ID breaks the ties of [orderBy], so that
+     * consecutive pages don't overlap.
      */
-    private fun sortProductsByName(products: List<WCProductModel>, descending: Boolean): List<WCProductModel> {
-        return if (descending) {
-            products.sortedByDescending { it.name.toLowerCase(Locale.getDefault()) }
-        } else {
-            products.sortedBy { it.name.toLowerCase(Locale.getDefault()) }
+    private fun <T> selectPage(
+        clazz: Class<T>,
+        selection: String,
+        selectionArgs: List<String>,
+        orderBy: String,
+        limit: Int?,
+        offset: Int
+    ): List<T> {
+        // SQLite only accepts an OFFSET after a LIMIT, a negative LIMIT means no limit
+        val sql = "SELECT * FROM ${clazz.simpleName} WHERE $selection ORDER BY $orderBy, _id ASC LIMIT ? OFFSET ?"
+        val args = selectionArgs + (limit ?: -1).toString() + offset.toString()
+        val mapper = WellSql.mapperFor(clazz)
+        return WellSql.giveMeWritableDb().rawQuery(sql, args.toTypedArray()).use { cursor ->
+            val models = ArrayList<T>(cursor.count)
+            while (cursor.moveToNext()) {
+                models.add(mapper.convert(cursor))
+            }
+            models
         }
     }
 
@@ -172,28 +189,12 @@ object ProductSqlUtils {
 
     fun getProductsForSite(
         site: SiteModel,
-        sortType: ProductSorting = DEFAULT_PRODUCT_SORTING
+        sortType: ProductSorting = DEFAULT_PRODUCT_SORTING,
+        limit: Int? = null,
+        offset: Int = 0
     ): List<WCProductModel> {
-        val sortOrder = when (sortType) {
-            TITLE_ASC, DATE_ASC -> SelectQuery.ORDER_ASCENDING
-            TITLE_DESC, DATE_DESC -> SelectQuery.ORDER_DESCENDING
-        }
-        val sortField = when (sortType) {
-            TITLE_ASC, TITLE_DESC -> WCProductModelTable.NAME
-            DATE_ASC, DATE_DESC -> WCProductModelTable.DATE_CREATED
-        }
-        val products = WellSql.select(WCProductModel::class.java)
-                .where()
-                .equals(WCProductModelTable.LOCAL_SITE_ID, site.id)
-                .endWhere()
-                .orderBy(sortField, sortOrder)
-                .asModel
-
-        return if (sortType == TITLE_ASC || sortType == TITLE_DESC) {
-            sortProductsByName(products, descending = sortType == TITLE_DESC)
-        } else {
-            products
-        }
+        return selectPage(WCProductModel::class.java, "${WCProductModelTable.LOCAL_SITE_ID} = ?",
+                listOf(site.id.toString()), getProductsOrderBy(sortType), limit, offset)
     }
 
     fun deleteProductsForSite(site: SiteModel): Int {
@@ -456,40 +457,18 @@ object ProductSqlUtils {
         }
     }
 
-    private fun sortCategoriesByName(
-        categories: List<WCProductCategoryModel>,
-        descending: Boolean
-    ): List<WCProductCategoryModel> {
-        return if (descending) {
-            categories.sortedByDescending { it.name.toLowerCase(Locale.getDefault()) }
-        } else {
-            categories.sortedBy { it.name.toLowerCase(Locale.getDefault()) }
-        }
-    }
-
     fun getProductCategoriesForSite(
         site: SiteModel,
-        sortType: ProductCategorySorting = DEFAULT_CATEGORY_SORTING
+        sortType: ProductCategorySorting = DEFAULT_CATEGORY_SORTING,
+        limit: Int? = null,
+        offset: Int = 0
     ): List<WCProductCategoryModel> {
-        val sortOrder = when (sortType) {
-            NAME_ASC -> SelectQuery.ORDER_ASCENDING
-            NAME_DESC -> SelectQuery.ORDER_DESCENDING
-        }
-        val sortField = when (sortType) {
-            NAME_ASC, NAME_DESC -> WCProductCategoryModelTable.NAME
-        }
-        val categories = WellSql.select(WCProductCategoryModel::class.java)
-                .where()
-                .equals(WCProductModelTable.LOCAL_SITE_ID, site.id)
-                .endWhere()
-                .orderBy(sortField, sortOrder)
-                .asModel
-
-        return if (sortType == NAME_ASC || sortType == NAME_DESC) {
-            sortCategoriesByName(categories, descending = sortType == NAME_DESC)
-        } else {
-            categories
+        val orderBy = when (sortType) {
+            NAME_ASC -> "${WCProductCategoryModelTable.NAME} COLLATE NOCASE ASC"
+            NAME_DESC -> "${WCProductCategoryModelTable.NAME} COLLATE NOCASE DESC"
         }
+        return selectPage(WCProductCategoryModel::class.java, "${WCProductCategoryModelTable.LOCAL_SITE_ID} = ?",
+                listOf(site.id.toString()), orderBy, limit, offset)
     }
 
     fun getProductCategoryByRemoteId(
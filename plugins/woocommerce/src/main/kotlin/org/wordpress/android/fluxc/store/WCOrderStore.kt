@@ -5,6 +5,7 @@ import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WCOrderAction
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.generated.ListActionBuilder
 import org.wordpress.android.fluxc.generated.WCOrderActionBuilder
@@ -32,6 +33,7 @@ import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 
+@StoreActions(WCOrderAction::class)
 @Singleton
 class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrderRestClient: OrderRestClient) :
         Store(dispatcher) {
@@ -330,6 +332,12 @@ class WCOrderStore @Inject constructor(dispatcher: Dispatcher, private val wcOrd
     fun getOrdersForSite(site: SiteModel, vararg status: String): List<WCOrderModel> =
             OrderSqlUtils.getOrdersForSite(site, status = status.asList())
 
+    /**
+     * Given a [SiteModel] and a product ID, returns the orders of that site containing the product, most recent first.
+     */
+    fun getOrdersForSiteByProductId(site: SiteModel, remoteProductId: Long): List<WCOrderModel> =
+            OrderSqlUtils.getOrdersForSiteByProductId(site, remoteProductId)
+
     fun getOrdersForDescriptor(
         orderListDescriptor: WCOrderListDescriptor,
         remoteOrderIds: List<RemoteId>
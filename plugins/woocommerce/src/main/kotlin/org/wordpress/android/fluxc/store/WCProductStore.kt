@@ -5,6 +5,7 @@ import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WCProductAction
+import org.wordpress.android.fluxc.annotations.StoreActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCProductCategoryModel
@@ -27,6 +28,7 @@ import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 
+@StoreActions(WCProductAction::class)
 @Singleton
 class WCProductStore @Inject constructor(
     dispatcher: Dispatcher,
@@ -649,18 +651,24 @@ class WCProductStore @Inject constructor(
 
     /**
      * returns a list of [WCProductModel] for the give [SiteModel] and [filterOptions]
-     * if it exists in the database
+     * if it exists in the database. Pass a [limit] and an [offset] to only load a page of the sorted products.
      */
     fun getProductsByFilterOptions(
         site: SiteModel,
         filterOptions: Map<ProductFilterOption, String>,
         sortType: ProductSorting = DEFAULT_PRODUCT_SORTING,
-        excludedProductIds: List<Long>? = null
+        excludedProductIds: List<Long>? = null,
+        limit: Int? = null,
+        offset: Int = 0
     ): List<WCProductModel> =
-            ProductSqlUtils.getProductsByFilterOptions(site, filterOptions, sortType, excludedProductIds)
+            ProductSqlUtils.getProductsByFilterOptions(site, filterOptions, sortType, excludedProductIds, limit, offset)
 
-    fun getProductsForSite(site: SiteModel, sortType: ProductSorting = DEFAULT_PRODUCT_SORTING) =
-            ProductSqlUtils.getProductsForSite(site, sortType)
+    fun getProductsForSite(
+        site: SiteModel,
+        sortType: ProductSorting = DEFAULT_PRODUCT_SORTING,
+        limit: Int? = null,
+        offset: Int = 0
+    ) = ProductSqlUtils.getProductsForSite(site, sortType, limit, offset)
 
     fun deleteProductsForSite(site: SiteModel) = ProductSqlUtils.deleteProductsForSite(site)
 
@@ -695,8 +703,12 @@ class WCProductStore @Inject constructor(
     fun deleteProductImage(site: SiteModel, remoteProductId: Long, remoteMediaId: Long) =
             ProductSqlUtils.deleteProductImage(site, remoteProductId, remoteMediaId)
 
-    fun getProductCategoriesForSite(site: SiteModel, sortType: ProductCategorySorting = DEFAULT_CATEGORY_SORTING) =
-            ProductSqlUtils.getProductCategoriesForSite(site, sortType)
+    fun getProductCategoriesForSite(
+        site: SiteModel,
+        sortType: ProductCategorySorting = DEFAULT_CATEGORY_SORTING,
+        limit: Int? = null,
+        offset: Int = 0
+    ) = ProductSqlUtils.getProductCategoriesForSite(site, sortType, limit, offset)
 
     fun getProductCategoryByRemoteId(site: SiteModel, remoteId: Long) =
             ProductSqlUtils.getProductCategoryByRemoteId(site.id, remoteId)